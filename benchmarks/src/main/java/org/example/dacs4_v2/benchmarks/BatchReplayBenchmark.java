@@ -0,0 +1,63 @@
+package org.example.dacs4_v2.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.example.dacs4_v2.game.GameReplayService;
+import org.example.dacs4_v2.game.RandomGames;
+import org.example.dacs4_v2.game.ReplayResult;
+import org.example.dacs4_v2.models.Game;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * So sánh phát lại tuần tự và GameReplayService.replayAll (song song) trên một lịch sử nhiều ván
+ * 9x9, 13x13, 19x19 xen kẽ; mỗi lần gọi phát lại cả lịch sử. Kết quả hai cách được đối chiếu ở
+ * GameReplayServiceTest.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BatchReplayBenchmark {
+
+    @Param({ "2000" })
+    public int games;
+
+    private List<Game> history;
+
+    @Setup
+    public void setup() {
+        history = new ArrayList<>(games);
+        for (int g = 0; g < games; g++) {
+            int size = g % 3 == 0 ? 9 : g % 3 == 1 ? 13 : 19;
+            history.add(BenchmarkGames.recorded(size, RandomGames.generate(size, g, size * size), "g" + g));
+        }
+    }
+
+    @Benchmark
+    public List<ReplayResult> sequential() {
+        List<ReplayResult> results = new ArrayList<>(history.size());
+        for (Game game : history) {
+            results.add(GameReplayService.replay(game));
+        }
+        return results;
+    }
+
+    @Benchmark
+    public List<ReplayResult> parallel() {
+        return GameReplayService.replayAll(history);
+    }
+}
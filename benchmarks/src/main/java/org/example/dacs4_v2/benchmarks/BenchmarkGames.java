@@ -0,0 +1,61 @@
+package org.example.dacs4_v2.benchmarks;
+
+import org.example.dacs4_v2.game.EngineMode;
+import org.example.dacs4_v2.game.GoGameLogic;
+import org.example.dacs4_v2.game.RandomGames;
+import org.example.dacs4_v2.models.Game;
+import org.example.dacs4_v2.models.Moves;
+
+/**
+ * Dữ liệu dùng chung cho các benchmark: ván ngẫu nhiên (nước đi phẳng x, y, color)
+ * và ván "đã ghi" dạng Game + List<Moves> như trong lịch sử đấu.
+ * Seed cố định để kết quả giữa các lần chạy so sánh được.
+ */
+final class BenchmarkGames {
+
+    static final int GAMES = 16;
+
+    private BenchmarkGames() {
+    }
+
+    /**
+     * Sinh GAMES ván ngẫu nhiên, mỗi ván tối đa boardSize^2 nước.
+     */
+    static int[][] random(int boardSize) {
+        int[][] games = new int[GAMES][];
+        for (int g = 0; g < GAMES; g++) {
+            games[g] = RandomGames.generate(boardSize, 1000L * boardSize + g, boardSize * boardSize);
+        }
+        return games;
+    }
+
+    /**
+     * Chuyển ván ngẫu nhiên sang dạng Game đã lưu (có 2 nước pass cuối ván).
+     */
+    static Game recorded(int boardSize, int[] moves, String gameId) {
+        Game game = new Game(gameId, "host", "host", "rival", boardSize, 65, "benchmark");
+        int order = 0;
+        for (int i = 0; i < moves.length; i += 3) {
+            String player = moves[i + 2] == 1 ? "BLACK" : "WHITE";
+            game.addMove(new Moves(order++, player, moves[i], moves[i + 1], gameId));
+        }
+        String next = moves.length > 0 && moves[moves.length - 1] == 1 ? "WHITE" : "BLACK";
+        game.addMove(new Moves(order++, next, -1, -1, gameId));
+        game.addMove(new Moves(order, "BLACK".equals(next) ? "WHITE" : "BLACK", -1, -1, gameId));
+        return game;
+    }
+
+    /**
+     * Phát lại ván đã lưu giống GameController khi resume (bỏ qua pass, không kiểm tra Ko/tự tử).
+     */
+    static GoGameLogic replayRecorded(Game game, EngineMode mode) {
+        GoGameLogic logic = new GoGameLogic(game.getBoardSize(), mode);
+        for (Moves m : game.getMoves()) {
+            if (m.getX() < 0 || m.getY() < 0) {
+                continue;
+            }
+            logic.applyMove(m.getX(), m.getY(), "BLACK".equals(m.getPlayer()) ? 1 : 2, false);
+        }
+        return logic;
+    }
+}
@@ -0,0 +1,57 @@
+package org.example.dacs4_v2.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.example.dacs4_v2.game.BensonAnalyzer;
+import org.example.dacs4_v2.game.RandomGames;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark BensonAnalyzer.deadStones() (phân tích cả hai màu) trên các ván ngẫu nhiên đã đánh kín
+ * bàn. Tính đúng đắn (quân pass-alive không bị bắt) được kiểm tra ở BensonAnalyzerTest.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BensonBenchmark {
+
+    private static final int POSITIONS = 32;
+
+    @Param({ "9", "13", "19" })
+    public int boardSize;
+
+    private int[][][] boards;
+    private BensonAnalyzer analyzer;
+    private int next;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(boardSize);
+        boards = new int[POSITIONS][][];
+        for (int i = 0; i < POSITIONS; i++) {
+            boards[i] = RandomGames.finished(boardSize, random).getBoard();
+        }
+        analyzer = new BensonAnalyzer(boardSize);
+    }
+
+    @Benchmark
+    public long[] deadStones() {
+        int[][] board = boards[next];
+        next = (next + 1) % POSITIONS;
+        return analyzer.deadStones(board);
+    }
+}
@@ -0,0 +1,65 @@
+package org.example.dacs4_v2.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.example.dacs4_v2.game.EngineMode;
+import org.example.dacs4_v2.game.GoGameLogic;
+import org.example.dacs4_v2.game.RandomGames;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark GoGameLogic.deepCopy và boardsEqual trên bàn cờ cuối các ván ngẫu nhiên.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardCopyBenchmark {
+
+    @Param({ "9", "13", "19" })
+    public int boardSize;
+
+    private int[][][] boards;
+    private int[][][] copies;
+    private int next;
+
+    @Setup
+    public void setup() {
+        int[][] games = BenchmarkGames.random(boardSize);
+        boards = new int[games.length][][];
+        copies = new int[games.length][][];
+        for (int g = 0; g < games.length; g++) {
+            boards[g] = RandomGames.replay(boardSize, games[g], EngineMode.INCREMENTAL).getBoard();
+            copies[g] = GoGameLogic.deepCopy(boards[g]);
+        }
+    }
+
+    @Benchmark
+    public int[][] deepCopy() {
+        int[][] board = boards[next];
+        next = (next + 1) % boards.length;
+        return GoGameLogic.deepCopy(board);
+    }
+
+    /**
+     * So hai bàn giống nhau (trường hợp xấu nhất: phải so hết mọi ô).
+     */
+    @Benchmark
+    public boolean boardsEqual() {
+        int i = next;
+        next = (next + 1) % boards.length;
+        return GoGameLogic.boardsEqual(boards[i], copies[i]);
+    }
+}
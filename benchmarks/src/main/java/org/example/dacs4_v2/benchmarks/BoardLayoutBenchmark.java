@@ -0,0 +1,166 @@
+package org.example.dacs4_v2.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.example.dacs4_v2.game.EngineMode;
+import org.example.dacs4_v2.game.PaddedBoard;
+import org.example.dacs4_v2.game.RandomGames;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * So sánh bàn cờ int[][] (kiểm tra biên mỗi láng giềng) với PaddedBoard (mảng byte 1 chiều có vòng
+ * biên): quét liberties của mọi nhóm trên bàn cờ cuối ván, và phát lại cả ván bằng GoGameLogic
+ * CLASSIC (int[][]) / INCREMENTAL (PaddedBoard).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardLayoutBenchmark {
+
+    @Param({ "9", "13", "19" })
+    public int boardSize;
+
+    private int[][] games;
+    private int[][][] arrays;
+    private PaddedBoard[] padded;
+    private int next;
+
+    @Setup
+    public void setup() {
+        games = BenchmarkGames.random(boardSize);
+        arrays = new int[games.length][][];
+        padded = new PaddedBoard[games.length];
+        for (int g = 0; g < games.length; g++) {
+            arrays[g] = RandomGames.replay(boardSize, games[g], EngineMode.CLASSIC).getBoard();
+            padded[g] = PaddedBoard.fromArray(arrays[g], boardSize);
+        }
+    }
+
+    @Benchmark
+    public int libertyScanArray() {
+        return libertyScanArray(arrays[nextGame()], boardSize);
+    }
+
+    @Benchmark
+    public int libertyScanPadded() {
+        return libertyScanPadded(padded[nextGame()]);
+    }
+
+    @Benchmark
+    public long replayClassic() {
+        return RandomGames.replay(boardSize, games[nextGame()], EngineMode.CLASSIC).getHash();
+    }
+
+    @Benchmark
+    public long replayIncremental() {
+        return RandomGames.replay(boardSize, games[nextGame()], EngineMode.INCREMENTAL).getHash();
+    }
+
+    private int nextGame() {
+        int g = next;
+        next = (next + 1) % games.length;
+        return g;
+    }
+
+    /**
+     * Tổng liberties của mọi nhóm, DFS trên int[][] với kiểm tra biên.
+     */
+    private static int libertyScanArray(int[][] board, int n) {
+        int[] mark = new int[n * n];
+        int[] libMark = new int[n * n];
+        int[] stack = new int[n * n];
+        int stamp = 0;
+        int total = 0;
+        int[] dx = { 1, -1, 0, 0 };
+        int[] dy = { 0, 0, 1, -1 };
+        for (int sx = 0; sx < n; sx++) {
+            for (int sy = 0; sy < n; sy++) {
+                int color = board[sx][sy];
+                if (color == 0 || mark[sx * n + sy] != 0) {
+                    continue;
+                }
+                stamp++;
+                int top = 0;
+                stack[top++] = sx * n + sy;
+                mark[sx * n + sy] = 1;
+                while (top > 0) {
+                    int p = stack[--top];
+                    int x = p / n;
+                    int y = p % n;
+                    for (int d = 0; d < 4; d++) {
+                        int nx = x + dx[d];
+                        int ny = y + dy[d];
+                        if (nx < 0 || nx >= n || ny < 0 || ny >= n) {
+                            continue;
+                        }
+                        int q = nx * n + ny;
+                        if (board[nx][ny] == 0) {
+                            if (libMark[q] != stamp) {
+                                libMark[q] = stamp;
+                                total++;
+                            }
+                        } else if (board[nx][ny] == color && mark[q] == 0) {
+                            mark[q] = 1;
+                            stack[top++] = q;
+                        }
+                    }
+                }
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Tổng liberties của mọi nhóm, DFS trên PaddedBoard với offset cố định.
+     */
+    private static int libertyScanPadded(PaddedBoard board) {
+        int cells = board.getCellCount();
+        int stride = board.getStride();
+        int[] mark = new int[cells];
+        int[] libMark = new int[cells];
+        int[] stack = new int[cells];
+        int[] offsets = { 1, -1, stride, -stride };
+        int stamp = 0;
+        int total = 0;
+        for (int s = stride + 1; s < cells - stride - 1; s++) {
+            int color = board.get(s);
+            if (color == PaddedBoard.EMPTY || color == PaddedBoard.BORDER || mark[s] != 0) {
+                continue;
+            }
+            stamp++;
+            int top = 0;
+            stack[top++] = s;
+            mark[s] = 1;
+            while (top > 0) {
+                int p = stack[--top];
+                for (int d = 0; d < 4; d++) {
+                    int q = p + offsets[d];
+                    int c = board.get(q);
+                    if (c == PaddedBoard.EMPTY) {
+                        if (libMark[q] != stamp) {
+                            libMark[q] = stamp;
+                            total++;
+                        }
+                    } else if (c == color && mark[q] == 0) {
+                        mark[q] = 1;
+                        stack[top++] = q;
+                    }
+                }
+            }
+        }
+        return total;
+    }
+}
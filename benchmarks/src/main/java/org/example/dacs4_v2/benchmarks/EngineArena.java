@@ -0,0 +1,205 @@
+package org.example.dacs4_v2.benchmarks;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.example.dacs4_v2.game.EngineMode;
+import org.example.dacs4_v2.game.GoGameLogic;
+
+/**
+ * Đấu trường tự chơi không giao diện để theo dõi hiệu năng engine theo thời gian: chơi hàng nghìn
+ * ván chính sách ngẫu nhiên (nước hợp lệ ngẫu nhiên, không tự lấp mắt) qua GoGameLogic trên mọi core,
+ * rồi ghi thêm một dòng CSV cho mỗi kích thước bàn: ván/giây, nước/giây, độ trễ p50/p99 mỗi nước
+ * (legalMoves + applyMove) và tốc độ cấp phát bộ nhớ.
+ *
+ * Ván thứ i luôn dùng seed cố định theo i nên khối lượng công việc giống nhau giữa các lần chạy.
+ * Không dùng JavaFX hay mạng.
+ *
+ * Chạy: mvn -B -f benchmarks/pom.xml -Parena verify (tham số qua -Darena.games, -Darena.sizes,
+ * -Darena.threads, -Darena.csv, -Darena.mode) hoặc java -cp benchmarks/target/benchmarks.jar
+ * org.example.dacs4_v2.benchmarks.EngineArena [số ván] [kích thước, vd 9,13,19] [số luồng, 0 = mọi core]
+ * [file csv] [CLASSIC|INCREMENTAL]
+ */
+public class EngineArena {
+
+    private static final String HEADER = "timestamp,java,mode,size,threads,games,moves,seconds,games_per_sec,"
+            + "moves_per_sec,p50_ns,p99_ns,alloc_mb_per_sec,alloc_bytes_per_move";
+
+    // Histogram độ trễ: ô 10 ns tới 1 ms, ô cuối gom mọi giá trị lớn hơn
+    private static final int BUCKET_NS = 10;
+    private static final int BUCKETS = 100_000;
+
+    public static void main(String[] args) throws IOException {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        String sizes = args.length > 1 ? args[1] : "9,13,19";
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : 0;
+        if (threads <= 0) {
+            threads = Runtime.getRuntime().availableProcessors();
+        }
+        Path csv = Paths.get(args.length > 3 ? args[3] : "target/arena.csv");
+        EngineMode mode = args.length > 4 ? EngineMode.valueOf(args[4]) : EngineMode.INCREMENTAL;
+
+        com.sun.management.ThreadMXBean mx = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        if (mx.isThreadAllocatedMemorySupported()) {
+            mx.setThreadAllocatedMemoryEnabled(true);
+        }
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        System.out.printf("%d ván mỗi kích thước, %d luồng, %s -> %s%n", games, threads, mode, csv);
+        System.out.println(HEADER);
+        try {
+            for (String s : sizes.split(",")) {
+                int size = Integer.parseInt(s.trim());
+                // Lượt làm nóng JIT (1/10 số ván) rồi mới đo
+                run(pool, mx, size, Math.max(threads, games / 10), threads, mode);
+                String row = run(pool, mx, size, games, threads, mode);
+                System.out.println(row);
+                append(csv, row);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static String run(ForkJoinPool pool, com.sun.management.ThreadMXBean mx, int size, int games,
+            int threads, EngineMode mode) {
+        AtomicInteger tickets = new AtomicInteger();
+        Worker[] workers = new Worker[threads];
+        for (int w = 0; w < threads; w++) {
+            workers[w] = new Worker(mx, size, games, mode, tickets);
+        }
+        long start = System.nanoTime();
+        pool.invoke(new RecursiveAction() {
+            @Override
+            protected void compute() {
+                invokeAll(workers);
+            }
+        });
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        long[] histogram = new long[BUCKETS];
+        long moves = 0;
+        long allocated = 0;
+        for (Worker w : workers) {
+            moves += w.moves;
+            allocated += w.allocated;
+            for (int b = 0; b < BUCKETS; b++) {
+                histogram[b] += w.histogram[b];
+            }
+        }
+        return String.format(Locale.ROOT, "%s,%s,%s,%d,%d,%d,%d,%.3f,%.1f,%.0f,%d,%d,%.2f,%.2f",
+                Instant.now(), System.getProperty("java.version"), mode, size, threads, games, moves, seconds,
+                games / seconds, moves / seconds, percentile(histogram, moves, 0.50),
+                percentile(histogram, moves, 0.99), allocated / seconds / (1024 * 1024),
+                moves > 0 ? (double) allocated / moves : 0);
+    }
+
+    private static long percentile(long[] histogram, long total, double q) {
+        long target = (long) Math.ceil(total * q);
+        long seen = 0;
+        for (int b = 0; b < BUCKETS; b++) {
+            seen += histogram[b];
+            if (seen >= target && seen > 0) {
+                return (long) (b + 1) * BUCKET_NS;
+            }
+        }
+        return (long) BUCKETS * BUCKET_NS;
+    }
+
+    private static void append(Path csv, String row) throws IOException {
+        if (csv.getParent() != null) {
+            Files.createDirectories(csv.getParent());
+        }
+        boolean fresh = !Files.exists(csv) || Files.size(csv) == 0;
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(csv, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND))) {
+            if (fresh) {
+                out.println(HEADER);
+            }
+            out.println(row);
+        }
+    }
+
+    /**
+     * Một luồng: lấy số thứ tự ván từ bộ đếm chung, chơi ván đó và ghi độ trễ từng nước vào histogram riêng.
+     */
+    private static final class Worker extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final transient com.sun.management.ThreadMXBean mx;
+        private final int size;
+        private final int games;
+        private final EngineMode mode;
+        private final AtomicInteger tickets;
+
+        final long[] histogram = new long[BUCKETS];
+        long moves;
+        long allocated;
+
+        Worker(com.sun.management.ThreadMXBean mx, int size, int games, EngineMode mode, AtomicInteger tickets) {
+            this.mx = mx;
+            this.size = size;
+            this.games = games;
+            this.mode = mode;
+            this.tickets = tickets;
+        }
+
+        @Override
+        protected void compute() {
+            long threadId = Thread.currentThread().getId();
+            long allocatedBefore = mx.isThreadAllocatedMemoryEnabled() ? mx.getThreadAllocatedBytes(threadId) : 0;
+            int[] candidates = new int[size * size];
+            int ticket;
+            while ((ticket = tickets.getAndIncrement()) < games) {
+                play(new GoGameLogic(size, mode), new SplittableRandom(0x9E3779B97F4A7C15L * (ticket + 1)),
+                        candidates);
+            }
+            if (mx.isThreadAllocatedMemoryEnabled()) {
+                allocated = mx.getThreadAllocatedBytes(threadId) - allocatedBefore;
+            }
+        }
+
+        /**
+         * Chơi tới khi cả hai bên pass liên tiếp (không còn nước nào ngoài tự lấp mắt) hoặc quá dài.
+         */
+        private void play(GoGameLogic logic, SplittableRandom random, int[] candidates) {
+            int n = size;
+            int color = 1;
+            int passes = 0;
+            int maxMoves = n * n * 3;
+            for (int m = 0; m < maxMoves && passes < 2; m++) {
+                long start = System.nanoTime();
+                long[] legal = logic.legalMoves(color);
+                int count = 0;
+                for (int i = 0; i < n * n; i++) {
+                    if ((legal[i >>> 6] & (1L << i)) != 0 && !logic.isEyeLike(i / n, i % n, color)) {
+                        candidates[count++] = i;
+                    }
+                }
+                if (count == 0) {
+                    passes++;
+                } else {
+                    int p = candidates[random.nextInt(count)];
+                    logic.applyMove(p / n, p % n, color, true);
+                    passes = 0;
+                }
+                long elapsed = System.nanoTime() - start;
+                histogram[(int) Math.min(BUCKETS - 1, elapsed / BUCKET_NS)]++;
+                moves++;
+                color = color == 1 ? 2 : 1;
+            }
+        }
+    }
+}
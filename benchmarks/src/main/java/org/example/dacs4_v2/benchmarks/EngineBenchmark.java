@@ -0,0 +1,93 @@
+package org.example.dacs4_v2.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.example.dacs4_v2.game.EngineMode;
+import org.example.dacs4_v2.game.GoGameLogic;
+import org.example.dacs4_v2.game.RandomGames;
+import org.example.dacs4_v2.models.Game;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark GoGameLogic: từng nước applyMove và phát lại cả ván (ngẫu nhiên / đã lưu),
+ * trên bàn 9x9, 13x13, 19x19 với cả hai chế độ engine.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EngineBenchmark {
+
+    @Param({ "9", "13", "19" })
+    public int boardSize;
+
+    @Param({ "CLASSIC", "INCREMENTAL" })
+    public EngineMode mode;
+
+    private int[][] games;
+    private Game[] recorded;
+    private int nextGame;
+
+    // Trạng thái cho benchmark applyMove: đi lần lượt các nước của một ván
+    private GoGameLogic logic;
+    private int[] moves;
+    private int moveIndex;
+
+    @Setup
+    public void setup() {
+        games = BenchmarkGames.random(boardSize);
+        recorded = new Game[games.length];
+        for (int g = 0; g < games.length; g++) {
+            recorded[g] = BenchmarkGames.recorded(boardSize, games[g], "bench-" + g);
+        }
+        logic = new GoGameLogic(boardSize, mode);
+        moves = games[0];
+        moveIndex = 0;
+    }
+
+    /**
+     * Một nước applyMove. Hết ván thì seek(0) về đầu (chi phí chia đều cho cả ván).
+     */
+    @Benchmark
+    public boolean applyMove() {
+        if (moveIndex == moves.length) {
+            logic.seek(0);
+            moveIndex = 0;
+        }
+        int i = moveIndex;
+        moveIndex += 3;
+        return logic.applyMove(moves[i], moves[i + 1], moves[i + 2], true);
+    }
+
+    /**
+     * Phát lại cả một ván ngẫu nhiên trên GoGameLogic mới.
+     */
+    @Benchmark
+    public long replayRandom() {
+        int[] game = games[nextGame];
+        nextGame = (nextGame + 1) % games.length;
+        return RandomGames.replay(boardSize, game, mode).getHash();
+    }
+
+    /**
+     * Phát lại cả một ván đã lưu (Game + List<Moves>) như khi resume.
+     */
+    @Benchmark
+    public long replayRecorded() {
+        Game game = recorded[nextGame];
+        nextGame = (nextGame + 1) % recorded.length;
+        return BenchmarkGames.replayRecorded(game, mode).getHash();
+    }
+}
@@ -0,0 +1,92 @@
+package org.example.dacs4_v2.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.example.dacs4_v2.game.EngineMode;
+import org.example.dacs4_v2.game.GoGameLogic;
+import org.example.dacs4_v2.game.RandomGames;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * So sánh GoGameLogic.legalMoves() (CLASSIC, INCREMENTAL) với cách cũ: thử applyMove trên một bản sao
+ * của bàn cờ cho từng ô, trên các thế cờ giữa ván cả thưa lẫn dày. Kết quả đúng được kiểm tra ở
+ * LegalMovesTest.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LegalMovesBenchmark {
+
+    private static final int POSITIONS = 32;
+
+    @Param({ "9", "13", "19" })
+    public int boardSize;
+
+    private GoGameLogic[] classic;
+    private GoGameLogic[] incremental;
+    private int next;
+
+    @Setup
+    public void setup() {
+        classic = new GoGameLogic[POSITIONS];
+        incremental = new GoGameLogic[POSITIONS];
+        for (int i = 0; i < POSITIONS; i++) {
+            // Thế cờ giữa ván: số nước khác nhau để có cả bàn thưa lẫn bàn dày
+            int[] moves = RandomGames.generate(boardSize, 7000L * boardSize + i,
+                    boardSize * boardSize * (i % 4 + 1) / 3);
+            classic[i] = RandomGames.replay(boardSize, moves, EngineMode.CLASSIC);
+            incremental[i] = RandomGames.replay(boardSize, moves, EngineMode.INCREMENTAL);
+        }
+    }
+
+    /**
+     * Cách cũ: với mỗi ô, tạo bản sao bàn cờ và thử applyMove.
+     */
+    @Benchmark
+    public long[] bruteForce() {
+        GoGameLogic logic = classic[nextPosition()];
+        int n = logic.getBoardSize();
+        int[][] board = logic.getBoard();
+        int[][] prev = logic.getPrevBoard();
+        long[] mask = new long[(n * n + 63) >>> 6];
+        for (int x = 0; x < n; x++) {
+            for (int y = 0; y < n; y++) {
+                GoGameLogic copy = new GoGameLogic(n, board, prev);
+                if (copy.applyMove(x, y, 1, true)) {
+                    int i = x * n + y;
+                    mask[i >>> 6] |= 1L << i;
+                }
+            }
+        }
+        return mask;
+    }
+
+    @Benchmark
+    public long[] legalMovesClassic() {
+        return classic[nextPosition()].legalMoves(1);
+    }
+
+    @Benchmark
+    public long[] legalMovesIncremental() {
+        return incremental[nextPosition()].legalMoves(1);
+    }
+
+    private int nextPosition() {
+        int i = next;
+        next = (next + 1) % POSITIONS;
+        return i;
+    }
+}
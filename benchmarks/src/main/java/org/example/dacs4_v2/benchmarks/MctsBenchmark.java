@@ -0,0 +1,65 @@
+package org.example.dacs4_v2.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.example.dacs4_v2.game.EngineMode;
+import org.example.dacs4_v2.game.GoGameLogic;
+import org.example.dacs4_v2.game.MctsEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark MctsEngine khi tự đánh MOVES nước đầu ván (mỗi màu một engine, như khi đấu với người,
+ * nên cây được giữ lại giữa các nước). Mỗi nước chạy đúng số playout cố định (ngân sách thời gian
+ * đủ lớn để không hết giờ trước). Việc giữ lại cây được kiểm tra ở MctsEngineTest.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MctsBenchmark {
+
+    private static final int MOVES = 10;
+    private static final long NO_DEADLINE_MS = 60_000;
+
+    @Param({ "9", "13", "19" })
+    public int boardSize;
+
+    @Param({ "1000" })
+    public int playouts;
+
+    private MctsEngine[] engines;
+
+    @Setup
+    public void setup() {
+        engines = new MctsEngine[] { new MctsEngine(playouts), new MctsEngine(playouts) };
+    }
+
+    @Benchmark
+    public long selfPlay() {
+        GoGameLogic logic = new GoGameLogic(boardSize, EngineMode.INCREMENTAL);
+        engines[0].reset();
+        engines[1].reset();
+        int color = 1;
+        for (int m = 0; m < MOVES; m++) {
+            int[] move = engines[color - 1].selectMove(logic, color, 6.5, NO_DEADLINE_MS);
+            if (move[0] < 0) {
+                break;
+            }
+            logic.applyMove(move[0], move[1], color, false);
+            color = color == 1 ? 2 : 1;
+        }
+        return logic.getHash();
+    }
+}
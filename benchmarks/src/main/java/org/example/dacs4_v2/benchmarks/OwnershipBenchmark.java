@@ -0,0 +1,137 @@
+package org.example.dacs4_v2.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.example.dacs4_v2.game.EngineMode;
+import org.example.dacs4_v2.game.GoGameLogic;
+import org.example.dacs4_v2.game.OwnershipEstimator;
+import org.example.dacs4_v2.game.OwnershipMap;
+import org.example.dacs4_v2.game.RandomGames;
+import org.example.dacs4_v2.models.Game;
+import org.example.dacs4_v2.models.Moves;
+import org.example.dacs4_v2.viewModels.helpers.GameScoreCalculator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark độ trễ ước lượng ownership bằng playout (OwnershipEstimator) trên thế cờ cuối ván 19x19
+ * với các mức số playout và số luồng, và cả đường tính điểm khi không có KataGo
+ * (GameScoreCalculator.calculateSimpleScoreResult: phát lại ván, Benson, ownership, AreaScorer).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OwnershipBenchmark {
+
+    private static final int POSITIONS = 8;
+
+    /**
+     * Thế cờ cuối ván 19x19 (đánh ngẫu nhiên tới khi hết nước) cho OwnershipEstimator.
+     */
+    @State(Scope.Thread)
+    public static class Positions {
+
+        @Param({ "100", "400", "1000" })
+        public int playouts;
+
+        // 0 = mọi core
+        @Param({ "1", "0" })
+        public int threads;
+
+        int[][][] boards;
+        OwnershipEstimator estimator;
+        int next;
+
+        @Setup
+        public void setup() {
+            Random random = new Random(19);
+            boards = new int[POSITIONS][][];
+            for (int i = 0; i < POSITIONS; i++) {
+                boards[i] = RandomGames.finished(19, random).getBoard();
+            }
+            int n = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+            estimator = new OwnershipEstimator(playouts, n, OwnershipEstimator.DEFAULT_DEAD_THRESHOLD);
+        }
+    }
+
+    /**
+     * Ván đã lưu (Game + List<Moves>) cho đường tính điểm của GameScoreCalculator.
+     */
+    @State(Scope.Thread)
+    public static class Recorded {
+
+        @Param({ "9", "13", "19" })
+        public int boardSize;
+
+        Game[] games;
+        int next;
+
+        @Setup
+        public void setup() {
+            int[][] random = BenchmarkGames.random(boardSize);
+            games = new Game[random.length];
+            for (int g = 0; g < random.length; g++) {
+                games[g] = BenchmarkGames.recorded(boardSize, random[g], "bench-" + g);
+            }
+        }
+    }
+
+    /**
+     * Một lần OwnershipEstimator.estimate() trên thế cờ cuối ván.
+     */
+    @Benchmark
+    public OwnershipMap estimate(Positions state) {
+        int[][] board = state.boards[state.next];
+        state.next = (state.next + 1) % state.boards.length;
+        return state.estimator.estimate(board, 1);
+    }
+
+    /**
+     * Tính điểm tại máy với tham số ownership mặc định, từ số quân bắt có sẵn trong Game.
+     */
+    @Benchmark
+    public String simpleScore(Recorded state) {
+        Game game = state.games[state.next];
+        state.next = (state.next + 1) % state.games.length;
+        return new GameScoreCalculator(game).calculateSimpleScoreResult();
+    }
+
+    /**
+     * Phát lại ván đã lưu, đếm quân bắt được của mỗi bên rồi tính điểm như simpleScore().
+     */
+    @Benchmark
+    public String replayAndScore(Recorded state) {
+        Game game = state.games[state.next];
+        state.next = (state.next + 1) % state.games.length;
+        GameScoreCalculator calculator = new GameScoreCalculator(game);
+        calculator.setCapturedByBlack(0);
+        calculator.setCapturedByWhite(0);
+        GoGameLogic logic = new GoGameLogic(state.boardSize, EngineMode.INCREMENTAL);
+        for (Moves m : game.getMoves()) {
+            if (m.getX() < 0 || m.getY() < 0) {
+                continue;
+            }
+            boolean black = "BLACK".equals(m.getPlayer());
+            if (logic.applyMove(m.getX(), m.getY(), black ? 1 : 2, false)) {
+                if (black) {
+                    calculator.addCapturedByBlack(logic.getLastCaptureCount());
+                } else {
+                    calculator.addCapturedByWhite(logic.getLastCaptureCount());
+                }
+            }
+        }
+        return calculator.calculateSimpleScoreResult();
+    }
+}
@@ -0,0 +1,63 @@
+package org.example.dacs4_v2.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.example.dacs4_v2.game.EngineMode;
+import org.example.dacs4_v2.game.GoGameLogic;
+import org.example.dacs4_v2.game.MonteCarloEngine;
+import org.example.dacs4_v2.game.RandomGames;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark MonteCarloEngine.selectMove() với số playout cố định mỗi nước (ngân sách thời gian đủ lớn
+ * để không bao giờ hết giờ trước), trên bàn trống và thế cờ giữa ván (1/3 số ô đã đi).
+ * Tốc độ playout/giây = playouts / thời gian mỗi lần gọi.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlayoutBenchmark {
+
+    private static final long NO_DEADLINE_MS = 60_000;
+
+    @Param({ "9", "13", "19" })
+    public int boardSize;
+
+    @Param({ "1000" })
+    public int playouts;
+
+    private MonteCarloEngine engine;
+    private GoGameLogic empty;
+    private GoGameLogic middle;
+
+    @Setup
+    public void setup() {
+        engine = new MonteCarloEngine(NO_DEADLINE_MS, playouts);
+        empty = new GoGameLogic(boardSize, EngineMode.INCREMENTAL);
+        middle = RandomGames.replay(boardSize, RandomGames.generate(boardSize, boardSize, boardSize * boardSize / 3),
+                EngineMode.INCREMENTAL);
+    }
+
+    @Benchmark
+    public int[] selectMoveEmpty() {
+        return engine.selectMove(empty, 1, 6.5);
+    }
+
+    @Benchmark
+    public int[] selectMoveMiddle() {
+        return engine.selectMove(middle, 1, 6.5);
+    }
+}
@@ -0,0 +1,80 @@
+package org.example.dacs4_v2.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.example.dacs4_v2.game.AreaScorer;
+import org.example.dacs4_v2.game.BensonAnalyzer;
+import org.example.dacs4_v2.game.EngineMode;
+import org.example.dacs4_v2.game.ScoreResult;
+import org.example.dacs4_v2.game.ScoringRule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark đếm đất bằng AreaScorer trên bàn cờ cuối ván: không có quân chết, và với quân chết /
+ * quân đã rõ của BensonAnalyzer tính sẵn ở setup. Chỉ đo phần đếm; phần ước lượng ownership bằng
+ * playout (chậm hơn nhiều bậc) nằm ở OwnershipBenchmark.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScoringBenchmark {
+
+    @Param({ "9", "13", "19" })
+    public int boardSize;
+
+    private int[][][] finalBoards;
+    private long[][] deadStones;
+    private long[][] settledStones;
+    private AreaScorer scorer;
+    private int next;
+
+    @Setup
+    public void setup() {
+        int[][] games = BenchmarkGames.random(boardSize);
+        finalBoards = new int[games.length][][];
+        deadStones = new long[games.length][];
+        settledStones = new long[games.length][];
+        BensonAnalyzer benson = new BensonAnalyzer(boardSize);
+        for (int g = 0; g < games.length; g++) {
+            finalBoards[g] = BenchmarkGames.replayRecorded(BenchmarkGames.recorded(boardSize, games[g], "bench-" + g),
+                    EngineMode.INCREMENTAL).getBoard();
+            // BensonAnalyzer dùng lại buffer giữa các lần gọi nên phải copy
+            deadStones[g] = benson.deadStones(finalBoards[g]).clone();
+            settledStones[g] = benson.getSettledStones().clone();
+        }
+        scorer = new AreaScorer(boardSize);
+    }
+
+    /**
+     * Đếm đất (luật AREA) trên bàn cờ cuối ván, mọi quân còn trên bàn đều sống.
+     */
+    @Benchmark
+    public ScoreResult areaScore() {
+        int[][] board = finalBoards[next];
+        next = (next + 1) % finalBoards.length;
+        return scorer.score(board, 6.5, 0, 0, ScoringRule.AREA);
+    }
+
+    /**
+     * Đếm đất (luật AREA) với quân chết và quân đã rõ của Benson, như GameScoreCalculator.scoreLocally().
+     */
+    @Benchmark
+    public ScoreResult areaScoreWithDeadStones() {
+        int g = next;
+        next = (next + 1) % finalBoards.length;
+        return scorer.score(finalBoards[g], deadStones[g], settledStones[g], 6.5, 0, 0, ScoringRule.AREA);
+    }
+}
@@ -0,0 +1,72 @@
+package org.example.dacs4_v2.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.example.dacs4_v2.game.BitBoard;
+import org.example.dacs4_v2.game.BitBoardEngine;
+import org.example.dacs4_v2.game.EngineMode;
+import org.example.dacs4_v2.game.RandomGames;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark phát lại cả một ván ngẫu nhiên trên BitBoard tổng quát (kích thước lúc chạy) so với bản chuyên
+ * theo kích thước từ BitBoardEngine.forSize() (kích thước và số word là hằng số). GoGameLogic INCREMENTAL
+ * được đo kèm để tham chiếu. Kết quả giống nhau giữa các engine được kiểm tra ở EngineCrossCheckTest.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SizedEngineBenchmark {
+
+    @Param({ "9", "13", "19" })
+    public int boardSize;
+
+    private int[][] games;
+    private int next;
+
+    @Setup
+    public void setup() {
+        games = BenchmarkGames.random(boardSize);
+    }
+
+    @Benchmark
+    public int replayGeneric() {
+        return replay(new BitBoard(boardSize), nextGame()).countStones(1);
+    }
+
+    @Benchmark
+    public int replaySized() {
+        return replay(BitBoardEngine.forSize(boardSize), nextGame()).countStones(1);
+    }
+
+    @Benchmark
+    public long replayIncremental() {
+        return RandomGames.replay(boardSize, nextGame(), EngineMode.INCREMENTAL).getHash();
+    }
+
+    private int[] nextGame() {
+        int[] game = games[next];
+        next = (next + 1) % games.length;
+        return game;
+    }
+
+    private static BitBoardEngine replay(BitBoardEngine board, int[] moves) {
+        for (int i = 0; i < moves.length; i += 3) {
+            board.applyMove(moves[i], moves[i + 1], moves[i + 2], true);
+        }
+        return board;
+    }
+}
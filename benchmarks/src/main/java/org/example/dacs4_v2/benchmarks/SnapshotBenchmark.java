@@ -0,0 +1,81 @@
+package org.example.dacs4_v2.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.example.dacs4_v2.game.BoardSnapshot;
+import org.example.dacs4_v2.game.EngineMode;
+import org.example.dacs4_v2.game.GoGameLogic;
+import org.example.dacs4_v2.game.RandomGames;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark rẽ một biến thể DEPTH nước ngẫu nhiên hợp lệ từ thế cờ giữa ván: BoardSnapshot (fork O(1),
+ * dùng chung hàng) so với cách cũ deepCopy + GoGameLogic mỗi nhánh. Chạy kèm -prof gc để so số byte
+ * cấp phát mỗi biến thể. Tính đúng đắn của BoardSnapshot được kiểm tra ở BoardSnapshotTest.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SnapshotBenchmark {
+
+    private static final int DEPTH = 6;
+
+    @Param({ "9", "13", "19" })
+    public int boardSize;
+
+    private GoGameLogic logic;
+    private BoardSnapshot root;
+    private Random random;
+
+    @Setup
+    public void setup() {
+        int[] moves = RandomGames.generate(boardSize, 17L, boardSize * boardSize / 2);
+        logic = RandomGames.replay(boardSize, moves, EngineMode.INCREMENTAL);
+        root = logic.snapshot();
+        random = new Random(boardSize);
+    }
+
+    @Benchmark
+    public BoardSnapshot snapshotVariation() {
+        int n = boardSize;
+        BoardSnapshot s = root;
+        int color = 1;
+        for (int d = 0; d < DEPTH; d++) {
+            BoardSnapshot next = null;
+            while (next == null) {
+                next = s.play(random.nextInt(n), random.nextInt(n), color);
+            }
+            s = next;
+            color = color == 1 ? 2 : 1;
+        }
+        return s;
+    }
+
+    @Benchmark
+    public int[][] deepCopyVariation() {
+        int n = boardSize;
+        GoGameLogic branch = new GoGameLogic(n, GoGameLogic.deepCopy(logic.getBoard()), logic.getPrevBoard());
+        int color = 1;
+        for (int d = 0; d < DEPTH; d++) {
+            while (!branch.applyMove(random.nextInt(n), random.nextInt(n), color, true)) {
+                // thử ô khác
+            }
+            color = color == 1 ? 2 : 1;
+        }
+        return branch.getBoard();
+    }
+}
@@ -0,0 +1,86 @@
+package org.example.dacs4_v2.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.example.dacs4_v2.game.EngineMode;
+import org.example.dacs4_v2.game.GoGameLogic;
+import org.example.dacs4_v2.game.OpeningBook;
+import org.example.dacs4_v2.game.RandomGames;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark key chuẩn theo 8 phép đối xứng trên các thế khai cuộc: getCanonicalHash() từ các hash
+ * đối xứng cập nhật tăng dần, so với tính lại từ bàn cờ (nạp bàn vào GoGameLogic mới), và
+ * OpeningBook.lookup(). Tính đúng đắn của hash đối xứng và sách khai cuộc được kiểm tra ở SymmetryTest.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SymmetryBenchmark {
+
+    private static final int POSITIONS = 32;
+
+    @Param({ "9", "13", "19" })
+    public int boardSize;
+
+    private GoGameLogic[] positions;
+    private int[][][] boards;
+    private OpeningBook book;
+    private int next;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(boardSize);
+        positions = new GoGameLogic[POSITIONS];
+        boards = new int[POSITIONS][][];
+        book = new OpeningBook();
+        for (int i = 0; i < POSITIONS; i++) {
+            int[] moves = RandomGames.generate(boardSize, random.nextLong(), OpeningBook.DEFAULT_MAX_MOVES - 1);
+            positions[i] = RandomGames.replay(boardSize, moves, EngineMode.INCREMENTAL);
+            boards[i] = positions[i].getBoard();
+            // Một nửa số thế có trong sách (nhớ ô trống đầu tiên), nửa còn lại tra trượt
+            if (i % 2 == 0) {
+                int p = 0;
+                while (boards[i][p / boardSize][p % boardSize] != 0) {
+                    p++;
+                }
+                book.record(positions[i], 1, 6.5, p / boardSize, p % boardSize);
+            }
+        }
+    }
+
+    @Benchmark
+    public long canonicalHashIncremental() {
+        GoGameLogic logic = positions[next];
+        next = (next + 1) % POSITIONS;
+        return logic.getCanonicalHash();
+    }
+
+    @Benchmark
+    public long canonicalHashFromBoard() {
+        int[][] board = boards[next];
+        next = (next + 1) % POSITIONS;
+        return new GoGameLogic(boardSize, board, null, EngineMode.INCREMENTAL).getCanonicalHash();
+    }
+
+    @Benchmark
+    public int[] openingBookLookup() {
+        GoGameLogic logic = positions[next];
+        next = (next + 1) % POSITIONS;
+        return book.lookup(logic, 1, 6.5);
+    }
+}
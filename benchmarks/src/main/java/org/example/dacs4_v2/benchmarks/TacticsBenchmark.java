@@ -0,0 +1,162 @@
+package org.example.dacs4_v2.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.example.dacs4_v2.game.EngineMode;
+import org.example.dacs4_v2.game.GoGameLogic;
+import org.example.dacs4_v2.game.RandomGames;
+import org.example.dacs4_v2.game.Tactics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark độ trễ của Tactics trên bàn 19x19: hint() trên mọi ô của các thế cờ giữa ván (giống gợi ý
+ * khi rê chuột), setPosition() và setPosition() + hint() sau mỗi nước khi đi hết một ván (giống gợi ý
+ * ngay sau nước đối thủ), và hint() trên thang dài nhất (từ góc này sang góc kia).
+ *
+ * Mục tiêu là dưới 50 µs mỗi truy vấn ở p99.9 và max chứ không chỉ trung bình, nên đo bằng
+ * Mode.SampleTime (JMH in p0.999 và p1.0 của từng lần gọi). Tính đúng đắn của các thế thang và của
+ * setPosition() khi đồng bộ lại từng nước được kiểm tra ở TacticsTest.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TacticsBenchmark {
+
+    private static final int SIZE = 19;
+    private static final int POSITIONS = 40;
+
+    /**
+     * Thế cờ giữa ván (1/4, 1/2 và 3/4 số ô đã đi), mỗi thế một Tactics đã setPosition().
+     */
+    @State(Scope.Thread)
+    public static class Positions {
+
+        Tactics[] tactics;
+        int position;
+        int cell;
+
+        @Setup
+        public void setup() {
+            Random random = new Random(16);
+            tactics = new Tactics[POSITIONS];
+            for (int i = 0; i < POSITIONS; i++) {
+                int[] moves = RandomGames.generate(SIZE, random.nextLong(), SIZE * SIZE * (i % 3 + 1) / 4);
+                tactics[i] = new Tactics(SIZE);
+                tactics[i].setPosition(RandomGames.replay(SIZE, moves, EngineMode.INCREMENTAL));
+            }
+        }
+    }
+
+    /**
+     * Đi lần lượt các ván ngẫu nhiên; trước mỗi lần gọi (ngoài phần đo) đi thêm một nước.
+     * Mỗi ván một Tactics, nên setPosition() chỉ đồng bộ lại các ô vừa đổi.
+     */
+    @State(Scope.Thread)
+    public static class Games {
+
+        int[][] games;
+        int game;
+        int move;
+        GoGameLogic logic;
+        Tactics tactics;
+        // Ô kề nước vừa đi và màu đi tiếp, cho hint()
+        int hintX;
+        int hintY;
+        int hintColor;
+
+        @Setup
+        public void setup() {
+            Random random = new Random(16);
+            games = new int[POSITIONS][];
+            for (int i = 0; i < POSITIONS; i++) {
+                games[i] = RandomGames.generate(SIZE, random.nextLong(), SIZE * SIZE);
+            }
+            startGame(0);
+        }
+
+        @Setup(Level.Invocation)
+        public void nextMove() {
+            if (move >= games[game].length) {
+                startGame((game + 1) % POSITIONS);
+            }
+            int[] moves = games[game];
+            logic.applyMove(moves[move], moves[move + 1], moves[move + 2], true);
+            hintX = moves[move] > 0 ? moves[move] - 1 : 1;
+            hintY = moves[move + 1];
+            hintColor = 3 - moves[move + 2];
+            move += 3;
+        }
+
+        private void startGame(int g) {
+            game = g;
+            move = 0;
+            logic = new GoGameLogic(SIZE, EngineMode.INCREMENTAL);
+            tactics = new Tactics(SIZE);
+            tactics.setPosition(logic);
+        }
+    }
+
+    /**
+     * Thang dài nhất: quân trắng ở (1, SIZE - 2), đen atari tại (1, SIZE - 3) mở ra thang chạy
+     * về góc (SIZE - 1, 0).
+     */
+    @State(Scope.Thread)
+    public static class Ladder {
+
+        Tactics tactics;
+
+        @Setup
+        public void setup() {
+            int[][] board = new int[SIZE][SIZE];
+            int y = SIZE - 2;
+            board[1][y] = 2;
+            board[0][y] = 1;
+            board[1][y + 1] = 1;
+            board[2][y + 1] = 1;
+            tactics = new Tactics(SIZE);
+            tactics.setPosition(new GoGameLogic(SIZE, board, null, EngineMode.INCREMENTAL));
+        }
+    }
+
+    @Benchmark
+    public Tactics.Hint hintEveryCell(Positions s) {
+        int x = s.cell / SIZE;
+        int y = s.cell % SIZE;
+        Tactics.Hint hint = s.tactics[s.position].hint(x, y, (x + y) % 2 + 1);
+        if (++s.cell == SIZE * SIZE) {
+            s.cell = 0;
+            s.position = (s.position + 1) % POSITIONS;
+        }
+        return hint;
+    }
+
+    @Benchmark
+    public Tactics setPositionPerMove(Games s) {
+        s.tactics.setPosition(s.logic);
+        return s.tactics;
+    }
+
+    @Benchmark
+    public Tactics.Hint setPositionAndHintPerMove(Games s) {
+        s.tactics.setPosition(s.logic);
+        return s.tactics.hint(s.hintX, s.hintY, s.hintColor);
+    }
+
+    @Benchmark
+    public Tactics.Hint longestLadder(Ladder s) {
+        return s.tactics.hint(1, SIZE - 3, 1);
+    }
+}
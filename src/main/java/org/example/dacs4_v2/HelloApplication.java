@@ -11,6 +11,8 @@ import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
 
+import org.example.dacs4_v2.data.GameHistoryStorage;
+import org.example.dacs4_v2.data.GamePersistence;
 import org.example.dacs4_v2.game.GameContext;
 import org.example.dacs4_v2.network.P2PContext;
 import org.example.dacs4_v2.network.P2PNode;
@@ -31,6 +33,9 @@ public class HelloApplication extends Application {
         NetworkRuntimeConfig cfg = NetworkRuntimeConfig.fromArgs(getParameters().getRaw());
         P2PContext.getInstance().setRuntimeConfig(cfg);
 
+        // Áp các nước đi còn trong journal (lần chạy trước bị tắt đột ngột) vào lịch sử
+        GameHistoryStorage.recover();
+
         // Nếu đã có user.json trong thư mục data thì bỏ qua màn login
         File userFile = new File("data/user.json");
         String startFxml = userFile.exists() ? "dashboard.fxml" : "login.fxml";
@@ -56,6 +61,8 @@ public class HelloApplication extends Application {
             } catch (Exception e) {
                 e.printStackTrace();
             }
+            // Chờ lịch sử game đang xếp hàng (kể cả trạng thái PAUSED vừa lưu ở trên) ghi xong
+            GamePersistence.flush();
         });
         stage.setMaximized(true);
         stage.show();
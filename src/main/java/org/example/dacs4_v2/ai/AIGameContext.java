@@ -1,5 +1,13 @@
 package org.example.dacs4_v2.ai;
 
+import org.example.dacs4_v2.game.AreaScorer;
+import org.example.dacs4_v2.game.BensonAnalyzer;
+import org.example.dacs4_v2.game.EngineMode;
+import org.example.dacs4_v2.game.GoGameLogic;
+import org.example.dacs4_v2.game.MctsEngine;
+import org.example.dacs4_v2.game.OpeningBook;
+import org.example.dacs4_v2.game.ScoreResult;
+import org.example.dacs4_v2.game.ScoringRule;
 import org.example.dacs4_v2.models.Game;
 import org.example.dacs4_v2.models.GameStatus;
 import org.example.dacs4_v2.models.User;
@@ -19,6 +27,17 @@ public class AIGameContext {
     private boolean isAIGame = false;
     private boolean playerIsBlack = true; // Người chơi luôn là quân đen (đi trước)
 
+    // Engine MCTS thay cho KataGo khi không có binary/model.
+    // fallbackLogic giữ bàn cờ của game AI vì engine không có trạng thái riêng như KataGo.
+    private static final long FALLBACK_TIME_BUDGET_MS = 2000; // dùng khi ván không tính giờ
+    private static final int FALLBACK_MAX_PLAYOUTS = 200_000;
+    private final MctsEngine fallbackEngine = new MctsEngine(FALLBACK_MAX_PLAYOUTS);
+    // Nước MCTS đã chọn ở đầu ván, tra theo thế cờ chuẩn hóa đối xứng (giữ qua các ván)
+    private final OpeningBook fallbackBook = new OpeningBook();
+    private GoGameLogic fallbackLogic;
+    private double fallbackKomi;
+    private boolean playerPassed = false;
+
     // Paths đến KataGo (sử dụng absolute path)
     private String katagoPath;
     private String modelPath;
@@ -73,18 +92,20 @@ public class AIGameContext {
     public Game startNewAIGame(int boardSize, double komi) {
         isAIGame = true;
 
-        // Khởi động KataGo nếu chưa chạy
-        if (!isKataGoReady()) {
-            if (!startKataGo()) {
-                System.err.println("[AIGame] Không thể khởi động KataGo!");
-                return null;
-            }
+        // Khởi động KataGo nếu chưa chạy; không được thì dùng engine MCTS
+        fallbackLogic = null;
+        playerPassed = false;
+        fallbackEngine.reset();
+        if (!isKataGoReady() && !startKataGo()) {
+            System.err.println("[AIGame] Không thể khởi động KataGo, dùng engine MCTS");
+            fallbackLogic = new GoGameLogic(boardSize, EngineMode.INCREMENTAL);
+            fallbackKomi = komi;
+        } else {
+            // Thiết lập bàn cờ mới
+            kataGoClient.setBoardSize(boardSize);
+            kataGoClient.setKomi(komi);
         }
 
-        // Thiết lập bàn cờ mới
-        kataGoClient.setBoardSize(boardSize);
-        kataGoClient.setKomi(komi);
-
         // Tạo Game object
         currentGame = new Game();
         currentGame.setGameId("AI_" + System.currentTimeMillis());
@@ -95,9 +116,10 @@ public class AIGameContext {
         currentGame.setStartedAt(System.currentTimeMillis());
 
         // Thiết lập user (AI là rival)
-        User aiUser = new User("KATAGO_AI", "KataGo AI");
+        String aiName = fallbackLogic != null ? "MCTS AI" : "KataGo AI";
+        User aiUser = new User("KATAGO_AI", aiName);
         aiUser.setUserId("KATAGO_AI");
-        aiUser.setName("KataGo AI");
+        aiUser.setName(aiName);
         aiUser.setRank(9999); // AI rank rất cao
         currentGame.setRivalUser(aiUser);
 
@@ -166,6 +188,13 @@ public class AIGameContext {
      * @param y tọa độ Y
      */
     public void playPlayerMove(int x, int y) {
+        if (fallbackLogic != null) {
+            synchronized (this) {
+                playerPassed = false;
+                fallbackLogic.applyMove(x, y, playerIsBlack ? 1 : 2, false);
+            }
+            return;
+        }
         if (!isKataGoReady())
             return;
 
@@ -178,6 +207,12 @@ public class AIGameContext {
      * Thông báo pass của người chơi.
      */
     public void playPlayerPass() {
+        if (fallbackLogic != null) {
+            synchronized (this) {
+                playerPassed = true;
+            }
+            return;
+        }
         if (!isKataGoReady())
             return;
 
@@ -191,6 +226,20 @@ public class AIGameContext {
      * @return tọa độ [x, y] hoặc [-1, -1] nếu pass
      */
     public int[] getAIMove() {
+        return getAIMove(0);
+    }
+
+    /**
+     * Yêu cầu AI đánh nước tiếp theo, biết thời gian còn lại của AI trên đồng hồ.
+     * KataGo bỏ qua tham số này; engine MCTS dùng nó để chia thời gian suy nghĩ.
+     *
+     * @param timeRemainingMs thời gian còn lại của AI (<= 0 nếu không tính giờ)
+     * @return tọa độ [x, y] hoặc [-1, -1] nếu pass
+     */
+    public int[] getAIMove(long timeRemainingMs) {
+        if (fallbackLogic != null) {
+            return getFallbackMove(timeRemainingMs);
+        }
         if (!isKataGoReady())
             return null;
 
@@ -207,6 +256,55 @@ public class AIGameContext {
         return move;
     }
 
+    /**
+     * Nước đi từ engine MCTS. Nếu người chơi vừa pass và AI đang thắng thì pass theo để kết thúc ván.
+     */
+    private synchronized int[] getFallbackMove(long timeRemainingMs) {
+        int aiColor = playerIsBlack ? 2 : 1;
+        if (playerPassed) {
+            double margin = scoreFallback().getMargin();
+            if (aiColor == 1 ? margin > 0 : margin < 0) {
+                System.out.println("[AI] MCTS: người chơi pass và AI đang thắng, PASS");
+                return new int[] { -1, -1 };
+            }
+        }
+
+        int[] move = fallbackBook.lookup(fallbackLogic, aiColor, fallbackKomi);
+        if (move != null) {
+            System.out.println("[AI] MCTS: dùng nước trong sách khai cuộc (" + fallbackBook.size() + " thế cờ)");
+        } else {
+            long budget = MctsEngine.budgetFor(timeRemainingMs, fallbackLogic.getBoardSize(),
+                    fallbackLogic.getMoveIndex(), FALLBACK_TIME_BUDGET_MS);
+            move = fallbackEngine.selectMove(fallbackLogic, aiColor, fallbackKomi, budget);
+            System.out.printf("[AI] MCTS: %d playout trong %d ms (%.0f playout/s, giữ lại %d lượt thăm)%n",
+                    fallbackEngine.getLastPlayouts(), budget, fallbackEngine.getLastPlayoutsPerSecond(),
+                    fallbackEngine.getLastReusedVisits());
+            fallbackBook.record(fallbackLogic, aiColor, fallbackKomi, move[0], move[1]);
+        }
+        playerPassed = false;
+        if (move[0] == -1 && move[1] == -1) {
+            System.out.println("[AI] AI quyết định PASS");
+        } else {
+            fallbackLogic.applyMove(move[0], move[1], aiColor, false);
+            System.out.println("[AI] AI đánh: (" + move[0] + ", " + move[1] + ")");
+        }
+        return move;
+    }
+
+    private ScoreResult scoreFallback() {
+        int n = fallbackLogic.getBoardSize();
+        int[][] board = fallbackLogic.getBoard();
+        return new AreaScorer(n).score(board, new BensonAnalyzer(n).deadStones(board), fallbackKomi, 0, 0,
+                ScoringRule.AREA);
+    }
+
+    /**
+     * Số playout/giây của engine MCTS ở nước gần nhất (0 nếu đang dùng KataGo).
+     */
+    public double getFallbackPlayoutsPerSecond() {
+        return fallbackEngine.getLastPlayoutsPerSecond();
+    }
+
     /**
      * Tính điểm cuối game.
      * 
@@ -214,6 +312,9 @@ public class AIGameContext {
      */
     public String calculateScore() {
         System.out.println("[AI] Tính điểm cuối game...");
+        if (fallbackLogic != null) {
+            return scoreFallback().toResultString();
+        }
         if (!isKataGoReady()) {
             System.out.println("[AI] KataGo không sẵn sàng");
             return "Không thể tính điểm";
@@ -229,6 +330,7 @@ public class AIGameContext {
     public void endAIGame() {
         isAIGame = false;
         currentGame = null;
+        fallbackLogic = null;
     }
 
     /**
@@ -241,6 +343,7 @@ public class AIGameContext {
         }
         isAIGame = false;
         currentGame = null;
+        fallbackLogic = null;
     }
 
     /**
@@ -2,6 +2,7 @@ package org.example.dacs4_v2.data;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
 
 import java.io.File;
 import java.io.FileReader;
@@ -11,31 +12,52 @@ import java.io.IOException;
 public class DataStorage {
 
     private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
-    private static final String DATA_DIR = "data";
+    // Cho các file chỉ máy đọc (index): không xuống dòng / thụt lề
+    private static final Gson COMPACT_GSON = new Gson();
+    // Thư mục dữ liệu, tương đối với thư mục chạy app; test đổi sang thư mục tạm qua setDataDir()
+    private static File dataDir = new File("data");
 
-    public static void save(Object data, String fileName) {
-        if (data == null || fileName == null || fileName.isEmpty()) return;
+    public static boolean save(Object data, String fileName) {
+        return write(GSON, data, fileName);
+    }
+
+    public static boolean saveCompact(Object data, String fileName) {
+        return write(COMPACT_GSON, data, fileName);
+    }
+
+    private static boolean write(Gson gson, Object data, String fileName) {
+        if (data == null || fileName == null || fileName.isEmpty()) return false;
         try {
-            File dir = new File(DATA_DIR);
+            File file = new File(dataDir, fileName);
+            File dir = file.getParentFile();
             if (!dir.exists()) {
                 dir.mkdirs();
             }
-            File file = new File(dir, fileName);
             try (FileWriter writer = new FileWriter(file)) {
-                GSON.toJson(data, writer);
+                gson.toJson(data, writer);
             }
+            return true;
         } catch (IOException e) {
             e.printStackTrace();
+            return false;
         }
     }
 
+    static void setDataDir(File dir) {
+        dataDir = dir;
+    }
+
+    static File file(String fileName) {
+        return new File(dataDir, fileName);
+    }
+
     public static <T> T load(String fileName, Class<T> type) {
         if (fileName == null || fileName.isEmpty() || type == null) return null;
-        File file = new File(DATA_DIR, fileName);
+        File file = new File(dataDir, fileName);
         if (!file.exists()) return null;
         try (FileReader reader = new FileReader(file)) {
             return GSON.fromJson(reader, type);
-        } catch (IOException e) {
+        } catch (IOException | JsonParseException e) {
             e.printStackTrace();
             return null;
         }
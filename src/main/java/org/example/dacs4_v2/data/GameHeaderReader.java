@@ -0,0 +1,86 @@
+package org.example.dacs4_v2.data;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import org.example.dacs4_v2.models.Game;
+
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.function.Consumer;
+
+/**
+ * Đọc file lịch sử bằng JsonReader (streaming) thay vì dựng cả cây object một lần:
+ * - readHeader(): chỉ phần đầu của một file game, dừng ngay khi gặp "moves" (Gson ghi field theo thứ tự
+ *   khai báo và moves là field cuối của Game), nên chỉ đọc vài KB dù ván có hàng trăm nước.
+ * - readGames(): từng game một trong {"games": [...]} của data/game_history.json cũ.
+ */
+final class GameHeaderReader {
+
+    private static final Gson GSON = new Gson();
+    private static final String MOVES_FIELD = "moves";
+
+    private GameHeaderReader() {
+    }
+
+    /**
+     * Game không có nước đi (moves rỗng) từ file của một game, hoặc null nếu không đọc được.
+     */
+    static Game readHeader(File file) {
+        if (!file.exists()) {
+            return null;
+        }
+        try (JsonReader in = new JsonReader(new FileReader(file))) {
+            JsonObject header = new JsonObject();
+            in.beginObject();
+            while (in.hasNext()) {
+                String name = in.nextName();
+                if (MOVES_FIELD.equals(name)) {
+                    break;
+                }
+                header.add(name, JsonParser.parseReader(in));
+            }
+            return GSON.fromJson(header, Game.class);
+        } catch (IOException | JsonParseException | IllegalStateException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * Đọc lần lượt từng game trong mảng "games" và đưa cho consumer; chỉ một game nằm trong bộ nhớ mỗi lúc.
+     *
+     * @return số game đã đọc
+     */
+    static int readGames(File file, Consumer<Game> consumer) throws IOException {
+        if (!file.exists()) {
+            return 0;
+        }
+        int count = 0;
+        try (JsonReader in = new JsonReader(new FileReader(file))) {
+            in.beginObject();
+            while (in.hasNext()) {
+                if (!"games".equals(in.nextName()) || in.peek() != JsonToken.BEGIN_ARRAY) {
+                    in.skipValue();
+                    continue;
+                }
+                in.beginArray();
+                while (in.hasNext()) {
+                    Game g = GSON.fromJson(in, Game.class);
+                    if (g != null) {
+                        consumer.accept(g);
+                        count++;
+                    }
+                }
+                in.endArray();
+            }
+        } catch (JsonParseException | IllegalStateException e) {
+            throw new IOException("File lịch sử hỏng: " + file, e);
+        }
+        return count;
+    }
+}
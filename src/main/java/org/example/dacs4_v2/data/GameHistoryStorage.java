@@ -1,56 +1,502 @@
 package org.example.dacs4_v2.data;
 
 import org.example.dacs4_v2.models.Game;
-import org.example.dacs4_v2.models.GameHistory;
+import org.example.dacs4_v2.models.GameIndex;
+import org.example.dacs4_v2.models.GameIndexEntry;
+import org.example.dacs4_v2.models.GameStatus;
+import org.example.dacs4_v2.models.Moves;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.function.Predicate;
 
+/**
+ * Lịch sử game local, mỗi game một file: data/games/&lt;gameId&gt;.json, cùng index nhỏ
+ * data/games/index.json (gameId -> file, thứ tự, trạng thái, thời gian, người chơi) nạp một lần
+ * vào HashMap. Tra cứu / cập nhật một game chỉ đọc / ghi file của game đó và index. Màn hình danh sách
+ * dùng loadHeaders() / countGames() (index phụ theo trạng thái, có phân trang) để không phải đọc nước đi
+ * của mọi game.
+ *
+ * Nước đi giữa hai lần đổi trạng thái nằm trong journal (data/moves.journal, xem MoveLog) cho tới
+ * lần upsert() tiếp theo. Ghi từ UI / RMI đi qua GamePersistence (luồng nền, gộp các lần ghi); các hàm
+ * đọc không chờ luồng đó mà đặt phần chưa ghi xong (GamePersistence.pending()) lên trên dữ liệu trên đĩa.
+ * File data/game_history.json cũ được tách sang data/games ở lần chạy đầu.
+ */
 public class GameHistoryStorage {
 
-    private static final String GAME_HISTORY_FILE = "game_history.json";
+    private static final String LEGACY_HISTORY_FILE = "game_history.json";
+    private static final String GAMES_DIR = "games";
+    private static final String INDEX_NAME = "index.json";
+    private static final String INDEX_FILE = GAMES_DIR + "/" + INDEX_NAME;
+    private static final String MOVE_JOURNAL_FILE = "moves.journal";
+
+    private static MoveLog moveLog = new MoveLog(DataStorage.file(MOVE_JOURNAL_FILE));
+
+    private static final Comparator<GameIndexEntry> NEWEST_FIRST = Comparator
+            .comparingLong(GameIndexEntry::getSortTime).reversed()
+            .thenComparing(Comparator.comparingLong(GameIndexEntry::getSeq).reversed());
+
+    // gameId -> entry; null cho tới lần dùng đầu tiên
+    private static Map<String, GameIndexEntry> index;
+    private static long nextSeq;
+    // Index phụ dựng từ index khi nạp và cập nhật mỗi lần ghi: trạng thái -> game, xếp mới nhất trước
+    // (status null của dữ liệu cũ nằm ở key null)
+    private static Map<GameStatus, NavigableSet<GameIndexEntry>> byStatus;
 
     public static synchronized void upsert(Game game) {
-        // Lưu lịch sử game local vào data/game_history.json.
-        // "Upsert" = nếu đã tồn tại gameId thì replace, nếu chưa thì add lên đầu danh sách.
+        // Lưu game vào file riêng của nó và cập nhật index.
+        // "Upsert" = nếu đã tồn tại gameId thì replace, nếu chưa thì thêm mới (mới nhất lên đầu lịch sử).
+        // Ghi đồng bộ: code UI / RMI dùng GamePersistence.saveGame() để ghi ở luồng nền.
         if (game == null || game.getGameId() == null) {
             return;
         }
+        ensureIndex();
+
+        // Journal có thể còn nước của game khác: ghi chúng vào file của game đó trước khi xóa journal.
+        // Bản trong bộ nhớ của game đang lưu là mới nhất nên bỏ qua bản ghi của nó.
+        Map<String, Game> pending = new HashMap<>();
+        try {
+            moveLog.replay(id -> id.equals(game.getGameId()) ? null : pending.computeIfAbsent(id,
+                    GameHistoryStorage::readShard));
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+
+        boolean saved = true;
+        for (Game g : pending.values()) {
+            if (g != null) {
+                saved &= writeShard(g);
+            }
+        }
+        saved &= writeShard(game);
+        saved &= saveIndex();
+        if (saved) {
+            truncateJournal();
+        }
+    }
 
-        GameHistory history = DataStorage.load(GAME_HISTORY_FILE, GameHistory.class);
-        if (history == null || history.getGames() == null) {
-            history = new GameHistory();
+    static byte[] journalRecord(Game game, Moves move) {
+        // Bản ghi journal cho nước đi vừa add vào game, hoặc null nếu không ghi nối được
+        // (move không phải nước cuối, gameId quá dài) -> phải lưu cả game.
+        List<Moves> moves = game.getMoves();
+        int index = moves != null ? moves.size() - 1 : -1;
+        if (index < 0 || moves.get(index) != move || !MoveLog.fits(game.getGameId())) {
+            return null;
         }
+        return MoveLog.encode(game, move, index);
+    }
+
+    static synchronized void appendRecords(List<byte[]> records) {
+        // Ghi nối các nước đi vào data/moves.journal (bản ghi nhỏ, cố định) thay vì ghi lại file của game.
+        try {
+            moveLog.append(records);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
 
-        List<Game> games = history.getGames();
-        if (games == null) {
-            games = new ArrayList<>();
-            history.setGames(games);
+    static synchronized void syncRecords() {
+        // Đẩy journal xuống đĩa (fsync) để các nước đã ghi nối còn cả khi hệ điều hành sập / mất điện.
+        try {
+            moveLog.force();
+        } catch (IOException e) {
+            e.printStackTrace();
         }
+    }
 
-        for (int i = 0; i < games.size(); i++) {
-            Game g = games.get(i);
-            if (g != null && game.getGameId().equals(g.getGameId())) {
-                games.set(i, game);
-                DataStorage.save(history, GAME_HISTORY_FILE);
-                return;
+    public static synchronized void recover() {
+        // Gọi lúc khởi động: nạp index (tách game_history.json cũ nếu cần), áp journal còn lại
+        // (lần chạy trước bị tắt đột ngột) vào file của từng game rồi xóa journal.
+        ensureIndex();
+        if (moveLog.isEmpty()) {
+            return;
+        }
+        Map<String, Game> pending = new HashMap<>();
+        try {
+            moveLog.replay(id -> pending.computeIfAbsent(id, GameHistoryStorage::readShard));
+        } catch (IOException e) {
+            e.printStackTrace();
+            return;
+        }
+        boolean saved = true;
+        for (Game g : pending.values()) {
+            if (g != null) {
+                saved &= writeShard(g);
             }
         }
+        if (saveIndex() && saved) {
+            truncateJournal();
+        }
+    }
+
+    static synchronized void reset() {
+        // Bỏ index trong bộ nhớ và mở lại journal theo DataStorage hiện tại (test đổi thư mục dữ liệu):
+        // lần dùng sau nạp lại mọi thứ từ đĩa như lúc khởi động.
+        try {
+            moveLog.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        moveLog = new MoveLog(DataStorage.file(MOVE_JOURNAL_FILE));
+        index = null;
+        byStatus = null;
+        nextSeq = 0;
+    }
 
-        games.add(0, game);
-        DataStorage.save(history, GAME_HISTORY_FILE);
+    public static synchronized Game findGame(String gameId) {
+        // Tra một game theo id: O(1) qua index, chỉ đọc file của game đó (kèm nước trong journal).
+        // Không chờ luồng ghi: phần GamePersistence chưa ghi xong được đặt lên trên.
+        if (gameId == null) {
+            return null;
+        }
+        ensureIndex();
+        return readGames(List.of(gameId), GamePersistence.pending()).get(gameId);
     }
 
     public static synchronized List<Game> loadHistory(int limit) {
-        // Load history đã lưu local (không gọi mạng).
-        GameHistory history = DataStorage.load(GAME_HISTORY_FILE, GameHistory.class);
-        if (history == null || history.getGames() == null) {
-            return new ArrayList<>();
+        // Load history đã lưu local (không gọi mạng), mới nhất trước, gồm cả các nước mới chỉ có trong journal
+        // và các game chưa ghi xong.
+        ensureIndex();
+        GamePersistence.Pending pending = GamePersistence.pending();
+        List<GameIndexEntry> entries = newestFirst(overlay(pending));
+        if (limit > 0 && entries.size() > limit) {
+            entries = entries.subList(0, limit);
+        }
+        List<String> gameIds = new ArrayList<>(entries.size());
+        for (GameIndexEntry e : entries) {
+            gameIds.add(e.getGameId());
+        }
+        return new ArrayList<>(readGames(gameIds, pending).values());
+    }
+
+    public static synchronized List<Game> loadHeaders(Predicate<GameStatus> statuses, int offset, int limit) {
+        // Một trang game (mới nhất trước theo GameIndexEntry.getSortTime()) có trạng thái thỏa statuses,
+        // không kèm nước đi. Đi theo index phụ status -> game đã xếp sẵn nên chỉ mở file của game trong
+        // trang, mỗi file chỉ đọc phần đầu. limit <= 0 = tới hết. Cần cả nước đi thì gọi findGame().
+        ensureIndex();
+        GamePersistence.Pending pending = GamePersistence.pending();
+        Map<String, GameIndexEntry> overlay = overlay(pending);
+        List<NavigableSet<GameIndexEntry>> sources = new ArrayList<>();
+        for (Map.Entry<GameStatus, NavigableSet<GameIndexEntry>> e : byStatus.entrySet()) {
+            if (matches(statuses, e.getKey())) {
+                sources.add(e.getValue());
+            }
+        }
+        sources.add(overlaySet(overlay, e -> matches(statuses, e.getStatus())));
+        return readPage(sources, overlay, pending, offset, limit);
+    }
+
+    public static synchronized int countGames(Predicate<GameStatus> statuses) {
+        // Đếm game theo trạng thái chỉ từ kích thước index phụ (không đọc file game nào).
+        ensureIndex();
+        int count = 0;
+        for (Map.Entry<GameStatus, NavigableSet<GameIndexEntry>> e : byStatus.entrySet()) {
+            if (matches(statuses, e.getKey())) {
+                count += e.getValue().size();
+            }
+        }
+        // Game chưa ghi xong: đếm theo trạng thái trong bản chụp thay cho trạng thái trong index
+        for (GameIndexEntry e : overlay(GamePersistence.pending()).values()) {
+            GameIndexEntry stored = index.get(e.getGameId());
+            if (stored != null && matches(statuses, stored.getStatus())) {
+                count--;
+            }
+            if (matches(statuses, e.getStatus())) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Trộn các tập đã xếp (mới nhất trước), bỏ offset phần tử đầu, rồi đọc phần đầu file
+     * của limit game tiếp theo. Game có trong overlay lấy từ bản chụp chưa ghi thay cho file.
+     * Số quân bắt / thời gian lấy theo nước mới nhất trong journal và trong các nước chưa ghi.
+     */
+    private static List<Game> readPage(List<NavigableSet<GameIndexEntry>> sources,
+            Map<String, GameIndexEntry> overlay, GamePersistence.Pending pending, int offset, int limit) {
+        List<Iterator<GameIndexEntry>> iterators = new ArrayList<>();
+        List<GameIndexEntry> heads = new ArrayList<>();
+        for (NavigableSet<GameIndexEntry> set : sources) {
+            Iterator<GameIndexEntry> it = set.iterator();
+            if (it.hasNext()) {
+                iterators.add(it);
+                heads.add(it.next());
+            }
+        }
+
+        Map<String, Game> page = new LinkedHashMap<>();
+        Map<String, Game> fromDisk = new HashMap<>();
+        int skipped = 0;
+        while (!heads.isEmpty() && (limit <= 0 || page.size() < limit)) {
+            int best = 0;
+            for (int i = 1; i < heads.size(); i++) {
+                if (NEWEST_FIRST.compare(heads.get(i), heads.get(best)) < 0) {
+                    best = i;
+                }
+            }
+            GameIndexEntry e = heads.get(best);
+            if (iterators.get(best).hasNext()) {
+                heads.set(best, iterators.get(best).next());
+            } else {
+                heads.remove(best);
+                iterators.remove(best);
+            }
+
+            // Entry cũ trong index của game đã có bản chụp mới hơn
+            GameIndexEntry newer = overlay.get(e.getGameId());
+            if (newer != null && newer != e) {
+                continue;
+            }
+            if (skipped < offset) {
+                skipped++;
+                continue;
+            }
+            Game g;
+            if (newer != null) {
+                g = new Game(pending.games.get(e.getGameId()));
+                g.setMoves(new ArrayList<>());
+            } else {
+                g = GameHeaderReader.readHeader(DataStorage.file(GAMES_DIR + "/" + e.getFile()));
+                if (g != null) {
+                    fromDisk.put(e.getGameId(), g);
+                }
+            }
+            if (g != null) {
+                page.put(e.getGameId(), g);
+            }
+        }
+
+        if (!fromDisk.isEmpty()) {
+            try {
+                moveLog.replayHeaders(fromDisk::get);
+            } catch (IOException ex) {
+                ex.printStackTrace();
+            }
+        }
+        MoveLog.replayHeaders(pending.records, page::get);
+        return new ArrayList<>(page.values());
+    }
+
+    /**
+     * Đọc các game theo thứ tự gameIds (bỏ qua game không có). Game có bản chụp chưa ghi thì dùng bản
+     * chụp (journal trên đĩa cũ hơn nó), còn lại đọc file và áp journal; sau đó áp các nước chưa ghi.
+     */
+    private static Map<String, Game> readGames(List<String> gameIds, GamePersistence.Pending pending) {
+        Map<String, Game> games = new LinkedHashMap<>();
+        Map<String, Game> fromDisk = new HashMap<>();
+        for (String gameId : gameIds) {
+            Game snapshot = pending.games.get(gameId);
+            Game g = snapshot != null ? new Game(snapshot) : readShard(gameId);
+            if (g != null) {
+                games.put(gameId, g);
+                if (snapshot == null) {
+                    fromDisk.put(gameId, g);
+                }
+            }
+        }
+        replayJournal(fromDisk);
+        MoveLog.replay(pending.records, games::get);
+        return games;
+    }
+
+    /**
+     * Entry tạm cho các game chưa ghi xong, như thể writeShard() đã chạy (index thật không đổi):
+     * game đã có giữ seq cũ, game mới lấy seq tiếp theo theo thứ tự nhận.
+     */
+    private static Map<String, GameIndexEntry> overlay(GamePersistence.Pending pending) {
+        Map<String, GameIndexEntry> entries = new HashMap<>();
+        long seq = nextSeq;
+        for (Game g : pending.games.values()) {
+            GameIndexEntry stored = index.get(g.getGameId());
+            GameIndexEntry e = stored != null ? new GameIndexEntry(g.getGameId(), stored.getFile(), stored.getSeq())
+                    : new GameIndexEntry(g.getGameId(), null, seq++);
+            e.update(g);
+            entries.put(g.getGameId(), e);
+        }
+        return entries;
+    }
+
+    private static NavigableSet<GameIndexEntry> overlaySet(Map<String, GameIndexEntry> overlay,
+            Predicate<GameIndexEntry> filter) {
+        NavigableSet<GameIndexEntry> set = new TreeSet<>(NEWEST_FIRST);
+        for (GameIndexEntry e : overlay.values()) {
+            if (filter.test(e)) {
+                set.add(e);
+            }
+        }
+        return set;
+    }
+
+    private static boolean matches(Predicate<GameStatus> statuses, GameStatus status) {
+        return statuses == null || statuses.test(status);
+    }
+
+    private static List<GameIndexEntry> newestFirst(Map<String, GameIndexEntry> overlay) {
+        List<GameIndexEntry> entries = new ArrayList<>(overlay.values());
+        for (GameIndexEntry e : index.values()) {
+            if (!overlay.containsKey(e.getGameId())) {
+                entries.add(e);
+            }
+        }
+        entries.sort((a, b) -> Long.compare(b.getSeq(), a.getSeq()));
+        return entries;
+    }
+
+    private static void replayJournal(Map<String, Game> games) {
+        try {
+            moveLog.replay(games::get);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private static Game readShard(String gameId) {
+        GameIndexEntry entry = index.get(gameId);
+        if (entry == null) {
+            return null;
+        }
+        return DataStorage.load(GAMES_DIR + "/" + entry.getFile(), Game.class);
+    }
+
+    private static boolean writeShard(Game game) {
+        GameIndexEntry entry = index.get(game.getGameId());
+        if (entry == null) {
+            long seq = nextSeq++;
+            entry = new GameIndexEntry(game.getGameId(), fileName(game.getGameId(), seq), seq);
+            index.put(game.getGameId(), entry);
+        } else {
+            // Khóa sắp xếp sắp đổi: gỡ khỏi index phụ trước
+            unindex(entry);
+        }
+        entry.update(game);
+        reindex(entry);
+        return DataStorage.save(game, GAMES_DIR + "/" + entry.getFile());
+    }
+
+    private static boolean saveIndex() {
+        GameIndex data = new GameIndex();
+        data.setNextSeq(nextSeq);
+        data.setEntries(new ArrayList<>(index.values()));
+        return DataStorage.saveCompact(data, INDEX_FILE);
+    }
+
+    private static void truncateJournal() {
+        try {
+            moveLog.truncate();
+        } catch (IOException e) {
+            e.printStackTrace();
         }
-        List<Game> games = history.getGames();
-        if (limit <= 0 || games.size() <= limit) {
-            return new ArrayList<>(games);
+    }
+
+    private static void ensureIndex() {
+        if (index != null) {
+            return;
+        }
+        index = new HashMap<>();
+        GameIndex data = DataStorage.load(INDEX_FILE, GameIndex.class);
+        if (data != null && data.getEntries() != null) {
+            for (GameIndexEntry e : data.getEntries()) {
+                if (e != null && e.getGameId() != null) {
+                    index.put(e.getGameId(), e);
+                }
+            }
+            nextSeq = data.getNextSeq();
+        } else {
+            rebuildIndex();
+        }
+
+        byStatus = new HashMap<>();
+        for (GameIndexEntry e : index.values()) {
+            reindex(e);
+        }
+    }
+
+    private static void reindex(GameIndexEntry e) {
+        if (byStatus == null) {
+            return;
+        }
+        byStatus.computeIfAbsent(e.getStatus(), k -> new TreeSet<>(NEWEST_FIRST)).add(e);
+    }
+
+    private static void unindex(GameIndexEntry e) {
+        if (byStatus == null) {
+            return;
+        }
+        NavigableSet<GameIndexEntry> set = byStatus.get(e.getStatus());
+        if (set != null && set.remove(e) && set.isEmpty()) {
+            byStatus.remove(e.getStatus());
+        }
+    }
+
+    /**
+     * Không có index (lần chạy đầu, hoặc index hỏng): dựng lại từ các file trong data/games,
+     * rồi tách data/game_history.json cũ (nếu còn) thành từng file.
+     */
+    private static void rebuildIndex() {
+        nextSeq = 0;
+        File[] files = DataStorage.file(GAMES_DIR).listFiles((dir, name) -> name.endsWith(".json"));
+        List<Game> games = new ArrayList<>();
+        Map<String, String> fileNames = new HashMap<>();
+        if (files != null) {
+            for (File f : files) {
+                if (INDEX_NAME.equals(f.getName())) {
+                    continue;
+                }
+                Game g = DataStorage.load(GAMES_DIR + "/" + f.getName(), Game.class);
+                if (g != null && g.getGameId() != null) {
+                    games.add(g);
+                    fileNames.put(g.getGameId(), f.getName());
+                }
+            }
+        }
+        // Không còn thứ tự thêm vào: xếp theo thời gian tạo
+        games.sort((a, b) -> Long.compare(a.getCreatedAt(), b.getCreatedAt()));
+        for (Game g : games) {
+            GameIndexEntry entry = new GameIndexEntry(g.getGameId(), fileNames.get(g.getGameId()), nextSeq++);
+            entry.update(g);
+            index.put(g.getGameId(), entry);
+        }
+
+        // game_history.json: mới nhất ở đầu danh sách; đọc streaming, ghi từng game ra file ngay
+        File legacy = DataStorage.file(LEGACY_HISTORY_FILE);
+        List<GameIndexEntry> migratedEntries = new ArrayList<>();
+        boolean[] migrated = { true };
+        try {
+            GameHeaderReader.readGames(legacy, g -> {
+                if (g.getGameId() != null && !index.containsKey(g.getGameId())) {
+                    migrated[0] &= writeShard(g);
+                    migratedEntries.add(index.get(g.getGameId()));
+                }
+            });
+        } catch (IOException e) {
+            e.printStackTrace();
+            migrated[0] = false;
+        }
+        long base = nextSeq - migratedEntries.size();
+        for (int i = 0; i < migratedEntries.size(); i++) {
+            migratedEntries.get(i).setSeq(base + migratedEntries.size() - 1 - i);
+        }
+        if (saveIndex() && migrated[0] && legacy.exists()) {
+            legacy.renameTo(DataStorage.file(LEGACY_HISTORY_FILE + ".bak"));
+        }
+    }
+
+    private static String fileName(String gameId, long seq) {
+        // gameId có ký tự lạ thì thay bằng '_' và thêm seq để không trùng tên file
+        String safe = gameId.replaceAll("[^A-Za-z0-9_-]", "_");
+        if (!safe.equals(gameId) || INDEX_NAME.equals(safe + ".json")) {
+            safe += "-" + seq;
         }
-        return new ArrayList<>(games.subList(0, limit));
+        return safe + ".json";
     }
 }
@@ -0,0 +1,206 @@
+package org.example.dacs4_v2.data;
+
+import org.example.dacs4_v2.models.Game;
+import org.example.dacs4_v2.models.Moves;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Ghi lịch sử game ở một luồng nền (write-behind) để luồng RMI và luồng JavaFX không phải chờ đĩa.
+ *
+ * saveGame() / saveMove() chỉ chụp lại dữ liệu cần ghi rồi trả về ngay. Các yêu cầu trong cùng một
+ * cửa sổ WINDOW_MS được gộp: mỗi game chỉ ghi bản chụp mới nhất, nước đi cũ hơn bản chụp đó bị bỏ
+ * (đã nằm trong bản chụp), còn lại ghi nối vào journal bằng một lệnh ghi. flush() chờ mọi thứ đang
+ * xếp hàng được ghi xong rồi fsync journal (chỉ gọi khi tắt app).
+ *
+ * Các hàm đọc của GameHistoryStorage không chờ luồng ghi: chúng lấy pending() (cả lô đang ghi dở)
+ * rồi đặt lên trên dữ liệu trên đĩa, nên vẫn thấy những gì vừa lưu.
+ */
+public final class GamePersistence {
+
+    static final long WINDOW_MS = 100;
+    private static final long FLUSH_TIMEOUT_MS = 10_000;
+
+    private static final ScheduledExecutorService WRITER = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "game-persistence");
+        t.setDaemon(true);
+        writerThread = t;
+        return t;
+    });
+
+    private static final Object LOCK = new Object();
+    // gameId -> bản chụp mới nhất chờ ghi
+    private static Map<String, Game> dirtyGames = new LinkedHashMap<>();
+    // Nước đi chờ ghi nối vào journal, theo thứ tự nhận
+    private static List<PendingMove> pendingMoves = new ArrayList<>();
+    private static boolean scheduled;
+    // Đang ghi một lô đã lấy ra khỏi hàng đợi
+    private static boolean writing;
+    // Lô đang ghi: đã rời hàng đợi nhưng có thể chưa nằm hết trên đĩa
+    private static Map<String, Game> inFlightGames = Map.of();
+    private static List<PendingMove> inFlightMoves = List.of();
+    private static volatile Thread writerThread;
+
+    private GamePersistence() {
+    }
+
+    /**
+     * Đánh dấu game cần lưu (thay cho GameHistoryStorage.upsert() ở luồng gọi).
+     */
+    public static void saveGame(Game game) {
+        if (game == null || game.getGameId() == null) {
+            return;
+        }
+        Game snapshot = new Game(game);
+        synchronized (LOCK) {
+            dirtyGames.put(snapshot.getGameId(), snapshot);
+            // Các nước đi đang chờ của game này đã nằm trong bản chụp
+            for (Iterator<PendingMove> it = pendingMoves.iterator(); it.hasNext();) {
+                if (it.next().gameId.equals(snapshot.getGameId())) {
+                    it.remove();
+                }
+            }
+            schedule();
+        }
+    }
+
+    /**
+     * Ghi nước đi vừa add vào game (move phải là nước cuối cùng của game).
+     */
+    public static void saveMove(Game game, Moves move) {
+        if (game == null || game.getGameId() == null || move == null) {
+            return;
+        }
+        byte[] record = GameHistoryStorage.journalRecord(game, move);
+        if (record == null) {
+            saveGame(game);
+            return;
+        }
+        synchronized (LOCK) {
+            pendingMoves.add(new PendingMove(game.getGameId(), record));
+            schedule();
+        }
+    }
+
+    /**
+     * Chờ tới khi mọi yêu cầu đã nhận được ghi xuống đĩa, rồi fsync journal nước đi.
+     */
+    public static void flush() {
+        if (Thread.currentThread() == writerThread) {
+            drain();
+        } else if (isBusy()) {
+            try {
+                WRITER.submit(GamePersistence::drain).get(FLUSH_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException | TimeoutException e) {
+                e.printStackTrace();
+            }
+        }
+        GameHistoryStorage.syncRecords();
+    }
+
+    private static boolean isBusy() {
+        synchronized (LOCK) {
+            return scheduled || writing;
+        }
+    }
+
+    /**
+     * Bản chụp mới nhất của mỗi game chưa chắc đã ghi xong và các nước đi nhận sau bản chụp đó
+     * (theo thứ tự nhận). Không chờ đĩa; bản chụp dùng chung nên bên đọc phải copy trước khi sửa.
+     */
+    static Pending pending() {
+        synchronized (LOCK) {
+            Map<String, Game> games = new LinkedHashMap<>(inFlightGames);
+            List<PendingMove> moves = new ArrayList<>(inFlightMoves);
+            for (Game g : dirtyGames.values()) {
+                games.put(g.getGameId(), g);
+                // Giống saveGame(): nước đi cũ hơn bản chụp đã nằm trong bản chụp
+                moves.removeIf(m -> m.gameId.equals(g.getGameId()));
+            }
+            moves.addAll(pendingMoves);
+            List<byte[]> records = new ArrayList<>(moves.size());
+            for (PendingMove m : moves) {
+                records.add(m.record);
+            }
+            return new Pending(games, records);
+        }
+    }
+
+    private static void schedule() {
+        if (!scheduled) {
+            scheduled = true;
+            WRITER.schedule(GamePersistence::drain, WINDOW_MS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private static void drain() {
+        Map<String, Game> games;
+        List<PendingMove> moves;
+        synchronized (LOCK) {
+            if (!scheduled) {
+                return;
+            }
+            games = dirtyGames;
+            moves = pendingMoves;
+            dirtyGames = new LinkedHashMap<>();
+            pendingMoves = new ArrayList<>();
+            inFlightGames = games;
+            inFlightMoves = moves;
+            scheduled = false;
+            writing = true;
+        }
+        try {
+            // Bản chụp trước: upsert() xóa journal, các nước còn lại đều mới hơn bản chụp của game đó
+            for (Game g : games.values()) {
+                GameHistoryStorage.upsert(g);
+            }
+            List<byte[]> records = new ArrayList<>(moves.size());
+            for (PendingMove m : moves) {
+                records.add(m.record);
+            }
+            GameHistoryStorage.appendRecords(records);
+        } catch (RuntimeException e) {
+            e.printStackTrace();
+        } finally {
+            synchronized (LOCK) {
+                inFlightGames = Map.of();
+                inFlightMoves = List.of();
+                writing = false;
+            }
+        }
+    }
+
+    /**
+     * Dữ liệu chưa chắc nằm trên đĩa: gameId -> bản chụp, và bản ghi journal của các nước đi sau đó.
+     */
+    static final class Pending {
+        final Map<String, Game> games;
+        final List<byte[]> records;
+
+        Pending(Map<String, Game> games, List<byte[]> records) {
+            this.games = games;
+            this.records = records;
+        }
+    }
+
+    private static final class PendingMove {
+        final String gameId;
+        final byte[] record;
+
+        PendingMove(String gameId, byte[] record) {
+            this.gameId = gameId;
+            this.record = record;
+        }
+    }
+}
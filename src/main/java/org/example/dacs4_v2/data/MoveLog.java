@@ -0,0 +1,274 @@
+package org.example.dacs4_v2.data;
+
+import org.example.dacs4_v2.models.Game;
+import org.example.dacs4_v2.models.Moves;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.function.Function;
+import java.util.zip.CRC32;
+
+/**
+ * Nhật ký nước đi chỉ ghi nối (data/moves.journal): mỗi nước là một bản ghi nhị phân cố định
+ * RECORD_SIZE byte, ghi thẳng vào cuối file thay vì ghi lại file JSON của cả game.
+ *
+ * Bản ghi: gameId (16 byte UTF-8, đệm 0) | index trong danh sách moves | order | màu (1 đen, 2 trắng)
+ * | x | y (pass = -1) | capturedByBlack | capturedByWhite | playerTimeRemainingMs | thinkingTimeMs
+ * | blackTimeMs | whiteTimeMs | CRC32 của phần trước. Bản ghi ghi dở (app bị tắt giữa chừng) hoặc
+ * sai CRC ở cuối file bị bỏ qua khi đọc lại.
+ *
+ * Mỗi lần append là một lệnh write() xuống hệ điều hành, không fsync: bản ghi không mất khi app crash,
+ * nhưng khi hệ điều hành sập / mất điện thì chỉ chắc chắn còn các bản ghi trước lần force() gần nhất
+ * (GamePersistence.flush(), gọi khi tắt app).
+ * Bản ghi được encode ở luồng gọi (GamePersistence) và ghi ở luồng lưu trữ qua GameHistoryStorage
+ * (đã đồng bộ hóa ở đó).
+ */
+final class MoveLog {
+
+    static final int RECORD_SIZE = 80;
+    static final int MAX_GAME_ID_BYTES = 16;
+
+    private static final int CRC_OFFSET = RECORD_SIZE - 4;
+
+    private final File file;
+    private FileChannel channel;
+
+    MoveLog(File file) {
+        this.file = file;
+    }
+
+    /**
+     * Có ghi được gameId này vào bản ghi cố định không (tối đa 16 byte UTF-8).
+     */
+    static boolean fits(String gameId) {
+        return gameId != null && gameId.getBytes(StandardCharsets.UTF_8).length <= MAX_GAME_ID_BYTES;
+    }
+
+    /**
+     * Mã hóa nước đi thứ index của game cùng số quân bắt / thời gian hiện tại của game thành một bản ghi.
+     * Gọi được từ bất kỳ luồng nào (không đụng tới file).
+     *
+     * @throws IllegalArgumentException nếu gameId không vừa bản ghi (xem fits())
+     */
+    static byte[] encode(Game game, Moves move, int index) {
+        if (!fits(game.getGameId())) {
+            throw new IllegalArgumentException("gameId dài hơn " + MAX_GAME_ID_BYTES + " byte UTF-8: "
+                    + game.getGameId());
+        }
+        byte[] id = game.getGameId().getBytes(StandardCharsets.UTF_8);
+        ByteBuffer b = ByteBuffer.allocate(RECORD_SIZE);
+        b.put(id);
+        b.position(MAX_GAME_ID_BYTES);
+        b.putInt(index);
+        b.putInt(move.getOrder());
+        b.put((byte) ("WHITE".equals(move.getPlayer()) ? 2 : 1));
+        b.put((byte) 0);
+        b.putShort((short) move.getX());
+        b.putShort((short) move.getY());
+        b.putInt(game.getCapturedByBlack());
+        b.putInt(game.getCapturedByWhite());
+        b.putLong(move.getPlayerTimeRemainingMs());
+        b.putLong(move.getThinkingTimeMs());
+        b.putLong(game.getBlackTimeMs());
+        b.putLong(game.getWhiteTimeMs());
+        b.putInt(CRC_OFFSET, crc(b.array()));
+        return b.array();
+    }
+
+    /**
+     * Ghi nối các bản ghi (đã encode) vào cuối journal bằng một lệnh ghi gộp.
+     */
+    void append(List<byte[]> records) throws IOException {
+        if (records.isEmpty()) {
+            return;
+        }
+        ByteBuffer[] buffers = new ByteBuffer[records.size()];
+        long remaining = 0;
+        for (int i = 0; i < buffers.length; i++) {
+            buffers[i] = ByteBuffer.wrap(records.get(i));
+            remaining += buffers[i].remaining();
+        }
+        FileChannel ch = channel();
+        while (remaining > 0) {
+            remaining -= ch.write(buffers);
+        }
+    }
+
+    /**
+     * Đẩy các bản ghi đã append xuống thiết bị lưu trữ (fsync dữ liệu, không kèm metadata).
+     */
+    void force() throws IOException {
+        if (channel != null && channel.isOpen()) {
+            channel.force(false);
+        }
+    }
+
+    /**
+     * Đóng file đang mở để ghi (lần append sau mở lại).
+     */
+    void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+            channel = null;
+        }
+    }
+
+    /**
+     * Áp các bản ghi trong journal lên game do games trả về theo gameId (null = bỏ qua bản ghi đó).
+     * Bản ghi của nước đã có trong game bị bỏ qua; bản ghi bị hở thứ tự cũng bỏ qua.
+     *
+     * @return số nước đã thêm vào
+     */
+    int replay(Function<String, Game> games) throws IOException {
+        return replay(games, false);
+    }
+
+    /**
+     * Áp số quân bắt / thời gian của bản ghi mới nhất mỗi game lên header do headers trả về
+     * (game đọc không kèm nước đi): không thêm nước nào, bản ghi sau thắng.
+     */
+    void replayHeaders(Function<String, Game> headers) throws IOException {
+        replay(headers, true);
+    }
+
+    private int replay(Function<String, Game> games, boolean headers) throws IOException {
+        if (isEmpty()) {
+            return 0;
+        }
+        int added = 0;
+        ByteBuffer b = ByteBuffer.allocate(RECORD_SIZE);
+        try (FileChannel in = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            while (true) {
+                b.clear();
+                while (b.hasRemaining()) {
+                    if (in.read(b) < 0) {
+                        break;
+                    }
+                }
+                if (b.hasRemaining() || crc(b.array()) != b.getInt(CRC_OFFSET)) {
+                    break;
+                }
+                b.flip();
+                if (apply(games, b, headers)) {
+                    added++;
+                }
+            }
+        }
+        return added;
+    }
+
+    /**
+     * Như replay() nhưng với các bản ghi còn trong bộ nhớ (chưa ghi, hoặc đang được ghi xuống journal).
+     *
+     * @return số nước đã thêm vào
+     */
+    static int replay(List<byte[]> records, Function<String, Game> games) {
+        int added = 0;
+        for (byte[] record : records) {
+            if (apply(games, ByteBuffer.wrap(record), false)) {
+                added++;
+            }
+        }
+        return added;
+    }
+
+    /**
+     * Như replayHeaders() nhưng với các bản ghi còn trong bộ nhớ.
+     */
+    static void replayHeaders(List<byte[]> records, Function<String, Game> headers) {
+        for (byte[] record : records) {
+            apply(headers, ByteBuffer.wrap(record), true);
+        }
+    }
+
+    boolean isEmpty() {
+        return !file.exists() || file.length() < RECORD_SIZE;
+    }
+
+    /**
+     * Xóa journal sau khi snapshot đầy đủ đã được ghi.
+     */
+    void truncate() throws IOException {
+        if (channel != null) {
+            channel.truncate(0);
+        } else if (file.exists()) {
+            try (FileChannel ch = FileChannel.open(file.toPath(), StandardOpenOption.WRITE)) {
+                ch.truncate(0);
+            }
+        }
+    }
+
+    private static boolean apply(Function<String, Game> games, ByteBuffer b, boolean header) {
+        byte[] id = new byte[MAX_GAME_ID_BYTES];
+        b.get(id);
+        int len = 0;
+        while (len < id.length && id[len] != 0) {
+            len++;
+        }
+        Game game = games.apply(new String(id, 0, len, StandardCharsets.UTF_8));
+        int index = b.getInt();
+        int order = b.getInt();
+        String player = b.get() == 2 ? "WHITE" : "BLACK";
+        b.get();
+        int x = b.getShort();
+        int y = b.getShort();
+        int capturedByBlack = b.getInt();
+        int capturedByWhite = b.getInt();
+        long playerTimeRemainingMs = b.getLong();
+        long thinkingTimeMs = b.getLong();
+        long blackTimeMs = b.getLong();
+        long whiteTimeMs = b.getLong();
+        if (game == null) {
+            return false;
+        }
+        if (header) {
+            // Bản ghi trong journal luôn mới hơn file của game (journal bị xóa mỗi lần ghi file)
+            setState(game, capturedByBlack, capturedByWhite, blackTimeMs, whiteTimeMs);
+            return false;
+        }
+
+        int size = game.getMoves() != null ? game.getMoves().size() : 0;
+        boolean added = false;
+        if (index == size) {
+            game.addMove(new Moves(order, player, x, y, game.getGameId(), playerTimeRemainingMs, thinkingTimeMs));
+            size++;
+            added = true;
+        }
+        // Cùng một nước có thể được ghi hai lần (nhận qua RMI rồi UI cập nhật số quân bắt): bản sau thắng
+        if (index == size - 1) {
+            setState(game, capturedByBlack, capturedByWhite, blackTimeMs, whiteTimeMs);
+        }
+        return added;
+    }
+
+    private static void setState(Game game, int capturedByBlack, int capturedByWhite, long blackTimeMs,
+            long whiteTimeMs) {
+        game.setCapturedByBlack(capturedByBlack);
+        game.setCapturedByWhite(capturedByWhite);
+        game.setBlackTimeMs(blackTimeMs);
+        game.setWhiteTimeMs(whiteTimeMs);
+    }
+
+    private FileChannel channel() throws IOException {
+        if (channel == null || !channel.isOpen()) {
+            File dir = file.getParentFile();
+            if (dir != null && !dir.exists()) {
+                dir.mkdirs();
+            }
+            channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND);
+        }
+        return channel;
+    }
+
+    private static int crc(byte[] record) {
+        CRC32 crc = new CRC32();
+        crc.update(record, 0, CRC_OFFSET);
+        return (int) crc.getValue();
+    }
+}
@@ -0,0 +1,165 @@
+package org.example.dacs4_v2.game;
+
+import java.util.Arrays;
+
+/**
+ * Đếm điểm tại máy, không cần KataGo: loang các vùng trống, vùng chỉ giáp một màu
+ * là đất của màu đó. Quân được đánh dấu chết coi như ô trống và tính cho đối phương.
+ * Một instance dùng lại buffer giữa các lần đếm (không thread-safe).
+ *
+ * Bitset quân chết có cùng dạng với GoGameLogic.legalMoves(): bit i = x * boardSize + y.
+ */
+public final class AreaScorer {
+
+    private static final int[] DX = { 1, -1, 0, 0 };
+    private static final int[] DY = { 0, 0, 1, -1 };
+
+    private final int boardSize;
+    private final int[] regionStamp;
+    private final int[] stack;
+    private int stamp = 0;
+
+    /**
+     * @param boardSize kích thước bàn cờ
+     */
+    public AreaScorer(int boardSize) {
+        this.boardSize = boardSize;
+        this.regionStamp = new int[boardSize * boardSize];
+        this.stack = new int[boardSize * boardSize];
+    }
+
+    /**
+     * Đếm điểm không có quân chết.
+     */
+    public ScoreResult score(int[][] board, double komi, int capturedByBlack, int capturedByWhite, ScoringRule rule) {
+        return score(board, null, komi, capturedByBlack, capturedByWhite, rule);
+    }
+
+    /**
+     * Đếm điểm một thế cờ.
+     *
+     * @param board           bàn cờ board[x][y] (0=trống, 1=đen, 2=trắng)
+     * @param deadStones      bitset quân chết (null nếu không có)
+     * @param komi            komi cộng cho trắng
+     * @param capturedByBlack số quân đen đã bắt (chỉ dùng cho TERRITORY)
+     * @param capturedByWhite số quân trắng đã bắt (chỉ dùng cho TERRITORY)
+     * @param rule            luật đếm điểm
+     * @return kết quả đếm điểm
+     */
+    public ScoreResult score(int[][] board, long[] deadStones, double komi, int capturedByBlack, int capturedByWhite,
+            ScoringRule rule) {
+        return score(board, deadStones, null, komi, capturedByBlack, capturedByWhite, rule);
+    }
+
+    /**
+     * Đếm điểm một thế cờ, kèm bitset quân đã rõ sống chết (BensonAnalyzer.getSettledStones())
+     * để ScoreResult.isSettled() biết kết quả có còn phụ thuộc vào quân chưa phân định không.
+     *
+     * @param settledStones bitset quân đã rõ sống chết (null = không quân nào)
+     */
+    public ScoreResult score(int[][] board, long[] deadStones, long[] settledStones, double komi,
+            int capturedByBlack, int capturedByWhite, ScoringRule rule) {
+        int n = boardSize;
+        int blackStones = 0;
+        int whiteStones = 0;
+        int deadBlack = 0;
+        int deadWhite = 0;
+        int blackTerritory = 0;
+        int whiteTerritory = 0;
+        int neutral = 0;
+        int unsettled = 0;
+
+        int mark = nextStamp();
+        for (int sx = 0; sx < n; sx++) {
+            for (int sy = 0; sy < n; sy++) {
+                int start = sx * n + sy;
+                int c = board[sx][sy];
+                if (c != 0 && !isDead(settledStones, start)) {
+                    unsettled++;
+                }
+                if (c != 0 && !isDead(deadStones, start)) {
+                    if (c == 1) {
+                        blackStones++;
+                    } else {
+                        whiteStones++;
+                    }
+                    continue;
+                }
+                if (regionStamp[start] == mark) {
+                    continue;
+                }
+
+                // Loang vùng trống (ô trống + quân chết) chứa start
+                int size = 0;
+                boolean touchesBlack = false;
+                boolean touchesWhite = false;
+                int top = 0;
+                stack[top++] = start;
+                regionStamp[start] = mark;
+                while (top > 0) {
+                    int p = stack[--top];
+                    int x = p / n;
+                    int y = p % n;
+                    size++;
+                    int v = board[x][y];
+                    if (v == 1) {
+                        deadBlack++;
+                    } else if (v == 2) {
+                        deadWhite++;
+                    }
+                    for (int d = 0; d < 4; d++) {
+                        int nx = x + DX[d];
+                        int ny = y + DY[d];
+                        if (nx < 0 || nx >= n || ny < 0 || ny >= n) {
+                            continue;
+                        }
+                        int q = nx * n + ny;
+                        int nc = board[nx][ny];
+                        if (nc == 0 || isDead(deadStones, q)) {
+                            if (regionStamp[q] != mark) {
+                                regionStamp[q] = mark;
+                                stack[top++] = q;
+                            }
+                        } else if (nc == 1) {
+                            touchesBlack = true;
+                        } else {
+                            touchesWhite = true;
+                        }
+                    }
+                }
+
+                if (touchesBlack && !touchesWhite) {
+                    blackTerritory += size;
+                } else if (touchesWhite && !touchesBlack) {
+                    whiteTerritory += size;
+                } else {
+                    neutral += size;
+                }
+            }
+        }
+
+        double blackScore;
+        double whiteScore;
+        if (rule == ScoringRule.TERRITORY) {
+            blackScore = blackTerritory + capturedByBlack + deadWhite;
+            whiteScore = whiteTerritory + capturedByWhite + deadBlack + komi;
+        } else {
+            blackScore = blackStones + blackTerritory;
+            whiteScore = whiteStones + whiteTerritory + komi;
+        }
+        return new ScoreResult(rule, blackStones, whiteStones, blackTerritory, whiteTerritory, deadBlack, deadWhite,
+                neutral, unsettled, blackScore, whiteScore);
+    }
+
+    private static boolean isDead(long[] mask, int i) {
+        return mask != null && (mask[i >>> 6] & (1L << i)) != 0;
+    }
+
+    private int nextStamp() {
+        if (++stamp == 0) {
+            Arrays.fill(regionStamp, 0);
+            stamp = 1;
+        }
+        return stamp;
+    }
+}
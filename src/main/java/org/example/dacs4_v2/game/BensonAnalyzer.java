@@ -0,0 +1,342 @@
+package org.example.dacs4_v2.game;
+
+import java.util.Arrays;
+
+/**
+ * Tìm quân sống vô điều kiện (pass-alive) bằng thuật toán Benson, và đất pass-alive:
+ * vùng chỉ giáp các chuỗi pass-alive mà mọi ô trống đều kề quân của chúng, nên đối
+ * phương không thể làm mắt trong đó. Quân đối phương nằm trong đất pass-alive chắc chắn chết.
+ *
+ * Thuật toán (với màu X):
+ * - Vùng X-enclosed: thành phần liên thông của các ô không phải quân X.
+ * - Vùng R là vital với chuỗi C nếu mọi ô trống của R đều là khí của C.
+ * - Lặp: bỏ các chuỗi có ít hơn 2 vùng vital còn lại, bỏ các vùng giáp chuỗi đã bị bỏ,
+ *   tới khi không đổi. Các chuỗi còn lại sống dù X luôn pass.
+ *
+ * Một instance dùng lại buffer giữa các lần phân tích (không thread-safe). Bitset kết quả
+ * có cùng dạng với GoGameLogic.legalMoves(): bit i = x * boardSize + y.
+ */
+public final class BensonAnalyzer {
+
+    private static final int[] DX = { 1, -1, 0, 0 };
+    private static final int[] DY = { 0, 0, 1, -1 };
+
+    private final int boardSize;
+
+    // Nhãn chuỗi (ô quân X) và nhãn vùng (ô còn lại) theo chỉ số phẳng, -1 nếu không thuộc
+    private final int[] chainOf;
+    private final int[] regionOf;
+    private final int[] stack;
+
+    // Các ô của vùng r nằm trong regionPoints[regionStart[r] .. regionStart[r + 1])
+    private final int[] regionPoints;
+    private final int[] regionStart;
+    private final int[] regionEmpty;
+
+    // Cạnh vùng - chuỗi: các cạnh của vùng r nằm trong [edgeStart[r] .. edgeStart[r + 1])
+    private final int[] edgeStart;
+    private final int[] edgeChain;
+    private final int[] edgeLiberties; // số ô trống của vùng kề chuỗi
+    private final int[] chainEdge; // cạnh của chuỗi trong vùng đang xét
+    private final int[] chainSeen;
+
+    private final boolean[] chainAlive;
+    private final boolean[] regionAlive;
+    private final int[] vitalCount;
+
+    private final long[] aliveStones;
+    private final long[] territory;
+    private final long[] settledStones;
+
+    /**
+     * @param boardSize kích thước bàn cờ
+     */
+    public BensonAnalyzer(int boardSize) {
+        int cells = boardSize * boardSize;
+        this.boardSize = boardSize;
+        this.chainOf = new int[cells];
+        this.regionOf = new int[cells];
+        this.stack = new int[cells];
+        this.regionPoints = new int[cells];
+        this.regionStart = new int[cells + 1];
+        this.regionEmpty = new int[cells];
+        this.edgeStart = new int[cells + 1];
+        this.edgeChain = new int[cells * 4];
+        this.edgeLiberties = new int[cells * 4];
+        this.chainEdge = new int[cells];
+        this.chainSeen = new int[cells];
+        this.chainAlive = new boolean[cells];
+        this.regionAlive = new boolean[cells];
+        this.vitalCount = new int[cells];
+        this.aliveStones = new long[(cells + 63) >>> 6];
+        this.territory = new long[(cells + 63) >>> 6];
+        this.settledStones = new long[(cells + 63) >>> 6];
+    }
+
+    /**
+     * Phân tích bàn cờ cho màu color. Kết quả đọc qua getPassAliveStones() và
+     * getPassAliveTerritory(), có hiệu lực tới lần analyze tiếp theo.
+     *
+     * @param board bàn cờ board[x][y] (0=trống, 1=đen, 2=trắng)
+     * @param color màu cần xét (1=đen, 2=trắng)
+     */
+    public void analyze(int[][] board, int color) {
+        int n = boardSize;
+        int chainCount = labelChains(board, color);
+        int regionCount = labelRegions(board, color);
+        buildEdges(board, regionCount);
+
+        Arrays.fill(chainAlive, 0, chainCount, true);
+        Arrays.fill(regionAlive, 0, regionCount, true);
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            Arrays.fill(vitalCount, 0, chainCount, 0);
+            for (int r = 0; r < regionCount; r++) {
+                if (!regionAlive[r] || regionEmpty[r] == 0) {
+                    continue;
+                }
+                for (int e = edgeStart[r]; e < edgeStart[r + 1]; e++) {
+                    if (edgeLiberties[e] == regionEmpty[r]) {
+                        vitalCount[edgeChain[e]]++;
+                    }
+                }
+            }
+            for (int c = 0; c < chainCount; c++) {
+                if (chainAlive[c] && vitalCount[c] < 2) {
+                    chainAlive[c] = false;
+                    changed = true;
+                }
+            }
+            for (int r = 0; r < regionCount; r++) {
+                if (!regionAlive[r]) {
+                    continue;
+                }
+                for (int e = edgeStart[r]; e < edgeStart[r + 1]; e++) {
+                    if (!chainAlive[edgeChain[e]]) {
+                        regionAlive[r] = false;
+                        break;
+                    }
+                }
+            }
+        }
+
+        Arrays.fill(aliveStones, 0);
+        Arrays.fill(territory, 0);
+        for (int p = 0; p < n * n; p++) {
+            int c = chainOf[p];
+            if (c >= 0 && chainAlive[c]) {
+                aliveStones[p >>> 6] |= 1L << p;
+            }
+        }
+        for (int r = 0; r < regionCount; r++) {
+            // Vùng không giáp chuỗi nào (bàn không có quân X) không phải đất
+            if (!regionAlive[r] || edgeStart[r] == edgeStart[r + 1] || !emptyPointsTouchColor(board, r, color)) {
+                continue;
+            }
+            for (int i = regionStart[r]; i < regionStart[r + 1]; i++) {
+                int p = regionPoints[i];
+                territory[p >>> 6] |= 1L << p;
+            }
+        }
+    }
+
+    /**
+     * Bitset quân pass-alive của màu vừa phân tích (buffer dùng lại, không được sửa).
+     */
+    public long[] getPassAliveStones() {
+        return aliveStones;
+    }
+
+    /**
+     * Bitset đất pass-alive của màu vừa phân tích, gồm cả ô có quân đối phương (buffer dùng lại).
+     */
+    public long[] getPassAliveTerritory() {
+        return territory;
+    }
+
+    /**
+     * Quân chắc chắn chết của cả hai màu: quân nằm trong đất pass-alive của đối phương.
+     * Đồng thời tính getSettledStones().
+     *
+     * @return bitset mới, dùng được làm deadStones cho AreaScorer
+     */
+    public long[] deadStones(int[][] board) {
+        int n = boardSize;
+        long[] dead = new long[aliveStones.length];
+        Arrays.fill(settledStones, 0);
+        for (int color = 1; color <= 2; color++) {
+            analyze(board, color);
+            for (int w = 0; w < settledStones.length; w++) {
+                settledStones[w] |= aliveStones[w];
+            }
+            for (int p = 0; p < n * n; p++) {
+                if ((territory[p >>> 6] & (1L << p)) != 0 && board[p / n][p % n] != 0) {
+                    dead[p >>> 6] |= 1L << p;
+                }
+            }
+        }
+        for (int w = 0; w < settledStones.length; w++) {
+            settledStones[w] |= dead[w];
+        }
+        return dead;
+    }
+
+    /**
+     * Bitset quân đã rõ sống chết sau lần deadStones() gần nhất: quân pass-alive của cả hai màu
+     * và quân chắc chắn chết (buffer dùng lại, không được sửa). Quân ngoài bitset này cần
+     * KataGo / OwnershipEstimator để phân định.
+     */
+    public long[] getSettledStones() {
+        return settledStones;
+    }
+
+    /**
+     * Gán nhãn chuỗi cho các quân màu color.
+     */
+    private int labelChains(int[][] board, int color) {
+        int n = boardSize;
+        Arrays.fill(chainOf, -1);
+        int count = 0;
+        for (int start = 0; start < n * n; start++) {
+            if (chainOf[start] >= 0 || board[start / n][start % n] != color) {
+                continue;
+            }
+            int top = 0;
+            stack[top++] = start;
+            chainOf[start] = count;
+            while (top > 0) {
+                int p = stack[--top];
+                int x = p / n;
+                int y = p % n;
+                for (int d = 0; d < 4; d++) {
+                    int nx = x + DX[d];
+                    int ny = y + DY[d];
+                    if (nx < 0 || nx >= n || ny < 0 || ny >= n) {
+                        continue;
+                    }
+                    int q = nx * n + ny;
+                    if (chainOf[q] < 0 && board[nx][ny] == color) {
+                        chainOf[q] = count;
+                        stack[top++] = q;
+                    }
+                }
+            }
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Gán nhãn vùng cho các ô không phải quân color, ghi danh sách ô và số ô trống của từng vùng.
+     */
+    private int labelRegions(int[][] board, int color) {
+        int n = boardSize;
+        Arrays.fill(regionOf, -1);
+        int count = 0;
+        int size = 0;
+        for (int start = 0; start < n * n; start++) {
+            if (regionOf[start] >= 0 || board[start / n][start % n] == color) {
+                continue;
+            }
+            regionStart[count] = size;
+            int empty = 0;
+            int top = 0;
+            stack[top++] = start;
+            regionOf[start] = count;
+            while (top > 0) {
+                int p = stack[--top];
+                int x = p / n;
+                int y = p % n;
+                regionPoints[size++] = p;
+                if (board[x][y] == 0) {
+                    empty++;
+                }
+                for (int d = 0; d < 4; d++) {
+                    int nx = x + DX[d];
+                    int ny = y + DY[d];
+                    if (nx < 0 || nx >= n || ny < 0 || ny >= n) {
+                        continue;
+                    }
+                    int q = nx * n + ny;
+                    if (regionOf[q] < 0 && board[nx][ny] != color) {
+                        regionOf[q] = count;
+                        stack[top++] = q;
+                    }
+                }
+            }
+            regionEmpty[count] = empty;
+            count++;
+        }
+        regionStart[count] = size;
+        return count;
+    }
+
+    /**
+     * Dựng cạnh vùng - chuỗi và đếm, với mỗi cạnh, số ô trống của vùng là khí của chuỗi.
+     */
+    private void buildEdges(int[][] board, int regionCount) {
+        int n = boardSize;
+        Arrays.fill(chainSeen, -1);
+        int edges = 0;
+        for (int r = 0; r < regionCount; r++) {
+            edgeStart[r] = edges;
+            for (int i = regionStart[r]; i < regionStart[r + 1]; i++) {
+                int p = regionPoints[i];
+                int x = p / n;
+                int y = p % n;
+                boolean empty = board[x][y] == 0;
+                for (int d = 0; d < 4; d++) {
+                    int nx = x + DX[d];
+                    int ny = y + DY[d];
+                    if (nx < 0 || nx >= n || ny < 0 || ny >= n) {
+                        continue;
+                    }
+                    int c = chainOf[nx * n + ny];
+                    if (c < 0) {
+                        continue;
+                    }
+                    // chainSeen[c] == p: chuỗi đã được tính cho ô này (ô kề chuỗi ở nhiều phía)
+                    if (chainSeen[c] < 0 || regionOf[chainSeen[c]] != r) {
+                        chainEdge[c] = edges;
+                        edgeChain[edges] = c;
+                        edgeLiberties[edges] = 0;
+                        edges++;
+                    } else if (chainSeen[c] == p) {
+                        continue;
+                    }
+                    chainSeen[c] = p;
+                    if (empty) {
+                        edgeLiberties[chainEdge[c]]++;
+                    }
+                }
+            }
+        }
+        edgeStart[regionCount] = edges;
+    }
+
+    /**
+     * Mọi ô trống của vùng r đều kề quân color.
+     */
+    private boolean emptyPointsTouchColor(int[][] board, int r, int color) {
+        int n = boardSize;
+        for (int i = regionStart[r]; i < regionStart[r + 1]; i++) {
+            int p = regionPoints[i];
+            int x = p / n;
+            int y = p % n;
+            if (board[x][y] != 0) {
+                continue;
+            }
+            boolean touches = false;
+            for (int d = 0; d < 4 && !touches; d++) {
+                int nx = x + DX[d];
+                int ny = y + DY[d];
+                touches = nx >= 0 && nx < n && ny >= 0 && ny < n && board[nx][ny] == color;
+            }
+            if (!touches) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
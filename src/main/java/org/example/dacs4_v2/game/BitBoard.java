@@ -0,0 +1,336 @@
+package org.example.dacs4_v2.game;
+
+import java.util.Arrays;
+
+/**
+ * Engine luật cờ vây dùng bitboard: quân đen và trắng mỗi màu là một dãy bit vừa đủ số ô của bàn
+ * (2 long cho 9x9, 3 cho 13x13, 6 cho 19x19), nên bàn nhỏ tốn ít vòng lặp theo word hơn.
+ * Tìm nhóm và liberties bằng phép loang (dilation) qua shift/mask trên cả dãy bit thay vì DFS từng ô.
+ * Cùng luật với GoGameLogic (bắt quân, tự tử, Ko), dùng cho các việc chạy hàng loạt
+ * như replay lịch sử, tính điểm, playout. Với 9x9, 13x13, 19x19 nên lấy bản chuyên theo kích thước
+ * qua BitBoardEngine.forSize(); lớp này là đường tổng quát cho mọi kích thước.
+ *
+ * Chỉ số bit: i = x * boardSize + y (khớp với board[x][y]).
+ */
+public final class BitBoard implements BitBoardEngine {
+
+    public static final int MAX_SIZE = 19;
+
+    private final int boardSize;
+    // Số long vừa đủ cho boardSize * boardSize ô
+    private final int words;
+
+    private final long[] black;
+    private final long[] white;
+    // Trạng thái trước nước đi gần nhất (cho luật Ko)
+    private final long[] prevBlack;
+    private final long[] prevWhite;
+    private boolean hasPrev;
+
+    // Mặt nạ: ô hợp lệ, và ô không nằm ở cột y = 0 / y = boardSize - 1
+    private final long[] boardMask;
+    private final long[] notFirstY;
+    private final long[] notLastY;
+
+    // Buffer dùng lại
+    private final long[] empty;
+    private final long[] group;
+    private final long[] grown;
+    private final long[] captured;
+    private final long[] tmp;
+    private final long[] nextBlack;
+    private final long[] nextWhite;
+
+    private int lastCaptureCount = 0;
+
+    /**
+     * Khởi tạo bitboard trống.
+     *
+     * @param boardSize kích thước bàn cờ (tối đa 19)
+     */
+    public BitBoard(int boardSize) {
+        if (boardSize < 1 || boardSize > MAX_SIZE) {
+            throw new IllegalArgumentException("BitBoard chỉ hỗ trợ bàn cờ tối đa " + MAX_SIZE + "x" + MAX_SIZE);
+        }
+        this.boardSize = boardSize;
+        this.words = (boardSize * boardSize + 63) >>> 6;
+        black = new long[words];
+        white = new long[words];
+        prevBlack = new long[words];
+        prevWhite = new long[words];
+        boardMask = new long[words];
+        notFirstY = new long[words];
+        notLastY = new long[words];
+        empty = new long[words];
+        group = new long[words];
+        grown = new long[words];
+        captured = new long[words];
+        tmp = new long[words];
+        nextBlack = new long[words];
+        nextWhite = new long[words];
+        for (int x = 0; x < boardSize; x++) {
+            for (int y = 0; y < boardSize; y++) {
+                int i = x * boardSize + y;
+                setBit(boardMask, i);
+                if (y != 0) {
+                    setBit(notFirstY, i);
+                }
+                if (y != boardSize - 1) {
+                    setBit(notLastY, i);
+                }
+            }
+        }
+    }
+
+    /**
+     * Khởi tạo bitboard từ mảng 2D board[x][y] (0=trống, 1=đen, 2=trắng).
+     */
+    public static BitBoard fromArray(int[][] board, int boardSize) {
+        BitBoard bb = new BitBoard(boardSize);
+        for (int x = 0; x < boardSize; x++) {
+            for (int y = 0; y < boardSize; y++) {
+                if (board[x][y] == 1) {
+                    setBit(bb.black, x * boardSize + y);
+                } else if (board[x][y] == 2) {
+                    setBit(bb.white, x * boardSize + y);
+                }
+            }
+        }
+        return bb;
+    }
+
+    @Override
+    public void load(int[][] board) {
+        Arrays.fill(black, 0L);
+        Arrays.fill(white, 0L);
+        hasPrev = false;
+        lastCaptureCount = 0;
+        for (int x = 0; x < boardSize; x++) {
+            for (int y = 0; y < boardSize; y++) {
+                if (board[x][y] == 1) {
+                    setBit(black, x * boardSize + y);
+                } else if (board[x][y] == 2) {
+                    setBit(white, x * boardSize + y);
+                }
+            }
+        }
+    }
+
+    @Override
+    public int getBoardSize() {
+        return boardSize;
+    }
+
+    @Override
+    public int getLastCaptureCount() {
+        return lastCaptureCount;
+    }
+
+    /**
+     * Lấy giá trị tại một ô.
+     *
+     * @return 0=trống, 1=đen, 2=trắng, hoặc -1 nếu ngoài phạm vi
+     */
+    @Override
+    public int getCell(int x, int y) {
+        if (x < 0 || x >= boardSize || y < 0 || y >= boardSize) {
+            return -1;
+        }
+        int i = x * boardSize + y;
+        if (testBit(black, i)) {
+            return 1;
+        }
+        return testBit(white, i) ? 2 : 0;
+    }
+
+    /**
+     * Tạo mảng 2D board[x][y] từ trạng thái hiện tại.
+     */
+    @Override
+    public int[][] getBoard() {
+        int[][] board = new int[boardSize][boardSize];
+        for (int x = 0; x < boardSize; x++) {
+            for (int y = 0; y < boardSize; y++) {
+                board[x][y] = getCell(x, y);
+            }
+        }
+        return board;
+    }
+
+    /**
+     * Đếm số quân của một màu trên bàn.
+     */
+    @Override
+    public int countStones(int color) {
+        long[] stones = color == 1 ? black : white;
+        int count = 0;
+        for (int w = 0; w < words; w++) {
+            count += Long.bitCount(stones[w]);
+        }
+        return count;
+    }
+
+    /**
+     * Áp dụng nước đi với cùng luật như GoGameLogic.applyMove.
+     *
+     * @param x                   tọa độ X
+     * @param y                   tọa độ Y
+     * @param color               màu quân (1=đen, 2=trắng)
+     * @param enforceKoAndSuicide true để kiểm tra luật Ko và tự tử
+     * @return true nếu nước đi hợp lệ và đã áp dụng
+     */
+    @Override
+    public boolean applyMove(int x, int y, int color, boolean enforceKoAndSuicide) {
+        lastCaptureCount = 0;
+        if (x < 0 || x >= boardSize || y < 0 || y >= boardSize) {
+            return false;
+        }
+        int i = x * boardSize + y;
+        if (testBit(black, i) || testBit(white, i)) {
+            return false;
+        }
+
+        // Tính trạng thái mới vào nextBlack/nextWhite
+        System.arraycopy(black, 0, nextBlack, 0, words);
+        System.arraycopy(white, 0, nextWhite, 0, words);
+        long[] own = color == 1 ? nextBlack : nextWhite;
+        long[] opp = color == 1 ? nextWhite : nextBlack;
+        setBit(own, i);
+        computeEmpty(nextBlack, nextWhite);
+
+        // Bắt các nhóm đối thủ kề ô vừa đặt mà không còn liberty
+        Arrays.fill(captured, 0L);
+        int captureCount = 0;
+        Arrays.fill(tmp, 0L);
+        setBit(tmp, i);
+        dilate(tmp, grown);
+        for (int w = 0; w < words; w++) {
+            tmp[w] = grown[w] & opp[w];
+        }
+        while (!isZero(tmp)) {
+            int seed = firstBit(tmp);
+            floodFill(seed, opp, group);
+            if (!hasLiberty(group)) {
+                for (int w = 0; w < words; w++) {
+                    captured[w] |= group[w];
+                }
+            }
+            for (int w = 0; w < words; w++) {
+                tmp[w] &= ~group[w];
+            }
+        }
+        for (int w = 0; w < words; w++) {
+            captureCount += Long.bitCount(captured[w]);
+            opp[w] &= ~captured[w];
+        }
+
+        if (enforceKoAndSuicide) {
+            // Tự tử: nhóm vừa đặt không còn liberty và không bắt được quân nào
+            if (captureCount == 0) {
+                computeEmpty(nextBlack, nextWhite);
+                floodFill(i, own, group);
+                if (!hasLiberty(group)) {
+                    return false;
+                }
+            }
+            // Ko: không được lặp lại trạng thái trước nước đi gần nhất
+            if (hasPrev && Arrays.equals(nextBlack, prevBlack) && Arrays.equals(nextWhite, prevWhite)) {
+                return false;
+            }
+        }
+
+        System.arraycopy(black, 0, prevBlack, 0, words);
+        System.arraycopy(white, 0, prevWhite, 0, words);
+        hasPrev = true;
+        System.arraycopy(nextBlack, 0, black, 0, words);
+        System.arraycopy(nextWhite, 0, white, 0, words);
+        lastCaptureCount = captureCount;
+        return true;
+    }
+
+    // ==================== PHÉP TOÁN BIT ====================
+
+    private void computeEmpty(long[] b, long[] w) {
+        for (int k = 0; k < words; k++) {
+            empty[k] = boardMask[k] & ~(b[k] | w[k]);
+        }
+    }
+
+    /**
+     * Loang nhóm quân chứa bit seed trong tập stones, kết quả ghi vào out.
+     */
+    private void floodFill(int seed, long[] stones, long[] out) {
+        Arrays.fill(out, 0L);
+        setBit(out, seed);
+        while (true) {
+            dilate(out, grown);
+            boolean changed = false;
+            for (int w = 0; w < words; w++) {
+                long v = (grown[w] & stones[w]) | out[w];
+                if (v != out[w]) {
+                    out[w] = v;
+                    changed = true;
+                }
+            }
+            if (!changed) {
+                return;
+            }
+        }
+    }
+
+    private boolean hasLiberty(long[] g) {
+        dilate(g, grown);
+        for (int w = 0; w < words; w++) {
+            if ((grown[w] & empty[w]) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Tập các ô kề (trên/dưới/trái/phải) của set, ghi vào out.
+     */
+    private void dilate(long[] set, long[] out) {
+        int n = boardSize;
+        long carryUp1 = 0L;
+        long carryUpN = 0L;
+        for (int w = 0; w < words; w++) {
+            long v = set[w];
+            long up1 = (v << 1) | carryUp1;
+            long upN = (v << n) | carryUpN;
+            carryUp1 = v >>> 63;
+            carryUpN = v >>> (64 - n);
+            long hi = w + 1 < words ? set[w + 1] : 0L;
+            long down1 = (v >>> 1) | (hi << 63);
+            long downN = (v >>> n) | (hi << (64 - n));
+            out[w] = ((up1 & notFirstY[w]) | (down1 & notLastY[w]) | upN | downN) & boardMask[w];
+        }
+    }
+
+    private static boolean isZero(long[] set) {
+        for (long v : set) {
+            if (v != 0L) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int firstBit(long[] set) {
+        for (int w = 0; w < set.length; w++) {
+            if (set[w] != 0L) {
+                return (w << 6) + Long.numberOfTrailingZeros(set[w]);
+            }
+        }
+        return -1;
+    }
+
+    private static boolean testBit(long[] set, int i) {
+        return (set[i >>> 6] & (1L << i)) != 0;
+    }
+
+    private static void setBit(long[] set, int i) {
+        set[i >>> 6] |= 1L << i;
+    }
+}
@@ -0,0 +1,265 @@
+package org.example.dacs4_v2.game;
+
+import java.util.Arrays;
+
+/**
+ * BitBoard chuyên cho bàn 19x19: kích thước và số word (6 long cho 361 ô) là hằng số
+ * nên JIT gập hằng các phép shift, trải vòng lặp theo word và bỏ kiểm tra biên mảng.
+ * Cùng thuật toán và cùng luật với BitBoard; tạo qua BitBoardEngine.forSize().
+ *
+ * Chỉ số bit: i = x * 19 + y (khớp với board[x][y]).
+ */
+final class BitBoard19 implements BitBoardEngine {
+
+    private static final int N = 19;
+    private static final int WORDS = 6;
+
+    // Mặt nạ: ô hợp lệ, và ô không nằm ở cột y = 0 / y = N - 1
+    private static final long[] BOARD_MASK = new long[WORDS];
+    private static final long[] NOT_FIRST_Y = new long[WORDS];
+    private static final long[] NOT_LAST_Y = new long[WORDS];
+
+    static {
+        for (int i = 0; i < N * N; i++) {
+            setBit(BOARD_MASK, i);
+            if (i % N != 0) {
+                setBit(NOT_FIRST_Y, i);
+            }
+            if (i % N != N - 1) {
+                setBit(NOT_LAST_Y, i);
+            }
+        }
+    }
+
+    private final long[] black = new long[WORDS];
+    private final long[] white = new long[WORDS];
+    // Trạng thái trước nước đi gần nhất (cho luật Ko)
+    private final long[] prevBlack = new long[WORDS];
+    private final long[] prevWhite = new long[WORDS];
+    private boolean hasPrev;
+
+    // Buffer dùng lại
+    private final long[] empty = new long[WORDS];
+    private final long[] group = new long[WORDS];
+    private final long[] grown = new long[WORDS];
+    private final long[] captured = new long[WORDS];
+    private final long[] tmp = new long[WORDS];
+    private final long[] nextBlack = new long[WORDS];
+    private final long[] nextWhite = new long[WORDS];
+
+    private int lastCaptureCount = 0;
+
+    @Override
+    public int getBoardSize() {
+        return N;
+    }
+
+    @Override
+    public int getLastCaptureCount() {
+        return lastCaptureCount;
+    }
+
+    @Override
+    public int getCell(int x, int y) {
+        if (x < 0 || x >= N || y < 0 || y >= N) {
+            return -1;
+        }
+        int i = x * N + y;
+        if (testBit(black, i)) {
+            return 1;
+        }
+        return testBit(white, i) ? 2 : 0;
+    }
+
+    @Override
+    public int[][] getBoard() {
+        int[][] board = new int[N][N];
+        for (int x = 0; x < N; x++) {
+            for (int y = 0; y < N; y++) {
+                board[x][y] = getCell(x, y);
+            }
+        }
+        return board;
+    }
+
+    @Override
+    public int countStones(int color) {
+        long[] stones = color == 1 ? black : white;
+        int count = 0;
+        for (int w = 0; w < WORDS; w++) {
+            count += Long.bitCount(stones[w]);
+        }
+        return count;
+    }
+
+    @Override
+    public void load(int[][] board) {
+        Arrays.fill(black, 0L);
+        Arrays.fill(white, 0L);
+        hasPrev = false;
+        lastCaptureCount = 0;
+        for (int x = 0; x < N; x++) {
+            for (int y = 0; y < N; y++) {
+                if (board[x][y] == 1) {
+                    setBit(black, x * N + y);
+                } else if (board[x][y] == 2) {
+                    setBit(white, x * N + y);
+                }
+            }
+        }
+    }
+
+    @Override
+    public boolean applyMove(int x, int y, int color, boolean enforceKoAndSuicide) {
+        lastCaptureCount = 0;
+        if (x < 0 || x >= N || y < 0 || y >= N) {
+            return false;
+        }
+        int i = x * N + y;
+        if (testBit(black, i) || testBit(white, i)) {
+            return false;
+        }
+
+        // Tính trạng thái mới vào nextBlack/nextWhite
+        System.arraycopy(black, 0, nextBlack, 0, WORDS);
+        System.arraycopy(white, 0, nextWhite, 0, WORDS);
+        long[] own = color == 1 ? nextBlack : nextWhite;
+        long[] opp = color == 1 ? nextWhite : nextBlack;
+        setBit(own, i);
+        computeEmpty(nextBlack, nextWhite);
+
+        // Bắt các nhóm đối thủ kề ô vừa đặt mà không còn liberty
+        Arrays.fill(captured, 0L);
+        int captureCount = 0;
+        Arrays.fill(tmp, 0L);
+        setBit(tmp, i);
+        dilate(tmp, grown);
+        for (int w = 0; w < WORDS; w++) {
+            tmp[w] = grown[w] & opp[w];
+        }
+        while (!isZero(tmp)) {
+            int seed = firstBit(tmp);
+            floodFill(seed, opp, group);
+            if (!hasLiberty(group)) {
+                for (int w = 0; w < WORDS; w++) {
+                    captured[w] |= group[w];
+                }
+            }
+            for (int w = 0; w < WORDS; w++) {
+                tmp[w] &= ~group[w];
+            }
+        }
+        for (int w = 0; w < WORDS; w++) {
+            captureCount += Long.bitCount(captured[w]);
+            opp[w] &= ~captured[w];
+        }
+
+        if (enforceKoAndSuicide) {
+            // Tự tử: nhóm vừa đặt không còn liberty và không bắt được quân nào
+            if (captureCount == 0) {
+                computeEmpty(nextBlack, nextWhite);
+                floodFill(i, own, group);
+                if (!hasLiberty(group)) {
+                    return false;
+                }
+            }
+            // Ko: không được lặp lại trạng thái trước nước đi gần nhất
+            if (hasPrev && Arrays.equals(nextBlack, prevBlack) && Arrays.equals(nextWhite, prevWhite)) {
+                return false;
+            }
+        }
+
+        System.arraycopy(black, 0, prevBlack, 0, WORDS);
+        System.arraycopy(white, 0, prevWhite, 0, WORDS);
+        hasPrev = true;
+        System.arraycopy(nextBlack, 0, black, 0, WORDS);
+        System.arraycopy(nextWhite, 0, white, 0, WORDS);
+        lastCaptureCount = captureCount;
+        return true;
+    }
+
+    // ==================== PHÉP TOÁN BIT ====================
+
+    private void computeEmpty(long[] b, long[] w) {
+        for (int k = 0; k < WORDS; k++) {
+            empty[k] = BOARD_MASK[k] & ~(b[k] | w[k]);
+        }
+    }
+
+    /**
+     * Loang nhóm quân chứa bit seed trong tập stones, kết quả ghi vào out.
+     */
+    private void floodFill(int seed, long[] stones, long[] out) {
+        Arrays.fill(out, 0L);
+        setBit(out, seed);
+        while (true) {
+            dilate(out, grown);
+            boolean changed = false;
+            for (int w = 0; w < WORDS; w++) {
+                long v = (grown[w] & stones[w]) | out[w];
+                if (v != out[w]) {
+                    out[w] = v;
+                    changed = true;
+                }
+            }
+            if (!changed) {
+                return;
+            }
+        }
+    }
+
+    private boolean hasLiberty(long[] g) {
+        dilate(g, grown);
+        for (int w = 0; w < WORDS; w++) {
+            if ((grown[w] & empty[w]) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Tập các ô kề (trên/dưới/trái/phải) của set, ghi vào out.
+     */
+    private static void dilate(long[] set, long[] out) {
+        long carryUp1 = 0L;
+        long carryUpN = 0L;
+        for (int w = 0; w < WORDS; w++) {
+            long v = set[w];
+            long up1 = (v << 1) | carryUp1;
+            long upN = (v << N) | carryUpN;
+            carryUp1 = v >>> 63;
+            carryUpN = v >>> (64 - N);
+            long hi = w + 1 < WORDS ? set[w + 1] : 0L;
+            long down1 = (v >>> 1) | (hi << 63);
+            long downN = (v >>> N) | (hi << (64 - N));
+            out[w] = ((up1 & NOT_FIRST_Y[w]) | (down1 & NOT_LAST_Y[w]) | upN | downN) & BOARD_MASK[w];
+        }
+    }
+
+    private static boolean isZero(long[] set) {
+        for (int w = 0; w < WORDS; w++) {
+            if (set[w] != 0L) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int firstBit(long[] set) {
+        for (int w = 0; w < WORDS; w++) {
+            if (set[w] != 0L) {
+                return (w << 6) + Long.numberOfTrailingZeros(set[w]);
+            }
+        }
+        return -1;
+    }
+
+    private static boolean testBit(long[] set, int i) {
+        return (set[i >>> 6] & (1L << i)) != 0;
+    }
+
+    private static void setBit(long[] set, int i) {
+        set[i >>> 6] |= 1L << i;
+    }
+}
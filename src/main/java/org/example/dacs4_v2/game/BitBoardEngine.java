@@ -0,0 +1,60 @@
+package org.example.dacs4_v2.game;
+
+/**
+ * Engine luật dạng bitboard (bắt quân, tự tử, Ko đơn; cùng luật với GoGameLogic).
+ *
+ * forSize() trả về bản chuyên cho 9x9, 13x13, 19x19 (kích thước và số word là hằng số,
+ * số word vừa đủ cho bàn) và BitBoard tổng quát cho các kích thước khác.
+ */
+public interface BitBoardEngine {
+
+    /**
+     * Bitboard trống cho kích thước bàn cờ, ưu tiên bản chuyên theo kích thước.
+     */
+    static BitBoardEngine forSize(int boardSize) {
+        switch (boardSize) {
+            case 9:
+                return new BitBoard9();
+            case 13:
+                return new BitBoard13();
+            case 19:
+                return new BitBoard19();
+            default:
+                return new BitBoard(boardSize);
+        }
+    }
+
+    int getBoardSize();
+
+    /**
+     * Số quân bị bắt ở nước đi gần nhất.
+     */
+    int getLastCaptureCount();
+
+    /**
+     * @return 0=trống, 1=đen, 2=trắng, hoặc -1 nếu ngoài phạm vi
+     */
+    int getCell(int x, int y);
+
+    /**
+     * Tạo mảng 2D board[x][y] từ trạng thái hiện tại.
+     */
+    int[][] getBoard();
+
+    /**
+     * Đếm số quân của một màu trên bàn.
+     */
+    int countStones(int color);
+
+    /**
+     * Nạp bàn cờ board[x][y] (0=trống, 1=đen, 2=trắng), xóa trạng thái Ko.
+     */
+    void load(int[][] board);
+
+    /**
+     * Áp dụng nước đi với cùng luật như GoGameLogic.applyMove.
+     *
+     * @return true nếu nước đi hợp lệ và đã áp dụng
+     */
+    boolean applyMove(int x, int y, int color, boolean enforceKoAndSuicide);
+}
@@ -0,0 +1,250 @@
+package org.example.dacs4_v2.game;
+
+/**
+ * Thế cờ bất biến (persistent) dùng cho các nhánh biến thể: phân tích, xem lại ván, thử nước.
+ *
+ * Bàn cờ lưu theo hàng rows[x][y]. Snapshot không bao giờ bị sửa nên "fork" một thế cờ chỉ là
+ * giữ lại tham chiếu (O(1)); play() tạo snapshot mới dùng chung mọi hàng không đổi với snapshot
+ * cũ và chỉ chép các hàng có ô thay đổi (ô vừa đặt và các quân bị bắt). Vì vậy giữ hàng nghìn
+ * thế cờ biến thể chỉ tốn mảng con trỏ hàng cộng vài hàng bị chép mỗi nước.
+ *
+ * Cùng luật và cùng hash Zobrist với GoGameLogic (Ko đơn: không lặp lại thế cờ ngay trước đó).
+ * Thread-safe vì bất biến.
+ */
+public final class BoardSnapshot {
+
+    private static final int[] DX = { 1, -1, 0, 0 };
+    private static final int[] DY = { 0, 0, 1, -1 };
+
+    private final int boardSize;
+    private final byte[][] rows;
+    private final long hash;
+    private final long prevHash;
+    private final boolean hasPrevHash;
+    private final int capturedByBlack;
+    private final int capturedByWhite;
+
+    private BoardSnapshot(int boardSize, byte[][] rows, long hash, long prevHash, boolean hasPrevHash,
+            int capturedByBlack, int capturedByWhite) {
+        this.boardSize = boardSize;
+        this.rows = rows;
+        this.hash = hash;
+        this.prevHash = prevHash;
+        this.hasPrevHash = hasPrevHash;
+        this.capturedByBlack = capturedByBlack;
+        this.capturedByWhite = capturedByWhite;
+    }
+
+    /**
+     * Bàn trống: mọi hàng dùng chung một mảng.
+     */
+    public static BoardSnapshot empty(int boardSize) {
+        byte[] emptyRow = new byte[boardSize];
+        byte[][] rows = new byte[boardSize][];
+        for (int x = 0; x < boardSize; x++) {
+            rows[x] = emptyRow;
+        }
+        return new BoardSnapshot(boardSize, rows, 0L, 0L, false, 0, 0);
+    }
+
+    /**
+     * Snapshot từ mảng board[x][y] (0=trống, 1=đen, 2=trắng). Chép cả bàn một lần.
+     *
+     * @param prevBoard thế cờ trước nước cuối (cho luật Ko), null nếu không có
+     */
+    public static BoardSnapshot of(int[][] board, int[][] prevBoard) {
+        int n = board.length;
+        return of(board, Zobrist.hashOf(board, n), prevBoard != null ? Zobrist.hashOf(prevBoard, n) : 0L,
+                prevBoard != null);
+    }
+
+    static BoardSnapshot of(int[][] board, long hash, long prevHash, boolean hasPrevHash) {
+        int n = board.length;
+        byte[][] rows = new byte[n][n];
+        for (int x = 0; x < n; x++) {
+            for (int y = 0; y < n; y++) {
+                rows[x][y] = (byte) board[x][y];
+            }
+        }
+        return new BoardSnapshot(n, rows, hash, prevHash, hasPrevHash, 0, 0);
+    }
+
+    public int getBoardSize() {
+        return boardSize;
+    }
+
+    /**
+     * Màu tại (x, y): 0=trống, 1=đen, 2=trắng, -1 nếu ngoài bàn.
+     */
+    public int getCell(int x, int y) {
+        if (x < 0 || x >= boardSize || y < 0 || y >= boardSize) {
+            return -1;
+        }
+        return rows[x][y];
+    }
+
+    /**
+     * Hash Zobrist, trùng với GoGameLogic.getHash() của cùng thế cờ.
+     */
+    public long getHash() {
+        return hash;
+    }
+
+    /**
+     * Số quân đen đã bắt từ snapshot gốc của nhánh.
+     */
+    public int getCapturedByBlack() {
+        return capturedByBlack;
+    }
+
+    /**
+     * Số quân trắng đã bắt từ snapshot gốc của nhánh.
+     */
+    public int getCapturedByWhite() {
+        return capturedByWhite;
+    }
+
+    /**
+     * Đặt quân theo luật (bắt quân, tự tử, Ko đơn).
+     *
+     * @return snapshot mới, hoặc null nếu nước không hợp lệ (snapshot này không đổi)
+     */
+    public BoardSnapshot play(int x, int y, int color) {
+        return play(x, y, color, true);
+    }
+
+    /**
+     * Đặt quân; enforceKoAndSuicide = false giống GoGameLogic.applyMove(..., false)
+     * (vẫn bắt quân, không kiểm tra tự tử / Ko), dùng khi phát lại lịch sử có nước sai luật.
+     *
+     * @return snapshot mới, hoặc null nếu ô không trống / nước không hợp lệ
+     */
+    public BoardSnapshot play(int x, int y, int color, boolean enforceKoAndSuicide) {
+        if (getCell(x, y) != 0 || (color != 1 && color != 2)) {
+            return null;
+        }
+        int n = boardSize;
+        int opp = color == 1 ? 2 : 1;
+        long[] keys = Zobrist.keys(n);
+        int p = x * n + y;
+
+        // Đánh dấu theo bitset; ô vừa đặt coi như đã có quân khi đếm liberties
+        long[] seen = new long[(n * n + 63) >>> 6];
+        int[] stack = new int[n * n];
+        int[] captured = new int[n * n];
+        int capturedCount = 0;
+        long newHash = hash ^ keys[p * 2 + color - 1];
+        for (int d = 0; d < 4; d++) {
+            int nx = x + DX[d];
+            int ny = y + DY[d];
+            if (getCell(nx, ny) != opp || isSet(seen, nx * n + ny)) {
+                continue;
+            }
+            int size = group(nx * n + ny, opp, p, seen, stack);
+            for (int i = 0; i < size; i++) {
+                int q = stack[i];
+                captured[capturedCount++] = q;
+                newHash ^= keys[q * 2 + opp - 1];
+            }
+        }
+
+        if (enforceKoAndSuicide) {
+            if (capturedCount == 0 && group(p, color, p, new long[seen.length], stack) > 0) {
+                return null; // tự tử
+            }
+            if (hasPrevHash && newHash == prevHash) {
+                return null; // Ko
+            }
+        }
+
+        // Chép các hàng bị đổi, còn lại dùng chung với snapshot này
+        byte[][] next = rows.clone();
+        boolean[] copied = new boolean[n];
+        copyRow(next, copied, x)[y] = (byte) color;
+        for (int i = 0; i < capturedCount; i++) {
+            int q = captured[i];
+            copyRow(next, copied, q / n)[q % n] = 0;
+        }
+        return new BoardSnapshot(n, next, newHash, hash, true,
+                capturedByBlack + (color == 1 ? capturedCount : 0),
+                capturedByWhite + (color == 2 ? capturedCount : 0));
+    }
+
+    /**
+     * Bản sao mảng board[x][y] (dùng cho GoGameLogic, AreaScorer, renderer...).
+     */
+    public int[][] toArray() {
+        int[][] board = new int[boardSize][boardSize];
+        for (int x = 0; x < boardSize; x++) {
+            byte[] row = rows[x];
+            for (int y = 0; y < boardSize; y++) {
+                board[x][y] = row[y];
+            }
+        }
+        return board;
+    }
+
+    /**
+     * Số hàng dùng chung (cùng mảng) với snapshot khác, để đo mức chia sẻ giữa các nhánh.
+     */
+    public int sharedRows(BoardSnapshot other) {
+        if (other == null || other.boardSize != boardSize) {
+            return 0;
+        }
+        int shared = 0;
+        for (int x = 0; x < boardSize; x++) {
+            if (rows[x] == other.rows[x]) {
+                shared++;
+            }
+        }
+        return shared;
+    }
+
+    /**
+     * Loang nhóm màu color chứa start (ô skip coi như đã có quân). Ghi các quân vào stack.
+     *
+     * @return số quân của nhóm nếu nhóm không còn liberty, 0 nếu còn
+     */
+    private int group(int start, int color, int skip, long[] seen, int[] stack) {
+        int n = boardSize;
+        int size = 0;
+        int head = 0;
+        boolean hasLiberty = false;
+        stack[size++] = start;
+        set(seen, start);
+        while (head < size) {
+            int q = stack[head++];
+            int qx = q / n;
+            int qy = q % n;
+            for (int d = 0; d < 4; d++) {
+                int nx = qx + DX[d];
+                int ny = qy + DY[d];
+                int v = getCell(nx, ny);
+                int r = nx * n + ny;
+                if (v == 0 && r != skip) {
+                    hasLiberty = true;
+                } else if (v == color && r != skip && !isSet(seen, r)) {
+                    set(seen, r);
+                    stack[size++] = r;
+                }
+            }
+        }
+        return hasLiberty ? 0 : size;
+    }
+
+    private static byte[] copyRow(byte[][] rows, boolean[] copied, int x) {
+        if (!copied[x]) {
+            rows[x] = rows[x].clone();
+            copied[x] = true;
+        }
+        return rows[x];
+    }
+
+    private static boolean isSet(long[] mask, int i) {
+        return (mask[i >>> 6] & (1L << i)) != 0;
+    }
+
+    private static void set(long[] mask, int i) {
+        mask[i >>> 6] |= 1L << i;
+    }
+}
@@ -0,0 +1,9 @@
+package org.example.dacs4_v2.game;
+
+/**
+ * Chế độ engine dùng bên trong GoGameLogic.
+ */
+public enum EngineMode {
+    CLASSIC, // copy bàn cờ + DFS tìm nhóm sau mỗi nước (cách cũ, dùng làm tham chiếu)
+    INCREMENTAL // union-find + tập liberties theo nhóm, cập nhật dần khi đặt/bắt quân
+}
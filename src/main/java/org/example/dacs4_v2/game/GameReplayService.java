@@ -0,0 +1,199 @@
+package org.example.dacs4_v2.game;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+
+import org.example.dacs4_v2.models.Game;
+import org.example.dacs4_v2.models.Moves;
+
+/**
+ * Phát lại và kiểm tra các ván đã lưu (lịch sử, resume, snapshot từ peer).
+ * Mỗi ván chạy trên một GoGameLogic riêng nên nhiều ván có thể chạy song song
+ * trên ForkJoinPool dùng chung (một luồng mỗi core).
+ *
+ * Nước đi được kiểm tra đủ luật (ô trống, tự tử, Ko). Sau nước sai luật đầu tiên,
+ * ván vẫn được phát lại tiếp như GameController khi resume (không kiểm tra Ko/tự tử),
+ * nên bàn cờ cuối khớp với bàn cờ người chơi thấy.
+ */
+public final class GameReplayService {
+
+    // Số ván tối thiểu mỗi task; ít hơn thì chạy luôn trên luồng hiện tại
+    private static final int BATCH_THRESHOLD = 8;
+
+    private static final ForkJoinPool POOL = new ForkJoinPool(Runtime.getRuntime().availableProcessors(), pool -> {
+        ForkJoinWorkerThread t = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+        t.setName("game-replay-" + t.getPoolIndex());
+        t.setDaemon(true);
+        return t;
+    }, null, false);
+
+    private GameReplayService() {
+    }
+
+    /**
+     * Phát lại song song nhiều ván.
+     *
+     * @param games danh sách ván (phần tử null cho kết quả null)
+     * @return kết quả theo đúng thứ tự của games
+     */
+    public static List<ReplayResult> replayAll(List<Game> games) {
+        if (games == null || games.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Game[] input = games.toArray(new Game[0]);
+        ReplayResult[] output = new ReplayResult[input.length];
+        POOL.invoke(new ReplayTask(input, output, 0, input.length));
+        return Arrays.asList(output);
+    }
+
+    /**
+     * Phát lại và kiểm tra một ván trên luồng hiện tại.
+     *
+     * @param game ván cần kiểm tra
+     * @return kết quả phát lại, hoặc null nếu game null
+     */
+    public static ReplayResult replay(Game game) {
+        if (game == null) {
+            return null;
+        }
+        int boardSize = game.getBoardSize();
+        if (boardSize < 1) {
+            return new ReplayResult(game.getGameId(), new int[0][0], 0, 0, 0, 0, null,
+                    ReplayResult.Violation.INVALID_BOARD_SIZE);
+        }
+
+        GoGameLogic logic = new GoGameLogic(boardSize, EngineMode.INCREMENTAL);
+        int capturedByBlack = 0;
+        int capturedByWhite = 0;
+        int movesApplied = 0;
+        int firstIllegalIndex = -1;
+        Moves firstIllegalMove = null;
+        ReplayResult.Violation violation = null;
+
+        List<Moves> moves = game.getMoves();
+        int count = moves != null ? moves.size() : 0;
+        for (int i = 0; i < count; i++) {
+            Moves m = moves.get(i);
+            if (m == null || (m.getX() < 0 && m.getY() < 0)) {
+                continue; // pass
+            }
+            int color = colorOf(m.getPlayer());
+            ReplayResult.Violation problem = null;
+            if (color == 0) {
+                problem = ReplayResult.Violation.UNKNOWN_PLAYER;
+            } else if (m.getX() < 0 || m.getX() >= boardSize || m.getY() < 0 || m.getY() >= boardSize) {
+                problem = ReplayResult.Violation.OUT_OF_BOARD;
+            } else if (logic.getCell(m.getX(), m.getY()) != 0) {
+                problem = ReplayResult.Violation.OCCUPIED;
+            } else if (violation == null) {
+                if (!logic.applyMove(m.getX(), m.getY(), color, true)) {
+                    problem = ReplayResult.Violation.SUICIDE_OR_KO;
+                    logic.applyMove(m.getX(), m.getY(), color, false);
+                }
+            } else {
+                logic.applyMove(m.getX(), m.getY(), color, false);
+            }
+
+            if (problem != null && violation == null) {
+                violation = problem;
+                firstIllegalIndex = i;
+                firstIllegalMove = m;
+            }
+            if (problem == null || problem == ReplayResult.Violation.SUICIDE_OR_KO) {
+                movesApplied++;
+                if (color == 1) {
+                    capturedByBlack += logic.getLastCaptureCount();
+                } else {
+                    capturedByWhite += logic.getLastCaptureCount();
+                }
+            }
+        }
+
+        return new ReplayResult(game.getGameId(), logic.getBoard(), capturedByBlack, capturedByWhite, movesApplied,
+                firstIllegalIndex, firstIllegalMove, violation);
+    }
+
+    /**
+     * Các thế cờ của ván để xem lại / rẽ nhánh phân tích: phần tử i là thế cờ sau i nước
+     * (phần tử 0 là bàn trống). Các snapshot liên tiếp dùng chung mọi hàng không đổi, nên cả
+     * ván chỉ tốn khoảng một mảng con trỏ hàng và một vài hàng mỗi nước.
+     * Nước sai luật được xử lý như replay(): từ nước sai đầu tiên trở đi không kiểm tra Ko/tự tử,
+     * nước không áp dụng được (ô có quân, ngoài bàn) giữ nguyên thế cờ.
+     *
+     * @param game ván cần dựng
+     * @return danh sách thế cờ (rỗng nếu game null hoặc kích thước không hợp lệ)
+     */
+    public static List<BoardSnapshot> positions(Game game) {
+        List<BoardSnapshot> positions = new ArrayList<>();
+        if (game == null || game.getBoardSize() < 1) {
+            return positions;
+        }
+        BoardSnapshot current = BoardSnapshot.empty(game.getBoardSize());
+        positions.add(current);
+        boolean enforce = true;
+        List<Moves> moves = game.getMoves();
+        int count = moves != null ? moves.size() : 0;
+        for (int i = 0; i < count; i++) {
+            Moves m = moves.get(i);
+            // Pass giữ nguyên thế cờ (GoGameLogic không ghi nhận pass, nên Ko cũng giữ nguyên)
+            if (m != null && (m.getX() >= 0 || m.getY() >= 0)) {
+                BoardSnapshot next = current.play(m.getX(), m.getY(), colorOf(m.getPlayer()), enforce);
+                if (next == null) {
+                    enforce = false;
+                    next = current.play(m.getX(), m.getY(), colorOf(m.getPlayer()), false);
+                }
+                if (next != null) {
+                    current = next;
+                }
+            }
+            positions.add(current);
+        }
+        return positions;
+    }
+
+    private static int colorOf(String player) {
+        if ("BLACK".equals(player)) {
+            return 1;
+        }
+        if ("WHITE".equals(player)) {
+            return 2;
+        }
+        return 0;
+    }
+
+    /**
+     * Chia đôi đoạn [from, to) cho tới khi đủ nhỏ rồi phát lại từng ván.
+     */
+    private static final class ReplayTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Game[] games;
+        private final transient ReplayResult[] results;
+        private final int from;
+        private final int to;
+
+        ReplayTask(Game[] games, ReplayResult[] results, int from, int to) {
+            this.games = games;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= BATCH_THRESHOLD) {
+                for (int i = from; i < to; i++) {
+                    results[i] = replay(games[i]);
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new ReplayTask(games, results, from, mid), new ReplayTask(games, results, mid, to));
+        }
+    }
+}
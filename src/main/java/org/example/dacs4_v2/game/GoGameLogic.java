@@ -1,5 +1,7 @@
 package org.example.dacs4_v2.game;
 
+import java.util.Arrays;
+
 /**
  * Class chứa logic luật cờ vây.
  * Tách riêng khỏi UI để dễ test và bảo trì.
@@ -10,6 +12,61 @@ public class GoGameLogic {
     private int[][] board;
     private int[][] prevBoard;
 
+    // Chế độ engine; INCREMENTAL dùng GroupTracker thay cho copy bàn cờ + DFS
+    private final EngineMode mode;
+    private final GroupTracker tracker;
+
+    // Nước đi gần nhất và các quân nó bắt (chỉ số x * boardSize + y), để dựng lại prevBoard khi cần
+    private int lastMoveX = -1;
+    private int lastMoveY = -1;
+    private int lastCapturedColor = 0;
+    private final int[] lastCaptured;
+    private int lastCapturedCount = 0;
+
+    // syncTo(): nhiều ô thay đổi hơn mức này thì nạp lại cả bàn thay vì sửa từng ô
+    private static final int SYNC_DELTA_LIMIT = 8;
+
+    // Hướng láng giềng dùng chung, không tạo mới mỗi nước đi
+    private static final int[] DX = { 1, -1, 0, 0 };
+    private static final int[] DY = { 0, 0, 1, -1 };
+    // Láng giềng trực giao theo thứ tự bit atari của PatternTable
+    private static final int[] ORTH_DX = { -1, 0, 0, 1 };
+    private static final int[] ORTH_DY = { 0, -1, 1, 0 };
+
+    // Buffer dùng lại cho chế độ CLASSIC. visitStamp đánh dấu đã thăm theo "thế hệ":
+    // mỗi lần DFS tăng stamp nên không phải xóa mảng visited.
+    private final int[] visitStamp;
+    private int stamp = 0;
+    private final int[] stack;
+    private final int[] pendingCaptured;
+
+    // Bitset nước hợp lệ trả về bởi legalMoves(), và buffer gán nhãn nhóm cho chế độ CLASSIC
+    // (cấp phát ở lần gọi đầu tiên)
+    private final long[] legalMask;
+    private final int[] adjGroups = new int[4];
+    private int[] groupOf;
+    private int[] groupLibs;
+    private long[] groupHash;
+    private int[] libMark;
+    private int libStamp = 0;
+
+    // Zobrist hash của bàn cờ hiện tại và lịch sử hash (cho Ko / positional superko)
+    private final long[] zobrist;
+    private final LongHashSet hashHistory;
+    private long hash;
+    private long prevHash;
+    private boolean hasPrevHash;
+    private boolean positionalSuperko = false;
+    private long captureHash;
+    private boolean lastAddedToHistory;
+
+    // Hash của bàn cờ theo 8 phép đối xứng (Symmetry), cập nhật tăng dần theo các ô thay đổi
+    private final long[][] symmetryKeys;
+    private final long[] symmetryHashes = new long[Symmetry.COUNT];
+
+    // Nhật ký nước đi cho undo/redo/seek
+    private final MoveJournal journal;
+
     // Số quân bị bắt (cập nhật sau mỗi nước đi)
     private int lastCaptureCount = 0;
 
@@ -19,9 +76,17 @@ public class GoGameLogic {
      * @param boardSize kích thước bàn cờ (9, 13, hoặc 19)
      */
     public GoGameLogic(int boardSize) {
-        this.boardSize = boardSize;
-        this.board = new int[boardSize][boardSize];
-        this.prevBoard = null;
+        this(boardSize, EngineMode.CLASSIC);
+    }
+
+    /**
+     * Khởi tạo logic game với kích thước bàn cờ và chế độ engine.
+     *
+     * @param boardSize kích thước bàn cờ (9, 13, hoặc 19)
+     * @param mode      chế độ engine (CLASSIC hoặc INCREMENTAL)
+     */
+    public GoGameLogic(int boardSize, EngineMode mode) {
+        this(boardSize, null, null, mode);
     }
 
     /**
@@ -32,9 +97,53 @@ public class GoGameLogic {
      * @param existingPrevBoard trạng thái bàn cờ trước đó (cho luật Ko)
      */
     public GoGameLogic(int boardSize, int[][] existingBoard, int[][] existingPrevBoard) {
+        this(boardSize, existingBoard, existingPrevBoard, EngineMode.CLASSIC);
+    }
+
+    /**
+     * Khởi tạo logic game với trạng thái bàn cờ có sẵn và chế độ engine.
+     *
+     * @param boardSize         kích thước bàn cờ
+     * @param existingBoard     trạng thái bàn cờ hiện tại (null nếu bàn trống)
+     * @param existingPrevBoard trạng thái bàn cờ trước đó (cho luật Ko)
+     * @param mode              chế độ engine
+     */
+    public GoGameLogic(int boardSize, int[][] existingBoard, int[][] existingPrevBoard, EngineMode mode) {
         this.boardSize = boardSize;
+        this.mode = mode != null ? mode : EngineMode.CLASSIC;
         this.board = existingBoard != null ? deepCopy(existingBoard) : new int[boardSize][boardSize];
+        this.lastCaptured = new int[boardSize * boardSize];
+        this.visitStamp = new int[boardSize * boardSize];
+        this.stack = new int[boardSize * boardSize];
+        this.pendingCaptured = new int[boardSize * boardSize];
+        this.legalMask = new long[(boardSize * boardSize + 63) >>> 6];
+        this.zobrist = Zobrist.keys(boardSize);
+        // Đủ chỗ cho ván dài mà không phải mở rộng bảng giữa chừng
+        this.hashHistory = new LongHashSet(boardSize * boardSize * 4);
+        this.journal = new MoveJournal(boardSize * boardSize * 2);
+        this.hash = Zobrist.hashOf(board, boardSize);
+        this.hashHistory.add(hash);
+        this.symmetryKeys = Symmetry.keys(boardSize);
+        for (int x = 0; x < boardSize; x++) {
+            for (int y = 0; y < boardSize; y++) {
+                if (board[x][y] == 1 || board[x][y] == 2) {
+                    toggleSymmetry(x * boardSize + y, board[x][y]);
+                }
+            }
+        }
+        if (existingPrevBoard != null) {
+            this.prevHash = Zobrist.hashOf(existingPrevBoard, boardSize);
+            this.hasPrevHash = true;
+            this.hashHistory.add(prevHash);
+        }
+        // Chỉ giữ lại để trả về cho getPrevBoard() trước nước đi đầu tiên
         this.prevBoard = existingPrevBoard != null ? deepCopy(existingPrevBoard) : null;
+        if (this.mode == EngineMode.INCREMENTAL) {
+            this.tracker = new GroupTracker(boardSize);
+            this.tracker.load(board, existingPrevBoard);
+        } else {
+            this.tracker = null;
+        }
     }
 
     /**
@@ -52,7 +161,72 @@ public class GoGameLogic {
      * @return mảng 2D của bàn cờ trước
      */
     public int[][] getPrevBoard() {
-        return prevBoard;
+        return rebuildPrevBoard();
+    }
+
+    /**
+     * Chụp thế cờ hiện tại thành BoardSnapshot bất biến (kèm hash trước nước cuối cho luật Ko),
+     * để rẽ nhánh biến thể mà không phải deepCopy bàn cờ ở mỗi nhánh.
+     */
+    public BoardSnapshot snapshot() {
+        return BoardSnapshot.of(board, hash, prevHash, hasPrevHash);
+    }
+
+    /**
+     * Lấy chế độ engine đang dùng.
+     *
+     * @return CLASSIC hoặc INCREMENTAL
+     */
+    public EngineMode getMode() {
+        return mode;
+    }
+
+    /**
+     * Lấy Zobrist hash 64-bit của bàn cờ hiện tại.
+     * Hai bàn cờ giống nhau (cùng kích thước) luôn có cùng hash trên mọi máy,
+     * nên có thể dùng làm key cho cache hoặc để kiểm tra lệch trạng thái giữa hai peer.
+     *
+     * @return hash của trạng thái hiện tại
+     */
+    public long getHash() {
+        return hash;
+    }
+
+    /**
+     * Hash của bàn cờ sau phép đối xứng s (0..7, xem Symmetry); s = 0 bằng getHash().
+     */
+    public long getSymmetryHash(int s) {
+        return symmetryHashes[s];
+    }
+
+    /**
+     * Hash chuẩn: nhỏ nhất trong 8 hash đối xứng, giống nhau cho cả 8 thế cờ đối xứng nhau.
+     * Dùng làm key cho cache / sách khai cuộc thay cho getHash().
+     */
+    public long getCanonicalHash() {
+        return symmetryHashes[Symmetry.canonical(symmetryHashes)];
+    }
+
+    /**
+     * Phép đối xứng đưa thế cờ hiện tại về thế chuẩn. Nước (x, y) trên bàn hiện tại ứng với
+     * Symmetry.transform(s, x, y, n) ở thế chuẩn; ngược lại dùng Symmetry.inverse(s).
+     */
+    public int getCanonicalSymmetry() {
+        return Symmetry.canonical(symmetryHashes);
+    }
+
+    /**
+     * Bật/tắt luật positional superko: cấm mọi nước đi tạo lại một trạng thái bàn cờ đã từng xuất hiện.
+     * Mặc định tắt (chỉ áp dụng Ko đơn).
+     *
+     * @param positionalSuperko true để bật superko
+     */
+    public void setPositionalSuperko(boolean positionalSuperko) {
+        this.positionalSuperko = positionalSuperko;
+    }
+
+    public boolean isPositionalSuperko() {
+        return positionalSuperko;
     }
 
     /**
@@ -84,6 +258,9 @@ public class GoGameLogic {
         if (x < 0 || x >= boardSize || y < 0 || y >= boardSize) {
             return -1;
         }
+        if (mode == EngineMode.INCREMENTAL) {
+            return tracker.getBoard().getCell(x, y);
+        }
         return board[x][y];
     }
 
@@ -101,6 +278,88 @@ public class GoGameLogic {
         return board[x][y] == 0;
     }
 
+    /**
+     * Tính tập nước hợp lệ của một màu ở trạng thái hiện tại (đủ luật tự tử, Ko, và superko nếu bật).
+     * Kết quả là bitset: ô (x, y) hợp lệ khi bit i = x * boardSize + y được bật,
+     * tức (mask[i >>> 6] & (1L << i)) != 0.
+     * Mảng trả về được dùng lại và bị ghi đè ở lần gọi sau.
+     *
+     * @param color màu quân (1=đen, 2=trắng)
+     * @return bitset các nước hợp lệ
+     */
+    public long[] legalMoves(int color) {
+        if (mode == EngineMode.INCREMENTAL) {
+            tracker.legalMoves(color, positionalSuperko ? hashHistory : null, legalMask);
+        } else {
+            legalMovesClassic(color);
+        }
+        return legalMask;
+    }
+
+    /**
+     * Mã mẫu 3x3 quanh ô (x, y) theo định dạng PatternTable (màu 8 láng giềng và bit atari
+     * của láng giềng trực giao). Ở chế độ INCREMENTAL mã màu được giữ sẵn và cập nhật tăng dần;
+     * ở CLASSIC được tính lại từ bàn cờ.
+     *
+     * @param x tọa độ X
+     * @param y tọa độ Y
+     * @return mã mẫu, tra tính chất bằng PatternTable
+     */
+    public int getPattern(int x, int y) {
+        if (mode == EngineMode.INCREMENTAL) {
+            return tracker.pattern(tracker.getBoard().index(x, y));
+        }
+        int code = colorPatternClassic(x, y);
+        for (int k = 0; k < 4; k++) {
+            int nx = x + ORTH_DX[k];
+            int ny = y + ORTH_DY[k];
+            int v = getCell(nx, ny);
+            if (v > 0 && !hasTwoLiberties(nx, ny, v)) {
+                code |= 1 << (PatternTable.COLOR_BITS + k);
+            }
+        }
+        return code;
+    }
+
+    /**
+     * Ô (x, y) là mắt của color theo quy tắc của PatternTable.isEyeLike().
+     */
+    public boolean isEyeLike(int x, int y, int color) {
+        int colors = mode == EngineMode.INCREMENTAL ? tracker.colorPattern(tracker.getBoard().index(x, y))
+                : colorPatternClassic(x, y);
+        return PatternTable.isEyeLike(colors, color);
+    }
+
+    // ==================== TRUY VẤN NHÓM (chỉ INCREMENTAL, dùng cho Tactics) ====================
+
+    /**
+     * Số liberties của nhóm chứa quân (x, y), 0 nếu ô trống.
+     */
+    int groupLiberties(int x, int y) {
+        return tracker.liberties(tracker.getBoard().index(x, y));
+    }
+
+    /**
+     * Ghi tối đa out.length liberties của nhóm chứa quân (x, y) vào out, dạng x * boardSize + y.
+     *
+     * @return số liberties đã ghi
+     */
+    int groupLibertyPoints(int x, int y, int[] out) {
+        PaddedBoard padded = tracker.getBoard();
+        int count = tracker.libertyPoints(padded.index(x, y), out);
+        for (int i = 0; i < count; i++) {
+            out[i] = padded.xOf(out[i]) * boardSize + padded.yOf(out[i]);
+        }
+        return count;
+    }
+
+    /**
+     * Nhóm chứa quân (x, y) kề một nhóm đối phương đang bị atari.
+     */
+    boolean touchesGroupInAtari(int x, int y) {
+        return tracker.touchesGroupInAtari(tracker.getBoard().index(x, y));
+    }
+
     /**
      * Áp dụng nước đi với đầy đủ luật cờ vây.
      * Kiểm tra: vị trí hợp lệ, bắt quân, tự tử, Ko rule.
@@ -123,144 +382,702 @@ public class GoGameLogic {
         if (board[x][y] != 0)
             return false;
 
-        // Tạo bản sao tạm thời
-        int[][] tmp = deepCopy(board);
-        tmp[x][y] = color;
+        // Trạng thái trước nước đi, ghi vào nhật ký để undo
+        long hashBefore = hash;
+        long prevHashBefore = prevHash;
+        boolean hasPrevBefore = hasPrevHash;
+        int koPointBefore = tracker != null ? tracker.getKoPoint() : -1;
+        int koColorBefore = tracker != null ? tracker.getKoColor() : 0;
+
+        if (!playMove(x, y, color, enforceKoAndSuicide)) {
+            return false;
+        }
+        journal.push(x * boardSize + y, color, lastCaptured, lastCapturedCount, hashBefore, prevHashBefore,
+                hasPrevBefore, koPointBefore, koColorBefore, lastAddedToHistory);
+        return true;
+    }
+
+    /**
+     * Hoàn tác nước đi gần nhất. Chỉ khôi phục các ô đã thay đổi (quân vừa đặt và quân bị bắt).
+     *
+     * @return true nếu đã hoàn tác, false nếu không còn nước để hoàn tác
+     */
+    public boolean undo() {
+        int i = journal.cursor() - 1;
+        if (i < 0) {
+            return false;
+        }
+        int p = journal.point(i);
+        int x = p / boardSize;
+        int y = p % boardSize;
+        int capturedColor = journal.color(i) == 1 ? 2 : 1;
+        int count = journal.capturedCount(i);
+
+        board[x][y] = 0;
+        toggleSymmetry(p, journal.color(i));
+        for (int k = 0; k < count; k++) {
+            int cp = journal.captured(i, k);
+            board[cp / boardSize][cp % boardSize] = capturedColor;
+            toggleSymmetry(cp, capturedColor);
+        }
+        if (tracker != null) {
+            PaddedBoard padded = tracker.getBoard();
+            tracker.removeStone(padded.index(x, y));
+            for (int k = 0; k < count; k++) {
+                int cp = journal.captured(i, k);
+                tracker.restoreStone(padded.index(cp / boardSize, cp % boardSize), capturedColor);
+            }
+            tracker.setKo(journal.koPointBefore(i), journal.koColorBefore(i));
+        }
+
+        if (journal.addedToHistory(i)) {
+            hashHistory.remove(hash);
+        }
+        hash = journal.hashBefore(i);
+        prevHash = journal.prevHashBefore(i);
+        hasPrevHash = journal.hasPrevBefore(i);
+        journal.back();
+        restoreLastMove();
+        return true;
+    }
+
+    /**
+     * Áp dụng lại nước vừa hoàn tác.
+     *
+     * @return true nếu đã áp dụng lại, false nếu không có nước để redo
+     */
+    public boolean redo() {
+        int i = journal.cursor();
+        if (i >= journal.size()) {
+            return false;
+        }
+        int p = journal.point(i);
+        // Nước đã hợp lệ khi ghi nên không cần kiểm tra lại luật
+        if (!playMove(p / boardSize, p % boardSize, journal.color(i), false)) {
+            return false;
+        }
+        journal.forward(lastAddedToHistory);
+        return true;
+    }
+
+    /**
+     * Nhảy tới trạng thái sau moveIndex nước đầu tiên (0 = trước nước đầu tiên)
+     * bằng undo/redo liên tiếp, chi phí theo số ô thay đổi.
+     *
+     * @param moveIndex số nước muốn có trên bàn
+     * @return true nếu đã tới đúng vị trí
+     */
+    public boolean seek(int moveIndex) {
+        if (moveIndex < 0 || moveIndex > journal.size()) {
+            return false;
+        }
+        while (journal.cursor() > moveIndex) {
+            undo();
+        }
+        while (journal.cursor() < moveIndex) {
+            if (!redo()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Đưa engine về thế cờ hiện tại của other, như dựng mới bằng
+     * new GoGameLogic(boardSize, other.getBoard(), other.getPrevBoard(), mode) nhưng dùng lại buffer,
+     * bỏ nhật ký undo/redo và lịch sử hash. Đang ở đúng thế cờ trước nước cuối của other (thường gặp:
+     * other đi thêm một nước) thì đi lại nước đó, kể cả khi bắt nhóm lớn; ngoài ra ít ô thay đổi thì chỉ
+     * sửa các ô đó (GroupTracker gỡ / đặt lại từng quân), nhiều hơn SYNC_DELTA_LIMIT thì nạp lại cả bàn
+     * vì gỡ quân giữa nhóm lớn phải tách lại nhóm. other phải cùng kích thước.
+     */
+    void syncTo(GoGameLogic other) {
+        int n = boardSize;
+        if (!replayLastMove(other)) {
+            if (countChanges(other.board) <= SYNC_DELTA_LIMIT) {
+                syncCells(other.board);
+            } else {
+                reload(other.board);
+            }
+        }
+
+        journal.clear();
+        hashHistory.clear();
+        hashHistory.add(hash);
+        prevHash = other.prevHash;
+        hasPrevHash = other.hasPrevHash;
+        if (hasPrevHash) {
+            hashHistory.add(prevHash);
+        }
+        // prevBoard = other.getPrevBoard(), chép vào buffer sẵn có: bàn hiện tại bỏ nước cuối của other
+        // và trả lại các quân nước đó bắt, hoặc prevBoard của other nếu other chưa có nước nào
+        int[][] source = other.lastMoveX >= 0 ? board : other.prevBoard;
+        if (source == null) {
+            prevBoard = null;
+        } else {
+            if (prevBoard == null) {
+                prevBoard = new int[n][n];
+            }
+            for (int x = 0; x < n; x++) {
+                System.arraycopy(source[x], 0, prevBoard[x], 0, n);
+            }
+            if (other.lastMoveX >= 0) {
+                prevBoard[other.lastMoveX][other.lastMoveY] = 0;
+                for (int i = 0; i < other.lastCapturedCount; i++) {
+                    int p = other.lastCaptured[i];
+                    prevBoard[p / n][p % n] = other.lastCapturedColor;
+                }
+            }
+        }
+        lastMoveX = -1;
+        lastMoveY = -1;
+        lastCapturedCount = 0;
+        lastCaptureCount = 0;
+        if (tracker != null) {
+            if (other.tracker != null) {
+                tracker.setKo(other.tracker.getKoPoint(), other.tracker.getKoColor());
+            } else {
+                tracker.loadKo(board, prevBoard);
+            }
+        }
+    }
+
+    /**
+     * Đi lại nước cuối của other nếu bàn này đang ở thế cờ ngay trước nước đó (so hash).
+     * Nếu hash sau nước đi không khớp other thì trả false; syncCells/reload vẫn sửa đúng từ bàn hiện tại.
+     */
+    private boolean replayLastMove(GoGameLogic other) {
+        if (other.lastMoveX < 0 || !other.hasPrevHash || hash != other.prevHash) {
+            return false;
+        }
+        int color = other.board[other.lastMoveX][other.lastMoveY];
+        return playMove(other.lastMoveX, other.lastMoveY, color, false) && hash == other.hash;
+    }
+
+    /**
+     * Số ô khác nhau giữa board và target, dừng đếm khi đã vượt SYNC_DELTA_LIMIT.
+     */
+    private int countChanges(int[][] target) {
+        int changes = 0;
+        for (int x = 0; x < boardSize && changes <= SYNC_DELTA_LIMIT; x++) {
+            int[] row = board[x];
+            int[] targetRow = target[x];
+            for (int y = 0; y < boardSize; y++) {
+                if (row[y] != targetRow[y]) {
+                    changes++;
+                }
+            }
+        }
+        return changes;
+    }
+
+    /**
+     * Sửa từng ô khác nhau: gỡ quân cũ rồi đặt quân mới (không xử lý bắt quân).
+     */
+    private void syncCells(int[][] target) {
+        int n = boardSize;
+        PaddedBoard padded = tracker != null ? tracker.getBoard() : null;
+        for (int x = 0; x < n; x++) {
+            int[] row = board[x];
+            int[] targetRow = target[x];
+            for (int y = 0; y < n; y++) {
+                int old = row[y];
+                int c = targetRow[y];
+                if (old == c) {
+                    continue;
+                }
+                int p = x * n + y;
+                if (old != 0) {
+                    hash ^= zobrist[p * 2 + old - 1];
+                    toggleSymmetry(p, old);
+                    if (tracker != null) {
+                        tracker.removeStone(padded.index(x, y));
+                    }
+                }
+                row[y] = c;
+                if (c != 0) {
+                    hash ^= zobrist[p * 2 + c - 1];
+                    toggleSymmetry(p, c);
+                    if (tracker != null) {
+                        tracker.restoreStone(padded.index(x, y), c);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Chép cả bàn, tính lại hash / hash đối xứng và nạp lại GroupTracker (giữ buffer).
+     */
+    private void reload(int[][] target) {
+        int n = boardSize;
+        hash = 0L;
+        Arrays.fill(symmetryHashes, 0L);
+        for (int x = 0; x < n; x++) {
+            System.arraycopy(target[x], 0, board[x], 0, n);
+            for (int y = 0; y < n; y++) {
+                int c = board[x][y];
+                if (c != 0) {
+                    int p = x * n + y;
+                    hash ^= zobrist[p * 2 + c - 1];
+                    toggleSymmetry(p, c);
+                }
+            }
+        }
+        if (tracker != null) {
+            tracker.clear();
+            tracker.load(board, null);
+        }
+    }
+
+    /**
+     * Số nước đang có trên bàn (vị trí hiện tại trong nhật ký undo/redo).
+     */
+    public int getMoveIndex() {
+        return journal.cursor();
+    }
+
+    /**
+     * Tổng số nước trong nhật ký, kể cả các nước có thể redo.
+     */
+    public int getJournalSize() {
+        return journal.size();
+    }
+
+    public boolean canUndo() {
+        return journal.cursor() > 0;
+    }
+
+    public boolean canRedo() {
+        return journal.cursor() < journal.size();
+    }
+
+    private boolean playMove(int x, int y, int color, boolean enforceKoAndSuicide) {
+        boolean applied = mode == EngineMode.INCREMENTAL
+                ? applyMoveIncremental(x, y, color, enforceKoAndSuicide)
+                : applyMoveClassic(x, y, color, enforceKoAndSuicide);
+        if (applied) {
+            toggleSymmetry(x * boardSize + y, color);
+            for (int i = 0; i < lastCapturedCount; i++) {
+                toggleSymmetry(lastCaptured[i], lastCapturedColor);
+            }
+        }
+        return applied;
+    }
+
+    /**
+     * Thêm/bỏ quân color tại ô p (chỉ số phẳng) khỏi 8 hash đối xứng.
+     */
+    private void toggleSymmetry(int p, int color) {
+        int k = p * 2 + color - 1;
+        for (int s = 0; s < Symmetry.COUNT; s++) {
+            symmetryHashes[s] ^= symmetryKeys[s][k];
+        }
+    }
+
+    /**
+     * Áp dụng nước đi bằng cách đặt quân lên board rồi DFS tìm nhóm bị bắt.
+     */
+    private boolean applyMoveClassic(int x, int y, int color, boolean enforceKoAndSuicide) {
+        // Đặt quân thử trực tiếp lên board; nếu sai luật thì hoàn tác
+        board[x][y] = color;
         int oppColor = color == 1 ? 2 : 1;
-        boolean anyCapture = false;
+        int captured = 0;
+        captureHash = 0L;
 
         // Kiểm tra và bắt quân đối thủ xung quanh
-        int[][] dirs = new int[][] { { 1, 0 }, { -1, 0 }, { 0, 1 }, { 0, -1 } };
-        for (int[] d : dirs) {
-            int nx = x + d[0];
-            int ny = y + d[1];
+        for (int d = 0; d < 4; d++) {
+            int nx = x + DX[d];
+            int ny = y + DY[d];
             if (nx < 0 || nx >= boardSize || ny < 0 || ny >= boardSize)
                 continue;
-            if (tmp[nx][ny] == oppColor) {
-                int captured = removeGroupIfNoLiberties(tmp, nx, ny, oppColor);
-                if (captured > 0) {
-                    anyCapture = true;
-                    lastCaptureCount += captured;
-                }
+            if (board[nx][ny] == oppColor) {
+                captured += removeGroupIfNoLiberties(nx, ny, oppColor, captured);
             }
         }
 
         // Kiểm tra luật tự tử: không được đặt quân vào vị trí không có liberties
-        int libertiesAfter = countLiberties(tmp, x, y, color);
-        if (enforceKoAndSuicide && libertiesAfter == 0 && !anyCapture) {
+        if (enforceKoAndSuicide && captured == 0 && !hasLiberties(x, y, color)) {
+            board[x][y] = 0;
             return false;
         }
 
-        // Kiểm tra luật Ko: không được lặp lại trạng thái bàn cờ trước đó
-        if (enforceKoAndSuicide && prevBoard != null && boardsEqual(tmp, prevBoard)) {
+        // Kiểm tra luật Ko: so hash thay vì so cả bàn cờ.
+        // Ko đơn: không lặp lại trạng thái trước đó; superko: không lặp lại bất kỳ trạng thái nào.
+        long newHash = hash ^ zobrist[(x * boardSize + y) * 2 + color - 1] ^ captureHash;
+        if (enforceKoAndSuicide && isRepetition(newHash)) {
+            board[x][y] = 0;
+            for (int i = 0; i < captured; i++) {
+                int p = pendingCaptured[i];
+                board[p / boardSize][p % boardSize] = oppColor;
+            }
             return false;
         }
 
         // Áp dụng nước đi
-        prevBoard = deepCopy(board);
-        board = tmp;
+        commitHash(newHash);
+        System.arraycopy(pendingCaptured, 0, lastCaptured, 0, captured);
+        recordLastMove(x, y, oppColor, captured);
+        return true;
+    }
+
+    /**
+     * Áp dụng nước đi bằng GroupTracker: chỉ cập nhật các ô thay đổi trên board.
+     */
+    private boolean applyMoveIncremental(int x, int y, int color, boolean enforceKoAndSuicide) {
+        LongHashSet superkoHistory = positionalSuperko ? hashHistory : null;
+        PaddedBoard padded = tracker.getBoard();
+        if (tracker.play(padded.index(x, y), color, enforceKoAndSuicide, superkoHistory) != GroupTracker.OK) {
+            return false;
+        }
+        commitHash(tracker.getHash());
+
+        // board[x][y] là bản sao 2D của PaddedBoard cho getBoard(); chỉ chép các ô thay đổi
+        board[x][y] = color;
+        int captured = tracker.getCapturedCount();
+        for (int i = 0; i < captured; i++) {
+            int p = tracker.getCaptured(i);
+            int cx = padded.xOf(p);
+            int cy = padded.yOf(p);
+            board[cx][cy] = 0;
+            lastCaptured[i] = cx * boardSize + cy;
+        }
+        recordLastMove(x, y, color == 1 ? 2 : 1, captured);
         return true;
     }
 
+    private void commitHash(long newHash) {
+        prevHash = hash;
+        hasPrevHash = true;
+        hash = newHash;
+        lastAddedToHistory = hashHistory.add(newHash);
+    }
+
+    /**
+     * Lấy lại thông tin nước cuối từ nhật ký sau khi undo (cho getPrevBoard()).
+     */
+    private void restoreLastMove() {
+        int i = journal.cursor() - 1;
+        if (i < 0) {
+            lastMoveX = -1;
+            lastMoveY = -1;
+            lastCapturedCount = 0;
+            lastCaptureCount = 0;
+            return;
+        }
+        int p = journal.point(i);
+        journal.copyCaptured(i, lastCaptured);
+        recordLastMove(p / boardSize, p % boardSize, journal.color(i) == 1 ? 2 : 1, journal.capturedCount(i));
+    }
+
+    private void recordLastMove(int x, int y, int capturedColor, int captured) {
+        lastCaptureCount = captured;
+        lastCapturedCount = captured;
+        lastMoveX = x;
+        lastMoveY = y;
+        lastCapturedColor = capturedColor;
+    }
+
+    /**
+     * Kiểm tra trạng thái sau nước đi có vi phạm Ko (hoặc superko nếu bật) không. O(1).
+     */
+    private boolean isRepetition(long newHash) {
+        if (positionalSuperko) {
+            return hashHistory.contains(newHash);
+        }
+        return hasPrevHash && newHash == prevHash;
+    }
+
+    /**
+     * Dựng lại bàn cờ trước nước đi gần nhất từ board hiện tại và các quân vừa bị bắt.
+     */
+    private int[][] rebuildPrevBoard() {
+        if (lastMoveX < 0) {
+            return prevBoard;
+        }
+        int[][] prev = deepCopy(board);
+        prev[lastMoveX][lastMoveY] = 0;
+        for (int i = 0; i < lastCapturedCount; i++) {
+            int p = lastCaptured[i];
+            prev[p / boardSize][p % boardSize] = lastCapturedColor;
+        }
+        return prev;
+    }
+
+    /**
+     * legalMoves cho chế độ CLASSIC: gán nhãn nhóm và đếm liberties một lượt,
+     * rồi xét từng ô trống dựa trên các nhóm kề.
+     */
+    private void legalMovesClassic(int color) {
+        if (groupOf == null) {
+            int cells = boardSize * boardSize;
+            groupOf = new int[cells];
+            groupLibs = new int[cells];
+            groupHash = new long[cells];
+            libMark = new int[cells];
+        }
+
+        // Gán nhãn nhóm: số liberties và hash Zobrist của từng nhóm
+        int mark = nextStamp();
+        int groups = 0;
+        for (int sx = 0; sx < boardSize; sx++) {
+            for (int sy = 0; sy < boardSize; sy++) {
+                int c = board[sx][sy];
+                int start = sx * boardSize + sy;
+                if (c == 0 || visitStamp[start] == mark) {
+                    continue;
+                }
+                if (++libStamp == 0) {
+                    Arrays.fill(libMark, 0);
+                    libStamp = 1;
+                }
+                int libs = 0;
+                long groupKey = 0L;
+                int top = 0;
+                stack[top++] = start;
+                visitStamp[start] = mark;
+                while (top > 0) {
+                    int p = stack[--top];
+                    groupOf[p] = groups;
+                    groupKey ^= zobrist[p * 2 + c - 1];
+                    int cx = p / boardSize;
+                    int cy = p % boardSize;
+                    for (int d = 0; d < 4; d++) {
+                        int nx = cx + DX[d];
+                        int ny = cy + DY[d];
+                        if (nx < 0 || nx >= boardSize || ny < 0 || ny >= boardSize)
+                            continue;
+                        int q = nx * boardSize + ny;
+                        int v = board[nx][ny];
+                        if (v == 0) {
+                            if (libMark[q] != libStamp) {
+                                libMark[q] = libStamp;
+                                libs++;
+                            }
+                        } else if (v == c && visitStamp[q] != mark) {
+                            visitStamp[q] = mark;
+                            stack[top++] = q;
+                        }
+                    }
+                }
+                groupLibs[groups] = libs;
+                groupHash[groups] = groupKey;
+                groups++;
+            }
+        }
+
+        // Ô trống hợp lệ nếu còn liberty sau khi đặt (ô trống kề, nhóm mình còn liberty khác,
+        // hoặc bắt được nhóm đối thủ chỉ còn 1 liberty) và không lặp lại trạng thái
+        Arrays.fill(legalMask, 0L);
+        int oppColor = color == 1 ? 2 : 1;
+        for (int x = 0; x < boardSize; x++) {
+            for (int y = 0; y < boardSize; y++) {
+                if (board[x][y] != 0) {
+                    continue;
+                }
+                boolean hasLiberty = false;
+                int captures = 0;
+                long capturedKey = 0L;
+                int adjCount = 0;
+                for (int d = 0; d < 4; d++) {
+                    int nx = x + DX[d];
+                    int ny = y + DY[d];
+                    if (nx < 0 || nx >= boardSize || ny < 0 || ny >= boardSize)
+                        continue;
+                    int v = board[nx][ny];
+                    if (v == 0) {
+                        hasLiberty = true;
+                        continue;
+                    }
+                    int g = groupOf[nx * boardSize + ny];
+                    if (contains(adjGroups, adjCount, g)) {
+                        continue;
+                    }
+                    adjGroups[adjCount++] = g;
+                    if (v == oppColor) {
+                        if (groupLibs[g] == 1) {
+                            captures++;
+                            capturedKey ^= groupHash[g];
+                        }
+                    } else if (groupLibs[g] > 1) {
+                        hasLiberty = true;
+                    }
+                }
+                if (captures == 0 && !hasLiberty) {
+                    continue;
+                }
+                int i = x * boardSize + y;
+                if (isRepetition(hash ^ zobrist[i * 2 + color - 1] ^ capturedKey)) {
+                    continue;
+                }
+                legalMask[i >>> 6] |= 1L << i;
+            }
+        }
+    }
+
+    private static boolean contains(int[] arr, int len, int v) {
+        for (int i = 0; i < len; i++) {
+            if (arr[i] == v) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Tăng stamp cho một lần DFS mới; ô có visitStamp == stamp là đã thăm.
+     */
+    private int nextStamp() {
+        if (++stamp == 0) {
+            Arrays.fill(visitStamp, 0);
+            stamp = 1;
+        }
+        return stamp;
+    }
+
     /**
      * Xóa nhóm quân nếu không có liberties.
+     * Vị trí các quân bị xóa được ghi vào pendingCaptured bắt đầu từ offset.
      *
-     * @param state trạng thái bàn cờ
-     * @param sx    tọa độ X bắt đầu
-     * @param sy    tọa độ Y bắt đầu
-     * @param color màu quân cần kiểm tra
+     * @param sx     tọa độ X bắt đầu
+     * @param sy     tọa độ Y bắt đầu
+     * @param color  màu quân cần kiểm tra
+     * @param offset vị trí ghi trong pendingCaptured
      * @return số quân đã xóa (0 nếu nhóm còn liberties)
      */
-    private int removeGroupIfNoLiberties(int[][] state, int sx, int sy, int color) {
-        boolean[][] visited = new boolean[boardSize][boardSize];
-        int[][] stack = new int[boardSize * boardSize][2];
+    private int removeGroupIfNoLiberties(int sx, int sy, int color, int offset) {
+        int mark = nextStamp();
         int top = 0;
-        stack[top][0] = sx;
-        stack[top][1] = sy;
-        visited[sx][sy] = true;
+        int start = sx * boardSize + sy;
+        stack[top++] = start;
+        visitStamp[start] = mark;
         int groupCount = 0;
-        boolean hasLiberty = false;
-
-        int[][] group = new int[boardSize * boardSize][2];
-        int[][] dirs = new int[][] { { 1, 0 }, { -1, 0 }, { 0, 1 }, { 0, -1 } };
-
-        // DFS để tìm tất cả quân trong nhóm
-        while (top >= 0) {
-            int cx = stack[top][0];
-            int cy = stack[top][1];
-            top--;
-            group[groupCount][0] = cx;
-            group[groupCount][1] = cy;
-            groupCount++;
-
-            for (int[] d : dirs) {
-                int nx = cx + d[0];
-                int ny = cy + d[1];
+
+        // DFS để tìm tất cả quân trong nhóm; dừng ngay khi gặp liberty
+        while (top > 0) {
+            int p = stack[--top];
+            pendingCaptured[offset + groupCount++] = p;
+            int cx = p / boardSize;
+            int cy = p % boardSize;
+
+            for (int d = 0; d < 4; d++) {
+                int nx = cx + DX[d];
+                int ny = cy + DY[d];
                 if (nx < 0 || nx >= boardSize || ny < 0 || ny >= boardSize)
                     continue;
-                if (state[nx][ny] == 0) {
-                    hasLiberty = true;
-                } else if (state[nx][ny] == color && !visited[nx][ny]) {
-                    visited[nx][ny] = true;
-                    top++;
-                    stack[top][0] = nx;
-                    stack[top][1] = ny;
+                int v = board[nx][ny];
+                if (v == 0) {
+                    return 0;
+                }
+                int q = nx * boardSize + ny;
+                if (v == color && visitStamp[q] != mark) {
+                    visitStamp[q] = mark;
+                    stack[top++] = q;
                 }
             }
         }
 
-        // Nếu có liberties thì không xóa
-        if (hasLiberty)
-            return 0;
-
-        // Xóa tất cả quân trong nhóm
-        for (int i = 0; i < groupCount; i++) {
-            state[group[i][0]][group[i][1]] = 0;
+        // Xóa tất cả quân trong nhóm (và cập nhật hash của các quân bị bắt)
+        for (int i = offset; i < offset + groupCount; i++) {
+            int p = pendingCaptured[i];
+            board[p / boardSize][p % boardSize] = 0;
+            captureHash ^= zobrist[p * 2 + color - 1];
         }
         return groupCount;
     }
 
     /**
-     * Đếm số liberties của một nhóm quân.
+     * Kiểm tra nhóm quân có còn ít nhất một liberty không.
      *
-     * @param state trạng thái bàn cờ
      * @param sx    tọa độ X bắt đầu
      * @param sy    tọa độ Y bắt đầu
      * @param color màu quân
-     * @return số liberties (ô trống xung quanh nhóm)
+     * @return true nếu nhóm còn liberty
      */
-    private int countLiberties(int[][] state, int sx, int sy, int color) {
-        boolean[][] visited = new boolean[boardSize][boardSize];
-        int[][] stack = new int[boardSize * boardSize][2];
+    private boolean hasLiberties(int sx, int sy, int color) {
+        int mark = nextStamp();
         int top = 0;
-        stack[top][0] = sx;
-        stack[top][1] = sy;
-        visited[sx][sy] = true;
-        int liberties = 0;
+        int start = sx * boardSize + sy;
+        stack[top++] = start;
+        visitStamp[start] = mark;
 
-        int[][] dirs = new int[][] { { 1, 0 }, { -1, 0 }, { 0, 1 }, { 0, -1 } };
+        while (top > 0) {
+            int p = stack[--top];
+            int cx = p / boardSize;
+            int cy = p % boardSize;
+
+            for (int d = 0; d < 4; d++) {
+                int nx = cx + DX[d];
+                int ny = cy + DY[d];
+                if (nx < 0 || nx >= boardSize || ny < 0 || ny >= boardSize)
+                    continue;
+                int v = board[nx][ny];
+                if (v == 0) {
+                    return true;
+                }
+                int q = nx * boardSize + ny;
+                if (v == color && visitStamp[q] != mark) {
+                    visitStamp[q] = mark;
+                    stack[top++] = q;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 16 bit màu của mẫu 3x3 quanh (x, y), tính trực tiếp từ bàn cờ (chế độ CLASSIC).
+     */
+    private int colorPatternClassic(int x, int y) {
+        int code = 0;
+        int slot = 0;
+        for (int dx = -1; dx <= 1; dx++) {
+            for (int dy = -1; dy <= 1; dy++) {
+                if (dx == 0 && dy == 0) {
+                    continue;
+                }
+                int v = getCell(x + dx, y + dy);
+                code |= (v < 0 ? 3 : v) << (slot++ * 2);
+            }
+        }
+        return code;
+    }
+
+    /**
+     * Nhóm chứa (sx, sy) có ít nhất 2 liberties khác nhau (chế độ CLASSIC).
+     */
+    private boolean hasTwoLiberties(int sx, int sy, int color) {
+        int mark = nextStamp();
+        int top = 0;
+        int start = sx * boardSize + sy;
+        stack[top++] = start;
+        visitStamp[start] = mark;
+        int firstLib = -1;
 
-        while (top >= 0) {
-            int cx = stack[top][0];
-            int cy = stack[top][1];
-            top--;
+        while (top > 0) {
+            int p = stack[--top];
+            int cx = p / boardSize;
+            int cy = p % boardSize;
 
-            for (int[] d : dirs) {
-                int nx = cx + d[0];
-                int ny = cy + d[1];
+            for (int d = 0; d < 4; d++) {
+                int nx = cx + DX[d];
+                int ny = cy + DY[d];
                 if (nx < 0 || nx >= boardSize || ny < 0 || ny >= boardSize)
                     continue;
-                if (state[nx][ny] == 0) {
-                    liberties++;
-                } else if (state[nx][ny] == color && !visited[nx][ny]) {
-                    visited[nx][ny] = true;
-                    top++;
-                    stack[top][0] = nx;
-                    stack[top][1] = ny;
+                int v = board[nx][ny];
+                int q = nx * boardSize + ny;
+                if (v == 0) {
+                    if (firstLib < 0) {
+                        firstLib = q;
+                    } else if (q != firstLib) {
+                        return true;
+                    }
+                } else if (v == color && visitStamp[q] != mark) {
+                    visitStamp[q] = mark;
+                    stack[top++] = q;
                 }
             }
         }
-        return liberties;
+        return false;
     }
 
     /**
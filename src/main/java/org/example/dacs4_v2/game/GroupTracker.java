@@ -0,0 +1,668 @@
+package org.example.dacs4_v2.game;
+
+import java.util.Arrays;
+
+/**
+ * Theo dõi nhóm quân và liberties một cách tăng dần (incremental).
+ * Mỗi nhóm là một tập union-find, quân trong nhóm nối thành danh sách vòng,
+ * liberties của nhóm lưu dạng bitset tại gốc (root) của nhóm.
+ * Một nước đi chỉ tốn chi phí theo số nhóm bị ảnh hưởng, không theo kích thước bàn cờ.
+ *
+ * Ô được đánh chỉ số theo PaddedBoard (có vòng biên), nên duyệt láng giềng
+ * chỉ cần cộng 4 offset cố định, không kiểm tra tọa độ.
+ *
+ * Ngoài ra giữ mã màu 3x3 (16 bit, xem PatternTable) của mọi ô: khi một ô đổi màu
+ * chỉ cần sửa 2 bit trong mã của 8 ô xung quanh.
+ */
+final class GroupTracker {
+
+    // Kết quả của play()
+    static final int OK = 0;
+    static final int OCCUPIED = 1;
+    static final int SUICIDE = 2;
+    static final int KO = 3;
+    static final int SUPERKO = 4;
+
+    private final int boardSize;
+    private final int words;
+
+    private final PaddedBoard board;
+    private final byte[] cells; // mảng ô của PaddedBoard (0=trống, 1=đen, 2=trắng, 3=biên)
+    private final int[] offsets; // 4 offset láng giềng: +1, -1, +stride, -stride
+    private final int[] parent; // union-find
+    private final int[] next; // danh sách vòng các quân trong cùng nhóm
+    private final int[] stones; // số quân của nhóm (chỉ đúng tại root)
+    private final long[] libs; // bitset liberties của nhóm (chỉ đúng tại root)
+    private final long[] zobrist; // khóa Zobrist theo chỉ số padded: p * 2 + (color - 1)
+    private long hash;
+    private final int[] offsets8; // 8 láng giềng theo thứ tự slot của PatternTable
+    private final char[] patterns; // mã màu 3x3 của từng ô
+
+    // Buffer dùng lại giữa các nước đi
+    private final int[] adjRoots = new int[4];
+    private final int[] captureRoots = new int[4];
+    private final int[] captured;
+    private int capturedCount;
+    // Kết quả của scan(): số quân sẽ bị bắt, và nhóm mới còn liberty mà không cần bắt quân
+    private int captureStones;
+    private boolean selfHasLiberty;
+    private final int[] groupBuf;
+
+    // Ô Ko hiện tại và màu bị cấm đánh vào đó (-1 nếu không có Ko)
+    private int koPoint = -1;
+    private int koColor = 0;
+
+    GroupTracker(int boardSize) {
+        this.boardSize = boardSize;
+        this.board = new PaddedBoard(boardSize);
+        this.cells = board.cells();
+        int stride = board.getStride();
+        int cellCount = board.getCellCount();
+        this.offsets = new int[] { 1, -1, stride, -stride };
+        this.words = (cellCount + 63) >>> 6;
+        this.parent = new int[cellCount];
+        this.next = new int[cellCount];
+        this.stones = new int[cellCount];
+        this.libs = new long[cellCount * words];
+        this.captured = new int[boardSize * boardSize];
+        this.groupBuf = new int[boardSize * boardSize];
+        this.offsets8 = new int[] { -stride - 1, -stride, -stride + 1, -1, 1, stride - 1, stride, stride + 1 };
+        this.patterns = new char[cellCount];
+        for (int x = 0; x < boardSize; x++) {
+            for (int y = 0; y < boardSize; y++) {
+                int p = board.index(x, y);
+                int code = 0;
+                for (int i = 0; i < 8; i++) {
+                    code |= cells[p + offsets8[i]] << (i * 2);
+                }
+                patterns[p] = (char) code;
+            }
+        }
+
+        long[] keys = Zobrist.keys(boardSize);
+        this.zobrist = new long[cellCount * 2];
+        for (int x = 0; x < boardSize; x++) {
+            for (int y = 0; y < boardSize; y++) {
+                int p = board.index(x, y);
+                int k = (x * boardSize + y) * 2;
+                zobrist[p * 2] = keys[k];
+                zobrist[p * 2 + 1] = keys[k + 1];
+            }
+        }
+    }
+
+    /**
+     * Nạp trạng thái bàn cờ có sẵn (dùng khi resume), không xử lý bắt quân.
+     */
+    void load(int[][] board, int[][] prevBoard) {
+        for (int x = 0; x < boardSize; x++) {
+            for (int y = 0; y < boardSize; y++) {
+                if (board[x][y] != 0) {
+                    addStone(this.board.index(x, y), board[x][y]);
+                }
+            }
+        }
+        loadKo(board, prevBoard);
+    }
+
+    /**
+     * Xóa mọi quân (giữ buffer) để load() lại một thế cờ khác.
+     */
+    void clear() {
+        for (int x = 0; x < boardSize; x++) {
+            for (int y = 0; y < boardSize; y++) {
+                int p = board.index(x, y);
+                if (cells[p] != PaddedBoard.EMPTY) {
+                    setCell(p, PaddedBoard.EMPTY);
+                }
+            }
+        }
+        hash = 0L;
+        koPoint = -1;
+        koColor = 0;
+    }
+
+    /**
+     * Tính lại điểm Ko từ bàn cờ hiện tại và bàn cờ trước đó (null = không có Ko).
+     */
+    void loadKo(int[][] board, int[][] prevBoard) {
+        koPoint = -1;
+        koColor = 0;
+        if (prevBoard != null) {
+            deriveKo(board, prevBoard);
+        }
+    }
+
+    PaddedBoard getBoard() {
+        return board;
+    }
+
+    int get(int p) {
+        return cells[p];
+    }
+
+    /**
+     * Hash Zobrist của trạng thái hiện tại.
+     */
+    long getHash() {
+        return hash;
+    }
+
+    int getCapturedCount() {
+        return capturedCount;
+    }
+
+    /**
+     * Vị trí quân thứ i bị bắt trong nước đi gần nhất.
+     */
+    int getCaptured(int i) {
+        return captured[i];
+    }
+
+    int getKoPoint() {
+        return koPoint;
+    }
+
+    int getKoColor() {
+        return koColor;
+    }
+
+    /**
+     * Đặt lại trạng thái Ko (dùng khi undo/redo).
+     */
+    void setKo(int point, int c) {
+        koPoint = point;
+        koColor = c;
+    }
+
+    /**
+     * Đặt lại một quân lên bàn mà không xử lý bắt quân (dùng khi undo để trả lại quân bị bắt).
+     */
+    void restoreStone(int p, int c) {
+        addStone(p, c);
+    }
+
+    /**
+     * Gỡ một quân khỏi bàn (dùng khi undo nước đặt quân).
+     * Nhóm chứa quân có thể bị tách ra, nên các quân còn lại của nhóm được
+     * nhóm lại và tính lại liberties; chi phí theo kích thước nhóm đó.
+     * Quân "lá" (chỉ kề 1 quân cùng màu, không phải gốc) không làm tách nhóm nên được gỡ
+     * nhanh, trường hợp thường gặp khi undo nước kéo dài nhóm (đọc thang, playout).
+     */
+    void removeStone(int p) {
+        int c = cells[p];
+        int root = find(p);
+        if (root != p && removeLeaf(p, c, root)) {
+            return;
+        }
+        int count = 0;
+        int s = root;
+        do {
+            if (s != p) {
+                groupBuf[count++] = s;
+            }
+            s = next[s];
+        } while (s != root);
+
+        hash ^= zobrist[p * 2 + c - 1];
+        setCell(p, PaddedBoard.EMPTY);
+
+        // Tách: mỗi quân thành nhóm riêng rồi nối lại với láng giềng cùng màu
+        for (int i = 0; i < count; i++) {
+            int q = groupBuf[i];
+            parent[q] = q;
+            next[q] = q;
+            stones[q] = 1;
+            int lb = q * words;
+            for (int w = 0; w < words; w++) {
+                libs[lb + w] = 0L;
+            }
+        }
+        for (int i = 0; i < count; i++) {
+            int q = groupBuf[i];
+            for (int k = 0; k < 4; k++) {
+                int nq = q + offsets[k];
+                int nc = cells[nq];
+                if (nc == PaddedBoard.EMPTY) {
+                    setLib(find(q), nq);
+                } else if (nc == c) {
+                    union(find(q), find(nq));
+                }
+            }
+        }
+
+        // Ô vừa trống là liberty của mọi nhóm kề
+        for (int k = 0; k < 4; k++) {
+            int q = p + offsets[k];
+            int qc = cells[q];
+            if (qc == PaddedBoard.BLACK || qc == PaddedBoard.WHITE) {
+                setLib(find(q), p);
+            }
+        }
+    }
+
+    /**
+     * Gỡ quân p chỉ kề đúng 1 quân cùng màu: nhóm vẫn liền, chỉ cần tháo p khỏi danh sách vòng
+     * và bỏ các liberty chỉ do p mang lại.
+     *
+     * @return false nếu p không phải lá (không thay đổi gì), để removeStone() nhóm lại cả nhóm
+     */
+    private boolean removeLeaf(int p, int c, int root) {
+        int friends = 0;
+        for (int k = 0; k < 4; k++) {
+            if (cells[p + offsets[k]] == c) {
+                friends++;
+            }
+        }
+        if (friends != 1) {
+            return false;
+        }
+        // Không quân nào được trỏ tới p trong union-find; tìm quân đứng trước p trong danh sách vòng
+        int pred = p;
+        for (int s = next[p]; s != p; s = next[s]) {
+            if (parent[s] == p) {
+                return false;
+            }
+            if (next[s] == p) {
+                pred = s;
+            }
+        }
+
+        hash ^= zobrist[p * 2 + c - 1];
+        setCell(p, PaddedBoard.EMPTY);
+        next[pred] = next[p];
+        next[p] = p;
+        parent[p] = p;
+        stones[root]--;
+        for (int k = 0; k < 4; k++) {
+            int q = p + offsets[k];
+            if (cells[q] == PaddedBoard.EMPTY && !touchesGroup(q, c, root)) {
+                clearLib(root, q);
+            }
+        }
+        // Ô vừa trống là liberty của mọi nhóm kề
+        for (int k = 0; k < 4; k++) {
+            int q = p + offsets[k];
+            int qc = cells[q];
+            if (qc == PaddedBoard.BLACK || qc == PaddedBoard.WHITE) {
+                setLib(find(q), p);
+            }
+        }
+        return true;
+    }
+
+    private boolean touchesGroup(int q, int c, int root) {
+        for (int k = 0; k < 4; k++) {
+            int r = q + offsets[k];
+            if (cells[r] == c && find(r) == root) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 16 bit màu của mẫu 3x3 quanh ô p (định dạng PatternTable), được cập nhật tăng dần.
+     */
+    int colorPattern(int p) {
+        return patterns[p];
+    }
+
+    /**
+     * Như colorPattern() kèm 4 bit atari của láng giềng trực giao (đọc từ số liberties của nhóm).
+     */
+    int pattern(int p) {
+        int code = patterns[p];
+        for (int k = 0; k < 4; k++) {
+            int q = p + offsets8[PatternTable.ORTHOGONAL[k]];
+            int qc = cells[q];
+            if ((qc == PaddedBoard.BLACK || qc == PaddedBoard.WHITE) && libCount(find(q)) == 1) {
+                code |= 1 << (PatternTable.COLOR_BITS + k);
+            }
+        }
+        return code;
+    }
+
+    /**
+     * Số liberties của nhóm chứa ô p (0 nếu ô trống).
+     */
+    int liberties(int p) {
+        if (cells[p] == PaddedBoard.EMPTY) {
+            return 0;
+        }
+        return libCount(find(p));
+    }
+
+    /**
+     * Ghi tối đa out.length liberties (chỉ số padded) của nhóm chứa quân p vào out.
+     *
+     * @return số liberties đã ghi
+     */
+    int libertyPoints(int p, int[] out) {
+        int lb = find(p) * words;
+        int count = 0;
+        for (int w = 0; w < words && count < out.length; w++) {
+            long bits = libs[lb + w];
+            while (bits != 0 && count < out.length) {
+                out[count++] = (w << 6) + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Nhóm chứa quân p kề một nhóm đối phương chỉ còn 1 liberty (có thể bắt ngay).
+     * Chi phí theo kích thước nhóm.
+     */
+    boolean touchesGroupInAtari(int p) {
+        int c = cells[p];
+        int opp = c == 1 ? 2 : 1;
+        int root = find(p);
+        int s = root;
+        do {
+            for (int k = 0; k < 4; k++) {
+                int q = s + offsets[k];
+                if (cells[q] == opp && libCount(find(q)) == 1) {
+                    return true;
+                }
+            }
+            s = next[s];
+        } while (s != root);
+        return false;
+    }
+
+    /**
+     * Đặt quân màu color tại ô p theo luật cờ vây.
+     *
+     * @param history lịch sử hash để kiểm tra positional superko (null = chỉ Ko đơn)
+     * @return OK nếu đã áp dụng, hoặc OCCUPIED / SUICIDE / KO / SUPERKO nếu không hợp lệ
+     */
+    int play(int p, int c, boolean enforceKoAndSuicide, LongHashSet history) {
+        if (cells[p] != PaddedBoard.EMPTY) {
+            return OCCUPIED;
+        }
+        int opp = c == 1 ? 2 : 1;
+        int captureCount = scan(p, c);
+        if (enforceKoAndSuicide) {
+            int violation = violation(p, c, captureCount, history);
+            if (violation != OK) {
+                return violation;
+            }
+        }
+
+        capturedCount = 0;
+        addStone(p, c);
+        for (int i = 0; i < captureCount; i++) {
+            removeGroup(captureRoots[i]);
+        }
+
+        // Ko chỉ xảy ra khi bắt đúng 1 quân bằng một quân đơn còn đúng 1 liberty
+        int root = find(p);
+        if (capturedCount == 1 && stones[root] == 1 && libCount(root) == 1) {
+            koPoint = captured[0];
+            koColor = opp;
+        } else {
+            koPoint = -1;
+            koColor = 0;
+        }
+        return OK;
+    }
+
+    /**
+     * Ghi các nước hợp lệ của màu c vào bitset out (bit x * boardSize + y).
+     * Chỉ đọc số liberties của các nhóm kề mỗi ô trống, không thử đặt quân.
+     *
+     * @param history lịch sử hash để kiểm tra positional superko (null = chỉ Ko đơn)
+     */
+    void legalMoves(int c, LongHashSet history, long[] out) {
+        Arrays.fill(out, 0L);
+        int stride = board.getStride();
+        for (int x = 0; x < boardSize; x++) {
+            int row = (x + 1) * stride + 1;
+            for (int y = 0; y < boardSize; y++) {
+                int p = row + y;
+                if (cells[p] == PaddedBoard.EMPTY && violation(p, c, scan(p, c), history) == OK) {
+                    int i = x * boardSize + y;
+                    out[i >>> 6] |= 1L << i;
+                }
+            }
+        }
+    }
+
+    /**
+     * Xét các nhóm kề ô trống p khi màu c đặt quân tại đó: ghi các nhóm đối thủ sẽ bị bắt
+     * vào captureRoots, cập nhật captureStones và selfHasLiberty.
+     *
+     * @return số nhóm bị bắt
+     */
+    private int scan(int p, int c) {
+        int opp = c == 1 ? 2 : 1;
+        int adjCount = 0;
+        int captureCount = 0;
+        captureStones = 0;
+        selfHasLiberty = false;
+        for (int i = 0; i < 4; i++) {
+            int q = p + offsets[i];
+            int qc = cells[q];
+            if (qc == PaddedBoard.EMPTY) {
+                selfHasLiberty = true;
+                continue;
+            }
+            if (qc == PaddedBoard.BORDER) {
+                continue;
+            }
+            int r = find(q);
+            if (contains(adjRoots, adjCount, r)) {
+                continue;
+            }
+            adjRoots[adjCount++] = r;
+            int count = libCount(r);
+            if (qc == opp) {
+                if (count == 0 || (count == 1 && hasLib(r, p))) {
+                    captureRoots[captureCount++] = r;
+                    captureStones += stones[r];
+                }
+            } else if (count > 1 || (count == 1 && !hasLib(r, p))) {
+                selfHasLiberty = true;
+            }
+        }
+        return captureCount;
+    }
+
+    /**
+     * Kiểm tra luật tự tử / Ko / superko cho nước vừa scan().
+     *
+     * @return OK hoặc SUICIDE / KO / SUPERKO
+     */
+    private int violation(int p, int c, int captureCount, LongHashSet history) {
+        if (captureCount == 0 && !selfHasLiberty) {
+            return SUICIDE;
+        }
+        if (p == koPoint && c == koColor && captureStones == 1) {
+            return KO;
+        }
+        if (history != null && history.contains(hashAfter(p, c, captureCount))) {
+            return SUPERKO;
+        }
+        return OK;
+    }
+
+    /**
+     * Hash của bàn cờ nếu đặt quân tại p và bắt các nhóm trong captureRoots.
+     */
+    private long hashAfter(int p, int c, int captureCount) {
+        long h = hash ^ zobrist[p * 2 + c - 1];
+        for (int i = 0; i < captureCount; i++) {
+            int root = captureRoots[i];
+            int s = root;
+            do {
+                h ^= zobrist[s * 2 + cells[s] - 1];
+                s = next[s];
+            } while (s != root);
+        }
+        return h;
+    }
+
+    // ==================== NHÓM & LIBERTIES ====================
+
+    private void addStone(int p, int c) {
+        setCell(p, c);
+        hash ^= zobrist[p * 2 + c - 1];
+        parent[p] = p;
+        next[p] = p;
+        stones[p] = 1;
+        int lb = p * words;
+        for (int w = 0; w < words; w++) {
+            libs[lb + w] = 0L;
+        }
+
+        for (int i = 0; i < 4; i++) {
+            int q = p + offsets[i];
+            int qc = cells[q];
+            if (qc == PaddedBoard.EMPTY) {
+                setLib(find(p), q);
+                continue;
+            }
+            if (qc == PaddedBoard.BORDER) {
+                continue;
+            }
+            int r = find(q);
+            clearLib(r, p);
+            if (qc == c) {
+                union(find(p), r);
+            }
+        }
+    }
+
+    private void removeGroup(int root) {
+        int start = capturedCount;
+        int s = root;
+        do {
+            captured[capturedCount++] = s;
+            s = next[s];
+        } while (s != root);
+
+        for (int i = start; i < capturedCount; i++) {
+            int cp = captured[i];
+            hash ^= zobrist[cp * 2 + cells[cp] - 1];
+            setCell(cp, PaddedBoard.EMPTY);
+        }
+        // Các nhóm kề quân bị bắt được thêm liberty tại vị trí đó
+        for (int i = start; i < capturedCount; i++) {
+            int cp = captured[i];
+            for (int k = 0; k < 4; k++) {
+                int q = cp + offsets[k];
+                int qc = cells[q];
+                if (qc == PaddedBoard.BLACK || qc == PaddedBoard.WHITE) {
+                    setLib(find(q), cp);
+                }
+            }
+        }
+    }
+
+    /**
+     * Đổi màu ô p và sửa slot tương ứng trong mã mẫu của 8 ô xung quanh
+     * (ô ở slot i của p thấy p ở slot 7 - i).
+     */
+    private void setCell(int p, int c) {
+        cells[p] = (byte) c;
+        for (int i = 0; i < 8; i++) {
+            int q = p + offsets8[i];
+            int shift = (7 - i) * 2;
+            patterns[q] = (char) ((patterns[q] & ~(3 << shift)) | (c << shift));
+        }
+    }
+
+    private int find(int p) {
+        while (parent[p] != p) {
+            parent[p] = parent[parent[p]];
+            p = parent[p];
+        }
+        return p;
+    }
+
+    private void union(int a, int b) {
+        if (a == b) {
+            return;
+        }
+        if (stones[a] < stones[b]) {
+            int t = a;
+            a = b;
+            b = t;
+        }
+        parent[b] = a;
+        stones[a] += stones[b];
+        // Nối hai danh sách vòng
+        int t = next[a];
+        next[a] = next[b];
+        next[b] = t;
+        int la = a * words;
+        int lb = b * words;
+        for (int w = 0; w < words; w++) {
+            libs[la + w] |= libs[lb + w];
+        }
+    }
+
+    private int libCount(int root) {
+        int lb = root * words;
+        int count = 0;
+        for (int w = 0; w < words; w++) {
+            count += Long.bitCount(libs[lb + w]);
+        }
+        return count;
+    }
+
+    private boolean hasLib(int root, int p) {
+        return (libs[root * words + (p >>> 6)] & (1L << p)) != 0;
+    }
+
+    private void setLib(int root, int p) {
+        libs[root * words + (p >>> 6)] |= 1L << p;
+    }
+
+    private void clearLib(int root, int p) {
+        libs[root * words + (p >>> 6)] &= ~(1L << p);
+    }
+
+    private static boolean contains(int[] arr, int len, int v) {
+        for (int i = 0; i < len; i++) {
+            if (arr[i] == v) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Suy ra ô Ko từ bàn cờ hiện tại và bàn cờ trước đó (khi resume).
+     * Ko tồn tại khi nước cuối đặt 1 quân đơn, bắt đúng 1 quân và chỉ còn 1 liberty.
+     */
+    private void deriveKo(int[][] board, int[][] prevBoard) {
+        int placed = -1;
+        int removed = -1;
+        for (int x = 0; x < boardSize; x++) {
+            for (int y = 0; y < boardSize; y++) {
+                if (board[x][y] == prevBoard[x][y]) {
+                    continue;
+                }
+                int p = this.board.index(x, y);
+                if (prevBoard[x][y] == 0 && placed < 0) {
+                    placed = p;
+                } else if (board[x][y] == 0 && removed < 0) {
+                    removed = p;
+                } else {
+                    return;
+                }
+            }
+        }
+        if (placed < 0 || removed < 0) {
+            return;
+        }
+        int root = find(placed);
+        if (stones[root] == 1 && libCount(root) == 1 && hasLib(root, removed)) {
+            koPoint = removed;
+            koColor = cells[placed] == 1 ? 2 : 1;
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package org.example.dacs4_v2.game;
+
+import java.util.Arrays;
+
+/**
+ * Tập long dùng open addressing (linear probing), không boxing.
+ * Dùng để lưu lịch sử hash bàn cờ cho luật Ko / superko.
+ * Giá trị 0 được lưu riêng vì 0 đánh dấu ô trống trong bảng.
+ */
+final class LongHashSet {
+
+    private long[] table;
+    private int mask;
+    private int size;
+    private boolean hasZero;
+
+    LongHashSet(int expectedSize) {
+        int capacity = 16;
+        while (capacity < expectedSize * 2) {
+            capacity <<= 1;
+        }
+        table = new long[capacity];
+        mask = capacity - 1;
+    }
+
+    int size() {
+        return size + (hasZero ? 1 : 0);
+    }
+
+    boolean contains(long key) {
+        if (key == 0L) {
+            return hasZero;
+        }
+        int i = slot(key);
+        while (true) {
+            long k = table[i];
+            if (k == 0L) {
+                return false;
+            }
+            if (k == key) {
+                return true;
+            }
+            i = (i + 1) & mask;
+        }
+    }
+
+    /**
+     * Thêm key vào tập.
+     *
+     * @return true nếu key chưa có trước đó
+     */
+    boolean add(long key) {
+        if (key == 0L) {
+            boolean added = !hasZero;
+            hasZero = true;
+            return added;
+        }
+        int i = slot(key);
+        while (true) {
+            long k = table[i];
+            if (k == 0L) {
+                table[i] = key;
+                if (++size * 2 > table.length) {
+                    grow();
+                }
+                return true;
+            }
+            if (k == key) {
+                return false;
+            }
+            i = (i + 1) & mask;
+        }
+    }
+
+    /**
+     * Xóa key khỏi tập (dời các phần tử phía sau về để không làm gãy chuỗi probe).
+     *
+     * @return true nếu key có trong tập
+     */
+    boolean remove(long key) {
+        if (key == 0L) {
+            boolean removed = hasZero;
+            hasZero = false;
+            return removed;
+        }
+        int i = slot(key);
+        while (true) {
+            long k = table[i];
+            if (k == 0L) {
+                return false;
+            }
+            if (k == key) {
+                break;
+            }
+            i = (i + 1) & mask;
+        }
+        // Backward-shift deletion
+        int hole = i;
+        int j = (i + 1) & mask;
+        while (table[j] != 0L) {
+            int home = slot(table[j]);
+            // Phần tử tại j có thể dời về hole nếu home không nằm trong khoảng (hole, j]
+            if (((j - home) & mask) >= ((j - hole) & mask)) {
+                table[hole] = table[j];
+                hole = j;
+            }
+            j = (j + 1) & mask;
+        }
+        table[hole] = 0L;
+        size--;
+        return true;
+    }
+
+    void clear() {
+        Arrays.fill(table, 0L);
+        size = 0;
+        hasZero = false;
+    }
+
+    private void grow() {
+        long[] old = table;
+        table = new long[old.length << 1];
+        mask = table.length - 1;
+        size = 0;
+        for (long k : old) {
+            if (k != 0L) {
+                add(k);
+            }
+        }
+    }
+
+    private int slot(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+}
@@ -0,0 +1,367 @@
+package org.example.dacs4_v2.game;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tìm nước đi bằng MCTS (UCT) thuần Java, chạy song song trên ForkJoinPool dùng chung.
+ *
+ * - Thống kê của node (visits, wins) cập nhật bằng CAS, không khóa.
+ * - Virtual loss: khi một luồng đi xuống node, visits được cộng trước VIRTUAL_LOSS lượt thua
+ *   để các luồng khác tránh đi cùng nhánh; khi backprop thì trả lại.
+ * - Giữ lại cây giữa các nước: nếu nước đối thủ vừa đi có trong cây, node đó thành gốc mới.
+ *
+ * Lá được đánh giá bằng playout ngẫu nhiên của MonteCarloEngine rồi đếm điểm bằng AreaScorer.
+ * Một instance giữ cây của một ván; không gọi selectMove đồng thời từ nhiều luồng.
+ */
+public final class MctsEngine {
+
+    private static final int VIRTUAL_LOSS = 3;
+    private static final double EXPLORATION = 0.8;
+    private static final int EXPAND_VISITS = 2; // số lượt thăm trước khi mở rộng node (trừ gốc)
+    private static final int MAX_NODES = 1_000_000;
+
+    // Ngân sách thời gian mỗi nước
+    private static final long MIN_BUDGET_MS = 50;
+    private static final int MIN_MOVES_LEFT = 15;
+
+    private static final ForkJoinPool POOL = new ForkJoinPool(Runtime.getRuntime().availableProcessors(), pool -> {
+        ForkJoinWorkerThread t = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+        t.setName("mcts-worker-" + t.getPoolIndex());
+        t.setDaemon(true);
+        return t;
+    }, null, false);
+
+    private final int maxPlayouts;
+
+    // Nước đã chọn ở lần tìm trước (để tìm lại gốc mới trong cây)
+    private Node lastChosen;
+    private int lastBoardSize;
+
+    // Thống kê của lần tìm nước gần nhất
+    private volatile long lastPlayouts;
+    private volatile long lastElapsedNanos;
+    private volatile int lastReusedVisits;
+
+    /**
+     * @param maxPlayouts số playout tối đa cho mỗi nước
+     */
+    public MctsEngine(int maxPlayouts) {
+        this.maxPlayouts = maxPlayouts;
+    }
+
+    /**
+     * Thời gian suy nghĩ cho nước tiếp theo dựa trên thời gian còn lại trên đồng hồ:
+     * chia đều cho số nước ước tính còn phải đi, không vượt quá defaultMs.
+     *
+     * @param timeRemainingMs thời gian còn lại của AI (<= 0 nếu không tính giờ)
+     * @param boardSize       kích thước bàn cờ
+     * @param movesPlayed     số nước đã đi trong ván
+     * @param defaultMs       thời gian mặc định khi không tính giờ
+     */
+    public static long budgetFor(long timeRemainingMs, int boardSize, int movesPlayed, long defaultMs) {
+        if (timeRemainingMs <= 0) {
+            return defaultMs;
+        }
+        int movesLeft = Math.max(MIN_MOVES_LEFT, (boardSize * boardSize * 3 / 4 - movesPlayed) / 2);
+        long budget = timeRemainingMs / movesLeft;
+        return Math.max(Math.min(MIN_BUDGET_MS, timeRemainingMs / 2), Math.min(budget, defaultMs));
+    }
+
+    /**
+     * Chọn nước đi cho màu color ở thế cờ hiện tại của logic (logic không bị thay đổi).
+     *
+     * @param logic        thế cờ hiện tại
+     * @param color        màu cần đi (1=đen, 2=trắng)
+     * @param komi         komi cộng cho trắng
+     * @param timeBudgetMs thời gian tìm kiếm (ms)
+     * @return tọa độ [x, y], hoặc [-1, -1] nếu pass
+     */
+    public int[] selectMove(GoGameLogic logic, int color, double komi, long timeBudgetMs) {
+        long start = System.nanoTime();
+        int n = logic.getBoardSize();
+        int opp = color == 1 ? 2 : 1;
+
+        Node root = findReusableRoot(logic, opp, n);
+        lastReusedVisits = root != null ? root.visits : 0;
+        if (root == null) {
+            root = new Node(-1, opp);
+        }
+
+        Search search = new Search(root, logic.getBoard(), logic.getPrevBoard(), n, komi,
+                start + timeBudgetMs * 1_000_000L, maxPlayouts);
+        int workers = POOL.getParallelism();
+        RecursiveAction[] tasks = new RecursiveAction[workers];
+        for (int w = 0; w < workers; w++) {
+            tasks[w] = new SearchWorker(search, 0x9E3779B97F4A7C15L * (w + 1) ^ start);
+        }
+        POOL.invoke(new RecursiveAction() {
+            @Override
+            protected void compute() {
+                invokeAll(tasks);
+            }
+        });
+
+        // Chọn nước được thăm nhiều nhất
+        Node best = null;
+        Node[] children = root.children;
+        if (children != null) {
+            for (Node child : children) {
+                if (best == null || child.visits > best.visits) {
+                    best = child;
+                }
+            }
+        }
+        lastPlayouts = search.playouts.get();
+        lastElapsedNanos = System.nanoTime() - start;
+        lastChosen = best;
+        lastBoardSize = n;
+        if (best == null || best.visits == 0) {
+            lastChosen = null;
+            return new int[] { -1, -1 };
+        }
+        return new int[] { best.move / n, best.move % n };
+    }
+
+    /**
+     * Bỏ cây hiện tại (gọi khi bắt đầu ván mới).
+     */
+    public void reset() {
+        lastChosen = null;
+    }
+
+    public long getLastPlayouts() {
+        return lastPlayouts;
+    }
+
+    /**
+     * Tốc độ playout (playout/giây) của lần selectMove gần nhất.
+     */
+    public double getLastPlayoutsPerSecond() {
+        long elapsed = lastElapsedNanos;
+        return elapsed > 0 ? lastPlayouts * 1e9 / elapsed : 0;
+    }
+
+    /**
+     * Số lượt thăm của gốc được giữ lại từ lần tìm trước (0 nếu phải dựng cây mới).
+     */
+    public int getLastReusedVisits() {
+        return lastReusedVisits;
+    }
+
+    /**
+     * Tìm node ứng với thế cờ hiện tại trong các con của nước AI vừa chọn
+     * (tức nước đối thủ vừa đi), so bằng hash Zobrist.
+     */
+    private Node findReusableRoot(GoGameLogic logic, int opp, int n) {
+        Node chosen = lastChosen;
+        if (chosen == null || lastBoardSize != n) {
+            return null;
+        }
+        Node[] replies = chosen.children;
+        if (replies == null) {
+            return null;
+        }
+        long hash = logic.getHash();
+        for (Node reply : replies) {
+            if (reply.color == opp && reply.hasHash && reply.hash == hash) {
+                return reply;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Node của cây: trạng thái sau khi color đi nước move.
+     */
+    private static final class Node {
+
+        private static final AtomicIntegerFieldUpdater<Node> VISITS = AtomicIntegerFieldUpdater
+                .newUpdater(Node.class, "visits");
+        private static final AtomicIntegerFieldUpdater<Node> WINS = AtomicIntegerFieldUpdater
+                .newUpdater(Node.class, "wins");
+        private static final AtomicIntegerFieldUpdater<Node> EXPANDING = AtomicIntegerFieldUpdater
+                .newUpdater(Node.class, "expanding");
+
+        final int move; // chỉ số x * boardSize + y (-1 ở gốc)
+        final int color; // màu vừa đi nước move
+
+        volatile int visits;
+        volatile int wins; // số playout color thắng
+        volatile int expanding;
+        volatile Node[] children; // null = chưa mở rộng
+
+        // Hash Zobrist sau nước move, ghi lần đầu khi có luồng đi qua node
+        volatile long hash;
+        volatile boolean hasHash;
+
+        Node(int move, int color) {
+            this.move = move;
+            this.color = color;
+        }
+    }
+
+    /**
+     * Trạng thái dùng chung của một lần tìm nước.
+     */
+    private static final class Search {
+
+        final Node root;
+        final int[][] board;
+        final int[][] prevBoard;
+        final int boardSize;
+        final double komi;
+        final long deadline;
+        final int maxPlayouts;
+
+        final AtomicLong tickets = new AtomicLong();
+        final AtomicLong playouts = new AtomicLong();
+        final AtomicInteger nodes = new AtomicInteger();
+
+        Search(Node root, int[][] board, int[][] prevBoard, int boardSize, double komi, long deadline,
+                int maxPlayouts) {
+            this.root = root;
+            this.board = board;
+            this.prevBoard = prevBoard;
+            this.boardSize = boardSize;
+            this.komi = komi;
+            this.deadline = deadline;
+            this.maxPlayouts = maxPlayouts;
+        }
+    }
+
+    /**
+     * Một luồng tìm kiếm: chọn - mở rộng - playout - backprop trên GoGameLogic riêng,
+     * sau mỗi lượt seek(0) về thế cờ gốc.
+     */
+    private static final class SearchWorker extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final transient Search search;
+        private final long seed;
+
+        SearchWorker(Search search, long seed) {
+            this.search = search;
+            this.seed = seed;
+        }
+
+        @Override
+        protected void compute() {
+            Search s = search;
+            int n = s.boardSize;
+            GoGameLogic sim = new GoGameLogic(n, s.board, s.prevBoard, EngineMode.INCREMENTAL);
+            AreaScorer scorer = new AreaScorer(n);
+            SplittableRandom random = new SplittableRandom(seed);
+            int maxMoves = n * n * 3;
+            Node[] path = new Node[maxMoves + 1];
+            int[] buffer = new int[n * n];
+
+            while (System.nanoTime() < s.deadline && s.tickets.getAndIncrement() < s.maxPlayouts) {
+                // Chọn: đi xuống theo UCT, cộng virtual loss trên đường đi
+                Node node = s.root;
+                Node.VISITS.addAndGet(node, VIRTUAL_LOSS);
+                path[0] = node;
+                int depth = 0;
+                while (depth < maxMoves) {
+                    Node[] children = node.children;
+                    if (children == null) {
+                        boolean ready = node == s.root || node.visits >= EXPAND_VISITS + VIRTUAL_LOSS;
+                        if (!ready || !expand(node, sim, random, buffer)) {
+                            break;
+                        }
+                        children = node.children;
+                    }
+                    if (children.length == 0) {
+                        break;
+                    }
+                    Node child = select(node, children);
+                    Node.VISITS.addAndGet(child, VIRTUAL_LOSS);
+                    path[++depth] = child;
+                    sim.applyMove(child.move / n, child.move % n, child.color, false);
+                    if (!child.hasHash) {
+                        child.hash = sim.getHash();
+                        child.hasHash = true;
+                    }
+                    node = child;
+                }
+
+                // Playout từ lá rồi backprop, trả lại virtual loss
+                MonteCarloEngine.playout(sim, node.color == 1 ? 2 : 1, random, maxMoves);
+                double margin = scorer.score(sim.getBoard(), s.komi, 0, 0, ScoringRule.AREA).getMargin();
+                int winner = margin > 0 ? 1 : 2;
+                for (int i = 0; i <= depth; i++) {
+                    Node p = path[i];
+                    Node.VISITS.addAndGet(p, 1 - VIRTUAL_LOSS);
+                    if (p.color == winner) {
+                        Node.WINS.incrementAndGet(p);
+                    }
+                    path[i] = null;
+                }
+                s.playouts.incrementAndGet();
+                sim.seek(0);
+            }
+        }
+
+        /**
+         * Mở rộng node bằng các nước hợp lệ (trừ tự lấp mắt và tự vào atari kéo theo quân mình)
+         * ở thế cờ hiện tại của sim.
+         * Chỉ một luồng mở rộng được mỗi node; luồng khác coi node là lá.
+         *
+         * @return true nếu node đã có children sau lời gọi
+         */
+        private boolean expand(Node node, GoGameLogic sim, SplittableRandom random, int[] buffer) {
+            if (search.nodes.get() >= MAX_NODES || !Node.EXPANDING.compareAndSet(node, 0, 1)) {
+                return false;
+            }
+            int n = search.boardSize;
+            int toMove = node.color == 1 ? 2 : 1;
+            long[] legal = sim.legalMoves(toMove);
+            int count = 0;
+            for (int i = 0; i < n * n; i++) {
+                if ((legal[i >>> 6] & (1L << i)) != 0 && !sim.isEyeLike(i / n, i % n, toMove)) {
+                    buffer[count++] = i;
+                }
+            }
+            count = Tactics.pruneBadSelfAtari(sim, buffer, count, toMove);
+            // Xáo thứ tự để các node chưa thăm được chọn ngẫu nhiên
+            Node[] children = new Node[count];
+            for (int i = 0; i < count; i++) {
+                int j = i + random.nextInt(count - i);
+                int tmp = buffer[i];
+                buffer[i] = buffer[j];
+                buffer[j] = tmp;
+                children[i] = new Node(buffer[i], toMove);
+            }
+            search.nodes.addAndGet(count);
+            node.children = children;
+            return true;
+        }
+
+        /**
+         * Chọn con theo UCT; con chưa được thăm được ưu tiên.
+         */
+        private static Node select(Node parent, Node[] children) {
+            double logParent = Math.log(Math.max(1, parent.visits));
+            Node best = children[0];
+            double bestValue = Double.NEGATIVE_INFINITY;
+            for (Node child : children) {
+                int visits = child.visits;
+                if (visits == 0) {
+                    return child;
+                }
+                double value = (double) child.wins / visits + EXPLORATION * Math.sqrt(logParent / visits);
+                if (value > bestValue) {
+                    bestValue = value;
+                    best = child;
+                }
+            }
+            return best;
+        }
+    }
+}
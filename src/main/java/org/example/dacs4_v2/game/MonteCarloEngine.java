@@ -0,0 +1,236 @@
+package org.example.dacs4_v2.game;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Engine AI Monte Carlo thuần Java, dùng khi không có KataGo.
+ * Với mỗi nước hợp lệ ở gốc, chạy nhiều ván ngẫu nhiên (playout) tới hết rồi đếm điểm
+ * bằng AreaScorer; chọn nước có tỉ lệ thắng cao nhất.
+ *
+ * Playout chạy song song trên ForkJoinPool dùng chung (một luồng mỗi core). Mỗi luồng
+ * có GoGameLogic riêng, đi nước bằng applyMove rồi seek(0) về thế cờ gốc, nên không
+ * cấp phát trong lúc chạy playout.
+ *
+ * Chính sách playout (light): chọn ngẫu nhiên một ô trống hợp lệ, không tự lấp mắt của mình
+ * (tra mẫu 3x3 qua PatternTable); pass khi không còn nước như vậy, dừng khi cả hai bên pass.
+ */
+public final class MonteCarloEngine {
+
+    private static final ForkJoinPool POOL = new ForkJoinPool(Runtime.getRuntime().availableProcessors(), pool -> {
+        ForkJoinWorkerThread t = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+        t.setName("mc-playout-" + t.getPoolIndex());
+        t.setDaemon(true);
+        return t;
+    }, null, false);
+
+    private final long timeBudgetMs;
+    private final int maxPlayouts;
+
+    // Thống kê của lần tìm nước gần nhất
+    private volatile long lastPlayouts;
+    private volatile long lastElapsedNanos;
+
+    /**
+     * @param timeBudgetMs thời gian suy nghĩ tối đa cho mỗi nước (ms)
+     * @param maxPlayouts  số playout tối đa cho mỗi nước
+     */
+    public MonteCarloEngine(long timeBudgetMs, int maxPlayouts) {
+        this.timeBudgetMs = timeBudgetMs;
+        this.maxPlayouts = maxPlayouts;
+    }
+
+    /**
+     * Chọn nước đi cho màu color ở thế cờ hiện tại của logic (logic không bị thay đổi).
+     *
+     * @param logic thế cờ hiện tại
+     * @param color màu cần đi (1=đen, 2=trắng)
+     * @param komi  komi cộng cho trắng
+     * @return tọa độ [x, y], hoặc [-1, -1] nếu pass
+     */
+    public int[] selectMove(GoGameLogic logic, int color, double komi) {
+        int n = logic.getBoardSize();
+        long start = System.nanoTime();
+
+        // Ứng viên: nước hợp lệ, trừ nước tự lấp mắt và nước tự vào atari kéo theo quân mình
+        long[] legal = logic.legalMoves(color);
+        int[] candidates = new int[n * n];
+        int count = 0;
+        for (int i = 0; i < n * n; i++) {
+            if ((legal[i >>> 6] & (1L << i)) != 0 && !logic.isEyeLike(i / n, i % n, color)) {
+                candidates[count++] = i;
+            }
+        }
+        count = Tactics.pruneBadSelfAtari(logic, candidates, count, color);
+        if (count == 0) {
+            lastPlayouts = 0;
+            lastElapsedNanos = System.nanoTime() - start;
+            return new int[] { -1, -1 };
+        }
+
+        Search search = new Search(logic.getBoard(), logic.getPrevBoard(), n, color, komi, candidates, count,
+                start + timeBudgetMs * 1_000_000L, maxPlayouts);
+        int workers = POOL.getParallelism();
+        RecursiveAction[] tasks = new RecursiveAction[workers];
+        for (int w = 0; w < workers; w++) {
+            tasks[w] = new PlayoutWorker(search, 0x9E3779B97F4A7C15L * (w + 1) ^ start);
+        }
+        POOL.invoke(new RecursiveAction() {
+            @Override
+            protected void compute() {
+                invokeAll(tasks);
+            }
+        });
+
+        // Nước có tỉ lệ thắng cao nhất (ít nhất 1 playout)
+        int best = -1;
+        double bestRate = -1;
+        for (int k = 0; k < count; k++) {
+            int visits = search.visits.get(k);
+            if (visits == 0) {
+                continue;
+            }
+            double rate = (double) search.wins.get(k) / visits;
+            if (rate > bestRate) {
+                bestRate = rate;
+                best = k;
+            }
+        }
+        lastPlayouts = search.playouts.get();
+        lastElapsedNanos = System.nanoTime() - start;
+        if (best < 0) {
+            best = 0;
+        }
+        int p = candidates[best];
+        return new int[] { p / n, p % n };
+    }
+
+    /**
+     * Số playout của lần selectMove gần nhất.
+     */
+    public long getLastPlayouts() {
+        return lastPlayouts;
+    }
+
+    /**
+     * Tốc độ playout (playout/giây) của lần selectMove gần nhất.
+     */
+    public double getLastPlayoutsPerSecond() {
+        long elapsed = lastElapsedNanos;
+        return elapsed > 0 ? lastPlayouts * 1e9 / elapsed : 0;
+    }
+
+    /**
+     * Đi ngẫu nhiên tới khi cả hai bên pass hoặc hết số nước tối đa.
+     */
+    static void playout(GoGameLogic sim, int toMove, SplittableRandom random, int maxMoves) {
+        int n = sim.getBoardSize();
+        int cells = n * n;
+        int passes = 0;
+        int color = toMove;
+        for (int m = 0; m < maxMoves && passes < 2; m++) {
+            boolean played = false;
+            int offset = random.nextInt(cells);
+            for (int i = 0; i < cells; i++) {
+                int p = offset + i;
+                if (p >= cells) {
+                    p -= cells;
+                }
+                int x = p / n;
+                int y = p % n;
+                if (sim.getCell(x, y) == 0 && !sim.isEyeLike(x, y, color) && sim.applyMove(x, y, color, true)) {
+                    played = true;
+                    break;
+                }
+            }
+            passes = played ? 0 : passes + 1;
+            color = color == 1 ? 2 : 1;
+        }
+    }
+
+    /**
+     * Trạng thái dùng chung của một lần tìm nước: thế cờ gốc và thống kê từng ứng viên.
+     */
+    private static final class Search {
+
+        final int[][] board;
+        final int[][] prevBoard;
+        final int boardSize;
+        final int color;
+        final double komi;
+        final int[] candidates;
+        final int count;
+        final long deadline;
+        final int maxPlayouts;
+
+        final AtomicIntegerArray visits;
+        final AtomicIntegerArray wins;
+        final AtomicLong tickets = new AtomicLong(); // lượt playout đã phát cho các luồng
+        final AtomicLong playouts = new AtomicLong(); // playout đã chạy xong
+
+        Search(int[][] board, int[][] prevBoard, int boardSize, int color, double komi, int[] candidates, int count,
+                long deadline, int maxPlayouts) {
+            this.board = board;
+            this.prevBoard = prevBoard;
+            this.boardSize = boardSize;
+            this.color = color;
+            this.komi = komi;
+            this.candidates = candidates;
+            this.count = count;
+            this.deadline = deadline;
+            this.maxPlayouts = maxPlayouts;
+            this.visits = new AtomicIntegerArray(count);
+            this.wins = new AtomicIntegerArray(count);
+        }
+    }
+
+    /**
+     * Một luồng playout: lần lượt lấy ứng viên theo vòng, chạy playout và ghi kết quả.
+     */
+    private static final class PlayoutWorker extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final transient Search search;
+        private final long seed;
+
+        PlayoutWorker(Search search, long seed) {
+            this.search = search;
+            this.seed = seed;
+        }
+
+        @Override
+        protected void compute() {
+            Search s = search;
+            int n = s.boardSize;
+            GoGameLogic sim = new GoGameLogic(n, s.board, s.prevBoard, EngineMode.INCREMENTAL);
+            AreaScorer scorer = new AreaScorer(n);
+            SplittableRandom random = new SplittableRandom(seed);
+            int maxMoves = n * n * 3;
+
+            while (System.nanoTime() < s.deadline) {
+                long ticket = s.tickets.getAndIncrement();
+                if (ticket >= s.maxPlayouts) {
+                    break;
+                }
+                int k = (int) (ticket % s.count);
+                int p = s.candidates[k];
+                if (sim.applyMove(p / n, p % n, s.color, true)) {
+                    playout(sim, s.color == 1 ? 2 : 1, random, maxMoves);
+                    double margin = scorer.score(sim.getBoard(), s.komi, 0, 0, ScoringRule.AREA).getMargin();
+                    boolean win = s.color == 1 ? margin > 0 : margin < 0;
+                    s.visits.incrementAndGet(k);
+                    if (win) {
+                        s.wins.incrementAndGet(k);
+                    }
+                    s.playouts.incrementAndGet();
+                    sim.seek(0);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package org.example.dacs4_v2.game;
+
+import java.util.Arrays;
+
+/**
+ * Nhật ký nước đi cho undo/redo: mỗi nước chỉ lưu ô đặt quân, các ô bị bắt
+ * và vài giá trị trạng thái (hash, Ko) trước nước đi, không lưu cả bàn cờ.
+ * Các nước sau cursor là phần có thể redo; ghi nước mới sẽ xóa phần này.
+ *
+ * Ô được đánh chỉ số p = x * boardSize + y.
+ */
+final class MoveJournal {
+
+    private int size;
+    private int cursor;
+
+    // Dữ liệu từng nước (mảng song song, mở rộng khi cần)
+    private int[] point;
+    private int[] color;
+    private int[] capStart; // vị trí bắt đầu trong capPool
+    private int[] capCount;
+    private long[] hashBefore;
+    private long[] prevHashBefore;
+    private boolean[] hasPrevBefore;
+    private int[] koPointBefore;
+    private int[] koColorBefore;
+    private boolean[] addedToHistory;
+
+    // Vị trí các quân bị bắt của mọi nước, nối liền nhau
+    private int[] capPool;
+
+    MoveJournal(int expectedMoves) {
+        int capacity = Math.max(16, expectedMoves);
+        point = new int[capacity];
+        color = new int[capacity];
+        capStart = new int[capacity];
+        capCount = new int[capacity];
+        hashBefore = new long[capacity];
+        prevHashBefore = new long[capacity];
+        hasPrevBefore = new boolean[capacity];
+        koPointBefore = new int[capacity];
+        koColorBefore = new int[capacity];
+        addedToHistory = new boolean[capacity];
+        capPool = new int[capacity];
+    }
+
+    /**
+     * Số nước đang được áp dụng trên bàn (vị trí hiện tại trong nhật ký).
+     */
+    int cursor() {
+        return cursor;
+    }
+
+    /**
+     * Tổng số nước đã ghi, kể cả các nước có thể redo.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Ghi một nước mới tại cursor, bỏ các nước redo phía sau.
+     */
+    void push(int p, int c, int[] captured, int count, long hashBeforeMove, long prevHash, boolean hasPrev,
+            int koPoint, int koColor, boolean added) {
+        size = cursor;
+        if (size == point.length) {
+            growMoves();
+        }
+        int start = size == 0 ? 0 : capStart[size - 1] + capCount[size - 1];
+        if (start + count > capPool.length) {
+            capPool = Arrays.copyOf(capPool, Math.max(capPool.length * 2, start + count));
+        }
+        System.arraycopy(captured, 0, capPool, start, count);
+
+        point[size] = p;
+        color[size] = c;
+        capStart[size] = start;
+        capCount[size] = count;
+        hashBefore[size] = hashBeforeMove;
+        prevHashBefore[size] = prevHash;
+        hasPrevBefore[size] = hasPrev;
+        koPointBefore[size] = koPoint;
+        koColorBefore[size] = koColor;
+        addedToHistory[size] = added;
+        size++;
+        cursor = size;
+    }
+
+    /**
+     * Bỏ toàn bộ nhật ký (giữ buffer).
+     */
+    void clear() {
+        size = 0;
+        cursor = 0;
+    }
+
+    /**
+     * Lùi cursor một nước (sau khi đã hoàn tác nước đó trên bàn).
+     */
+    void back() {
+        cursor--;
+    }
+
+    /**
+     * Tiến cursor một nước (sau khi đã áp dụng lại nước đó trên bàn).
+     */
+    void forward(boolean added) {
+        addedToHistory[cursor] = added;
+        cursor++;
+    }
+
+    int point(int i) {
+        return point[i];
+    }
+
+    int color(int i) {
+        return color[i];
+    }
+
+    int capturedCount(int i) {
+        return capCount[i];
+    }
+
+    int captured(int i, int k) {
+        return capPool[capStart[i] + k];
+    }
+
+    /**
+     * Chép vị trí các quân bị bắt của nước i vào dst.
+     */
+    void copyCaptured(int i, int[] dst) {
+        System.arraycopy(capPool, capStart[i], dst, 0, capCount[i]);
+    }
+
+    long hashBefore(int i) {
+        return hashBefore[i];
+    }
+
+    long prevHashBefore(int i) {
+        return prevHashBefore[i];
+    }
+
+    boolean hasPrevBefore(int i) {
+        return hasPrevBefore[i];
+    }
+
+    int koPointBefore(int i) {
+        return koPointBefore[i];
+    }
+
+    int koColorBefore(int i) {
+        return koColorBefore[i];
+    }
+
+    boolean addedToHistory(int i) {
+        return addedToHistory[i];
+    }
+
+    private void growMoves() {
+        int capacity = point.length * 2;
+        point = Arrays.copyOf(point, capacity);
+        color = Arrays.copyOf(color, capacity);
+        capStart = Arrays.copyOf(capStart, capacity);
+        capCount = Arrays.copyOf(capCount, capacity);
+        hashBefore = Arrays.copyOf(hashBefore, capacity);
+        prevHashBefore = Arrays.copyOf(prevHashBefore, capacity);
+        hasPrevBefore = Arrays.copyOf(hasPrevBefore, capacity);
+        koPointBefore = Arrays.copyOf(koPointBefore, capacity);
+        koColorBefore = Arrays.copyOf(koColorBefore, capacity);
+        addedToHistory = Arrays.copyOf(addedToHistory, capacity);
+    }
+}
@@ -0,0 +1,91 @@
+package org.example.dacs4_v2.game;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Sách khai cuộc nhỏ trong bộ nhớ: nhớ nước đã chọn cho các thế cờ đầu ván để lần sau gặp lại
+ * (kể cả dưới dạng xoay / lật) thì trả lời ngay, không phải tìm kiếm lại.
+ *
+ * Key là hash chuẩn của thế cờ (GoGameLogic.getCanonicalHash()) trộn với màu đi và komi;
+ * nước đi được lưu ở hệ tọa độ của thế chuẩn và đổi về bàn cờ hiện tại khi tra, nên 8 thế
+ * đối xứng dùng chung một mục.
+ *
+ * Không thread-safe.
+ */
+public final class OpeningBook {
+
+    public static final int DEFAULT_MAX_MOVES = 12;
+    public static final int DEFAULT_CAPACITY = 4096;
+
+    private final int maxMoves;
+    private final int capacity;
+    private final Map<Long, Integer> moves = new HashMap<>();
+    private int hits;
+
+    public OpeningBook() {
+        this(DEFAULT_MAX_MOVES, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param maxMoves chỉ nhớ / tra các thế cờ có ít hơn maxMoves nước trên bàn
+     * @param capacity số mục tối đa (đầy thì không nhớ thêm)
+     */
+    public OpeningBook(int maxMoves, int capacity) {
+        this.maxMoves = maxMoves;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Nước đã nhớ cho thế cờ hiện tại của logic, đổi về tọa độ của bàn cờ này.
+     *
+     * @return [x, y], hoặc null nếu chưa có (hoặc ô đó đã có quân)
+     */
+    public int[] lookup(GoGameLogic logic, int color, double komi) {
+        if (logic.getMoveIndex() >= maxMoves) {
+            return null;
+        }
+        Integer stored = moves.get(key(logic, color, komi));
+        if (stored == null) {
+            return null;
+        }
+        int n = logic.getBoardSize();
+        int back = Symmetry.inverse(logic.getCanonicalSymmetry());
+        int p = Symmetry.transform(back, stored / n, stored % n, n);
+        if (logic.getCell(p / n, p % n) != 0) {
+            return null;
+        }
+        hits++;
+        return new int[] { p / n, p % n };
+    }
+
+    /**
+     * Nhớ nước (x, y) của color cho thế cờ hiện tại của logic (gọi trước khi đi nước đó).
+     */
+    public void record(GoGameLogic logic, int color, double komi, int x, int y) {
+        if (logic.getMoveIndex() >= maxMoves || x < 0 || y < 0) {
+            return;
+        }
+        Long key = key(logic, color, komi);
+        if (moves.size() >= capacity && !moves.containsKey(key)) {
+            return;
+        }
+        moves.put(key, Symmetry.transform(logic.getCanonicalSymmetry(), x, y, logic.getBoardSize()));
+    }
+
+    public int size() {
+        return moves.size();
+    }
+
+    /**
+     * Số lần lookup() tìm thấy nước.
+     */
+    public int getHits() {
+        return hits;
+    }
+
+    private static long key(GoGameLogic logic, int color, double komi) {
+        long key = logic.getCanonicalHash() ^ (color * 0x9E3779B97F4A7C15L);
+        return key ^ Double.doubleToLongBits(komi) * 0xC2B2AE3D27D4EB4FL;
+    }
+}
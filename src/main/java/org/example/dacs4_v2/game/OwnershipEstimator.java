@@ -0,0 +1,222 @@
+package org.example.dacs4_v2.game;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Ước lượng ai sở hữu từng ô bằng cách chạy nhiều playout ngẫu nhiên từ thế cờ cuối, dùng
+ * khi không có KataGo để đánh dấu quân chết. Chuỗi quân có trung bình các ô thuộc về đối
+ * phương trong hơn deadThreshold số playout được coi là chết.
+ *
+ * Playout dùng chung chính sách với MonteCarloEngine và chạy song song trên một ForkJoinPool
+ * dùng chung; mỗi luồng đếm vào mảng riêng rồi gộp lại khi xong, nên không tranh chấp.
+ */
+public final class OwnershipEstimator {
+
+    public static final int DEFAULT_PLAYOUTS = 400;
+    public static final double DEFAULT_DEAD_THRESHOLD = 0.7;
+
+    private static final int[] DX = { 1, -1, 0, 0 };
+    private static final int[] DY = { 0, 0, 1, -1 };
+
+    private static final ForkJoinPool POOL = new ForkJoinPool(Runtime.getRuntime().availableProcessors(), pool -> {
+        ForkJoinWorkerThread t = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+        t.setName("ownership-" + t.getPoolIndex());
+        t.setDaemon(true);
+        return t;
+    }, null, false);
+
+    private final int playouts;
+    private final int threads;
+    private final double deadThreshold;
+
+    /**
+     * Ước lượng với tham số mặc định, dùng mọi core.
+     */
+    public OwnershipEstimator() {
+        this(DEFAULT_PLAYOUTS, Runtime.getRuntime().availableProcessors(), DEFAULT_DEAD_THRESHOLD);
+    }
+
+    /**
+     * @param playouts      số playout mỗi lần ước lượng
+     * @param threads       số luồng chạy song song (tối đa bằng số core)
+     * @param deadThreshold tỉ lệ playout tối thiểu mà chuỗi thuộc về đối phương để coi là chết (0.5 - 1)
+     */
+    public OwnershipEstimator(int playouts, int threads, double deadThreshold) {
+        this.playouts = Math.max(1, playouts);
+        this.threads = Math.max(1, Math.min(threads, POOL.getParallelism()));
+        this.deadThreshold = deadThreshold;
+    }
+
+    /**
+     * Ước lượng ownership cho thế cờ cuối.
+     *
+     * @param board  bàn cờ board[x][y] (0=trống, 1=đen, 2=trắng)
+     * @param toMove màu đi tiếp (playout xen kẽ màu đi trước để không thiên vị bên nào)
+     * @return bản đồ ownership và quân chết
+     */
+    public OwnershipMap estimate(int[][] board, int toMove) {
+        long start = System.nanoTime();
+        int n = board.length;
+        int cells = n * n;
+
+        AtomicInteger tickets = new AtomicInteger();
+        Worker[] workers = new Worker[threads];
+        for (int w = 0; w < threads; w++) {
+            workers[w] = new Worker(board, toMove, playouts, tickets, 0x9E3779B97F4A7C15L * (w + 1) ^ start);
+        }
+        POOL.invoke(new RecursiveAction() {
+            @Override
+            protected void compute() {
+                invokeAll(workers);
+            }
+        });
+
+        int[] black = new int[cells];
+        int[] white = new int[cells];
+        int done = 0;
+        for (Worker w : workers) {
+            done += w.done;
+            for (int p = 0; p < cells; p++) {
+                black[p] += w.black[p];
+                white[p] += w.white[p];
+            }
+        }
+        float[] ownership = new float[cells];
+        for (int p = 0; p < cells; p++) {
+            ownership[p] = done > 0 ? (float) (black[p] - white[p]) / done : 0f;
+        }
+        long[] dead = deadChains(board, black, white, done);
+        return new OwnershipMap(n, ownership, dead, done, System.nanoTime() - start);
+    }
+
+    /**
+     * Đánh dấu chuỗi có tỉ lệ trung bình thuộc về đối phương vượt deadThreshold.
+     */
+    private long[] deadChains(int[][] board, int[] black, int[] white, int done) {
+        int n = board.length;
+        int cells = n * n;
+        long[] dead = new long[(cells + 63) >>> 6];
+        if (done == 0) {
+            return dead;
+        }
+        boolean[] visited = new boolean[cells];
+        int[] chain = new int[cells];
+        for (int start = 0; start < cells; start++) {
+            int color = board[start / n][start % n];
+            if (color == 0 || visited[start]) {
+                continue;
+            }
+            int size = 0;
+            int head = 0;
+            long opponentOwned = 0;
+            chain[size++] = start;
+            visited[start] = true;
+            while (head < size) {
+                int p = chain[head++];
+                opponentOwned += color == 1 ? white[p] : black[p];
+                int x = p / n;
+                int y = p % n;
+                for (int d = 0; d < 4; d++) {
+                    int nx = x + DX[d];
+                    int ny = y + DY[d];
+                    if (nx < 0 || nx >= n || ny < 0 || ny >= n) {
+                        continue;
+                    }
+                    int q = nx * n + ny;
+                    if (!visited[q] && board[nx][ny] == color) {
+                        visited[q] = true;
+                        chain[size++] = q;
+                    }
+                }
+            }
+            if ((double) opponentOwned / ((long) size * done) > deadThreshold) {
+                for (int i = 0; i < size; i++) {
+                    int p = chain[i];
+                    dead[p >>> 6] |= 1L << p;
+                }
+            }
+        }
+        return dead;
+    }
+
+    /**
+     * Một luồng: lấy lượt playout từ bộ đếm chung, chạy playout rồi ghi màu sở hữu từng ô.
+     */
+    private static final class Worker extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int[][] board;
+        private final int toMove;
+        private final int playouts;
+        private final AtomicInteger tickets;
+        private final long seed;
+
+        final int[] black;
+        final int[] white;
+        int done;
+
+        Worker(int[][] board, int toMove, int playouts, AtomicInteger tickets, long seed) {
+            int cells = board.length * board.length;
+            this.board = board;
+            this.toMove = toMove;
+            this.playouts = playouts;
+            this.tickets = tickets;
+            this.seed = seed;
+            this.black = new int[cells];
+            this.white = new int[cells];
+        }
+
+        @Override
+        protected void compute() {
+            int n = board.length;
+            GoGameLogic sim = new GoGameLogic(n, board, null, EngineMode.INCREMENTAL);
+            SplittableRandom random = new SplittableRandom(seed);
+            int maxMoves = n * n * 3;
+            int other = toMove == 1 ? 2 : 1;
+
+            int ticket;
+            while ((ticket = tickets.getAndIncrement()) < playouts) {
+                MonteCarloEngine.playout(sim, (ticket & 1) == 0 ? toMove : other, random, maxMoves);
+                for (int x = 0; x < n; x++) {
+                    for (int y = 0; y < n; y++) {
+                        int owner = ownerAfterPlayout(sim, x, y);
+                        if (owner == 1) {
+                            black[x * n + y]++;
+                        } else if (owner == 2) {
+                            white[x * n + y]++;
+                        }
+                    }
+                }
+                done++;
+                sim.seek(0);
+            }
+        }
+
+        /**
+         * Sau playout bàn gần như kín: ô trống thuộc màu nếu mọi láng giềng cùng màu đó.
+         */
+        private static int ownerAfterPlayout(GoGameLogic sim, int x, int y) {
+            int v = sim.getCell(x, y);
+            if (v != 0) {
+                return v;
+            }
+            int owner = 0;
+            for (int d = 0; d < 4; d++) {
+                int c = sim.getCell(x + DX[d], y + DY[d]);
+                if (c == -1) {
+                    continue;
+                }
+                if (c == 0 || (owner != 0 && c != owner)) {
+                    return 0;
+                }
+                owner = c;
+            }
+            return owner;
+        }
+    }
+}
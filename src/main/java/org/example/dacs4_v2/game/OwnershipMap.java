@@ -0,0 +1,60 @@
+package org.example.dacs4_v2.game;
+
+/**
+ * Kết quả của OwnershipEstimator: mức sở hữu từng ô và các quân được đánh giá là chết.
+ */
+public final class OwnershipMap {
+
+    private final int boardSize;
+    private final float[] ownership;
+    private final long[] deadStones;
+    private final int playouts;
+    private final long elapsedNanos;
+
+    OwnershipMap(int boardSize, float[] ownership, long[] deadStones, int playouts, long elapsedNanos) {
+        this.boardSize = boardSize;
+        this.ownership = ownership;
+        this.deadStones = deadStones;
+        this.playouts = playouts;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public int getBoardSize() {
+        return boardSize;
+    }
+
+    /**
+     * Mức sở hữu ô (x, y) trong [-1, 1]: 1 = luôn thuộc đen, -1 = luôn thuộc trắng.
+     */
+    public float getOwnership(int x, int y) {
+        return ownership[x * boardSize + y];
+    }
+
+    /**
+     * Màu sở hữu ô (x, y) nếu mức sở hữu vượt threshold (0 nếu chưa rõ).
+     */
+    public int getOwner(int x, int y, double threshold) {
+        float v = ownership[x * boardSize + y];
+        return v >= threshold ? 1 : v <= -threshold ? 2 : 0;
+    }
+
+    public boolean isDead(int x, int y) {
+        int i = x * boardSize + y;
+        return (deadStones[i >>> 6] & (1L << i)) != 0;
+    }
+
+    /**
+     * Bitset quân chết (bit i = x * boardSize + y), dùng được làm deadStones cho AreaScorer.
+     */
+    public long[] getDeadStones() {
+        return deadStones;
+    }
+
+    public int getPlayouts() {
+        return playouts;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+}
@@ -0,0 +1,129 @@
+package org.example.dacs4_v2.game;
+
+/**
+ * Bàn cờ lưu dạng mảng 1 chiều (boardSize + 2)^2 byte, có một vòng ô BORDER bao quanh.
+ * Nhờ vòng biên, duyệt láng giềng chỉ cần cộng offset cố định (±1, ±stride)
+ * mà không phải kiểm tra tọa độ ngoài bàn.
+ *
+ * Chỉ số ô: p = (x + 1) * stride + (y + 1), với stride = boardSize + 2.
+ */
+public final class PaddedBoard {
+
+    public static final byte EMPTY = 0;
+    public static final byte BLACK = 1;
+    public static final byte WHITE = 2;
+    public static final byte BORDER = 3;
+
+    private final int boardSize;
+    private final int stride;
+    private final byte[] cells;
+
+    /**
+     * Tạo bàn cờ trống với vòng biên.
+     *
+     * @param boardSize kích thước bàn cờ (9, 13, hoặc 19)
+     */
+    public PaddedBoard(int boardSize) {
+        this.boardSize = boardSize;
+        this.stride = boardSize + 2;
+        this.cells = new byte[stride * stride];
+        for (int i = 0; i < stride; i++) {
+            cells[i] = BORDER;
+            cells[(stride - 1) * stride + i] = BORDER;
+            cells[i * stride] = BORDER;
+            cells[i * stride + stride - 1] = BORDER;
+        }
+    }
+
+    /**
+     * Tạo bàn cờ từ mảng 2D board[x][y] (0=trống, 1=đen, 2=trắng).
+     */
+    public static PaddedBoard fromArray(int[][] board, int boardSize) {
+        PaddedBoard padded = new PaddedBoard(boardSize);
+        if (board != null) {
+            for (int x = 0; x < boardSize; x++) {
+                for (int y = 0; y < boardSize; y++) {
+                    padded.cells[padded.index(x, y)] = (byte) board[x][y];
+                }
+            }
+        }
+        return padded;
+    }
+
+    public int getBoardSize() {
+        return boardSize;
+    }
+
+    /**
+     * Khoảng cách giữa hai hàng; láng giềng của p là p ± 1 và p ± stride.
+     */
+    public int getStride() {
+        return stride;
+    }
+
+    /**
+     * Tổng số ô kể cả vòng biên.
+     */
+    public int getCellCount() {
+        return cells.length;
+    }
+
+    public int index(int x, int y) {
+        return (x + 1) * stride + (y + 1);
+    }
+
+    public int xOf(int p) {
+        return p / stride - 1;
+    }
+
+    public int yOf(int p) {
+        return p % stride - 1;
+    }
+
+    public int get(int p) {
+        return cells[p];
+    }
+
+    public void set(int p, int color) {
+        cells[p] = (byte) color;
+    }
+
+    /**
+     * Mảng ô bên trong, dùng trực tiếp trong các vòng lặp nóng của package game.
+     */
+    byte[] cells() {
+        return cells;
+    }
+
+    /**
+     * Lấy giá trị tại (x, y), trả về -1 nếu ngoài phạm vi (giống GoGameLogic.getCell).
+     */
+    public int getCell(int x, int y) {
+        if (x < 0 || x >= boardSize || y < 0 || y >= boardSize) {
+            return -1;
+        }
+        return cells[index(x, y)];
+    }
+
+    /**
+     * Chép trạng thái sang mảng 2D board[x][y] có sẵn (adapter cho code dùng int[][]).
+     */
+    public void copyTo(int[][] dst) {
+        for (int x = 0; x < boardSize; x++) {
+            int row = (x + 1) * stride + 1;
+            int[] col = dst[x];
+            for (int y = 0; y < boardSize; y++) {
+                col[y] = cells[row + y];
+            }
+        }
+    }
+
+    /**
+     * Tạo mảng 2D board[x][y] mới từ trạng thái hiện tại.
+     */
+    public int[][] toArray() {
+        int[][] dst = new int[boardSize][boardSize];
+        copyTo(dst);
+        return dst;
+    }
+}
@@ -0,0 +1,156 @@
+package org.example.dacs4_v2.game;
+
+/**
+ * Bảng tra cứu tính chất của mẫu 3x3 quanh một ô trống (GoGameLogic.getPattern()).
+ *
+ * Mã mẫu 20 bit:
+ * - bit 2i..2i+1 (i = 0..7): màu láng giềng thứ i (0=trống, 1=đen, 2=trắng, 3=ngoài bàn),
+ *   thứ tự (dx, dy) = (-1,-1), (-1,0), (-1,1), (0,-1), (0,1), (1,-1), (1,0), (1,1).
+ * - bit 16..19: láng giềng trực giao (-1,0), (0,-1), (0,1), (1,0) là quân thuộc nhóm chỉ còn 1 khí.
+ *
+ * Mọi tính chất được tính sẵn một lần cho 2^20 mã, nên playout và UI chỉ cần một lần tra mảng.
+ */
+public final class PatternTable {
+
+    public static final int EYE_BLACK = 1;
+    public static final int EYE_WHITE = 1 << 1;
+    public static final int CAPTURE_BLACK = 1 << 2;
+    public static final int CAPTURE_WHITE = 1 << 3;
+    public static final int SELF_ATARI_BLACK = 1 << 4;
+    public static final int SELF_ATARI_WHITE = 1 << 5;
+
+    /** Số bit màu của 8 láng giềng. */
+    public static final int COLOR_BITS = 16;
+
+    // Vị trí (slot) của 4 láng giềng trực giao trong 8 láng giềng
+    static final int[] ORTHOGONAL = { 1, 3, 4, 6 };
+    static final int[] DIAGONAL = { 0, 2, 5, 7 };
+
+    private static final byte[] FLAGS = build();
+
+    private PatternTable() {
+    }
+
+    /**
+     * Các cờ tính chất của mã mẫu (tổ hợp EYE_*, CAPTURE_*, SELF_ATARI_*).
+     */
+    public static int flags(int pattern) {
+        return FLAGS[pattern];
+    }
+
+    /**
+     * Ô trống là mắt của color: láng giềng trực giao đều là quân color hoặc biên, và các ô chéo
+     * không có quá 1 quân đối thủ (0 nếu ở biên/góc). Cùng quy tắc với playout của MonteCarloEngine.
+     */
+    public static boolean isEyeLike(int pattern, int color) {
+        return (FLAGS[pattern] & (color == 1 ? EYE_BLACK : EYE_WHITE)) != 0;
+    }
+
+    /**
+     * Đặt color vào ô này sẽ bắt được ít nhất một nhóm đối thủ đang bị atari.
+     */
+    public static boolean isCapture(int pattern, int color) {
+        return (FLAGS[pattern] & (color == 1 ? CAPTURE_BLACK : CAPTURE_WHITE)) != 0;
+    }
+
+    /**
+     * Đặt color vào ô này chắc chắn tạo nhóm chỉ còn đúng 1 khí (không bắt được quân).
+     * Chỉ xét thông tin trong mẫu nên có thể bỏ sót self-atari do nhóm kề có 2 khí.
+     */
+    public static boolean isSelfAtari(int pattern, int color) {
+        return (FLAGS[pattern] & (color == 1 ? SELF_ATARI_BLACK : SELF_ATARI_WHITE)) != 0;
+    }
+
+    /**
+     * Màu láng giềng ở slot i (0..7) của mã mẫu.
+     */
+    public static int neighbour(int pattern, int slot) {
+        return (pattern >>> (slot * 2)) & 3;
+    }
+
+    /**
+     * Số láng giềng trực giao còn trống.
+     */
+    public static int emptyNeighbours(int pattern) {
+        int count = 0;
+        for (int slot : ORTHOGONAL) {
+            if (neighbour(pattern, slot) == 0) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static byte[] build() {
+        byte[] flags = new byte[1 << (COLOR_BITS + 4)];
+        for (int pattern = 0; pattern < flags.length; pattern++) {
+            int f = 0;
+            for (int color = 1; color <= 2; color++) {
+                int shift = color - 1;
+                if (eyeLike(pattern, color)) {
+                    f |= EYE_BLACK << shift;
+                }
+                boolean capture = capture(pattern, color);
+                if (capture) {
+                    f |= CAPTURE_BLACK << shift;
+                } else if (selfAtari(pattern, color)) {
+                    f |= SELF_ATARI_BLACK << shift;
+                }
+            }
+            flags[pattern] = (byte) f;
+        }
+        return flags;
+    }
+
+    private static boolean eyeLike(int pattern, int color) {
+        for (int slot : ORTHOGONAL) {
+            int v = neighbour(pattern, slot);
+            if (v != color && v != 3) {
+                return false;
+            }
+        }
+        int opp = color == 1 ? 2 : 1;
+        int enemyDiagonals = 0;
+        boolean offBoard = false;
+        for (int slot : DIAGONAL) {
+            int v = neighbour(pattern, slot);
+            if (v == 3) {
+                offBoard = true;
+            } else if (v == opp) {
+                enemyDiagonals++;
+            }
+        }
+        return enemyDiagonals + (offBoard ? 1 : 0) < 2;
+    }
+
+    private static boolean capture(int pattern, int color) {
+        int opp = color == 1 ? 2 : 1;
+        for (int k = 0; k < 4; k++) {
+            if (neighbour(pattern, ORTHOGONAL[k]) == opp && inAtari(pattern, k)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Nhóm mới gồm quân vừa đặt và các nhóm cùng màu kề bên. Nếu mọi nhóm kề cùng màu đều
+     * đang atari (khí duy nhất là ô này) thì khí của nhóm mới chỉ là các ô trống kề ô này.
+     */
+    private static boolean selfAtari(int pattern, int color) {
+        int empty = 0;
+        for (int k = 0; k < 4; k++) {
+            int v = neighbour(pattern, ORTHOGONAL[k]);
+            if (v == 0) {
+                empty++;
+            } else if (v == color && !inAtari(pattern, k)) {
+                return false;
+            }
+        }
+        return empty == 1;
+    }
+
+    private static boolean inAtari(int pattern, int k) {
+        return (pattern & (1 << (COLOR_BITS + k))) != 0;
+    }
+}
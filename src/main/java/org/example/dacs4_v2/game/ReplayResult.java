@@ -0,0 +1,95 @@
+package org.example.dacs4_v2.game;
+
+import org.example.dacs4_v2.models.Moves;
+
+/**
+ * Kết quả phát lại và kiểm tra một ván đã lưu (xem GameReplayService).
+ */
+public final class ReplayResult {
+
+    /**
+     * Lý do nước đi không hợp lệ.
+     */
+    public enum Violation {
+        INVALID_BOARD_SIZE, // kích thước bàn cờ của Game không hợp lệ
+        UNKNOWN_PLAYER, // player không phải "BLACK" / "WHITE"
+        OUT_OF_BOARD, // tọa độ ngoài bàn cờ (không phải pass)
+        OCCUPIED, // ô đã có quân
+        SUICIDE_OR_KO // vi phạm luật tự tử hoặc Ko
+    }
+
+    private final String gameId;
+    private final int[][] finalBoard;
+    private final int capturedByBlack;
+    private final int capturedByWhite;
+    private final int movesApplied;
+    private final int firstIllegalIndex;
+    private final Moves firstIllegalMove;
+    private final Violation violation;
+
+    ReplayResult(String gameId, int[][] finalBoard, int capturedByBlack, int capturedByWhite, int movesApplied,
+            int firstIllegalIndex, Moves firstIllegalMove, Violation violation) {
+        this.gameId = gameId;
+        this.finalBoard = finalBoard;
+        this.capturedByBlack = capturedByBlack;
+        this.capturedByWhite = capturedByWhite;
+        this.movesApplied = movesApplied;
+        this.firstIllegalIndex = firstIllegalIndex;
+        this.firstIllegalMove = firstIllegalMove;
+        this.violation = violation;
+    }
+
+    public String getGameId() {
+        return gameId;
+    }
+
+    /**
+     * Bàn cờ sau khi phát lại (giống bàn cờ GameController dựng lại khi resume).
+     */
+    public int[][] getFinalBoard() {
+        return finalBoard;
+    }
+
+    public int getCapturedByBlack() {
+        return capturedByBlack;
+    }
+
+    public int getCapturedByWhite() {
+        return capturedByWhite;
+    }
+
+    /**
+     * Số nước đặt quân đã áp dụng lên bàn (không tính pass).
+     */
+    public int getMovesApplied() {
+        return movesApplied;
+    }
+
+    /**
+     * true nếu mọi nước đi trong ván đều hợp lệ.
+     */
+    public boolean isValid() {
+        return violation == null;
+    }
+
+    /**
+     * Vị trí (trong game.getMoves()) của nước không hợp lệ đầu tiên, hoặc -1 nếu không có.
+     */
+    public int getFirstIllegalIndex() {
+        return firstIllegalIndex;
+    }
+
+    /**
+     * Nước không hợp lệ đầu tiên, hoặc null nếu không có.
+     */
+    public Moves getFirstIllegalMove() {
+        return firstIllegalMove;
+    }
+
+    /**
+     * Lý do của nước không hợp lệ đầu tiên, hoặc null nếu ván hợp lệ.
+     */
+    public Violation getViolation() {
+        return violation;
+    }
+}
@@ -0,0 +1,125 @@
+package org.example.dacs4_v2.game;
+
+/**
+ * Kết quả đếm điểm của AreaScorer.
+ */
+public final class ScoreResult {
+
+    private final ScoringRule rule;
+    private final int blackStones;
+    private final int whiteStones;
+    private final int blackTerritory;
+    private final int whiteTerritory;
+    private final int deadBlack;
+    private final int deadWhite;
+    private final int neutralPoints;
+    private final int unsettledStones;
+    private final double blackScore;
+    private final double whiteScore;
+
+    ScoreResult(ScoringRule rule, int blackStones, int whiteStones, int blackTerritory, int whiteTerritory,
+            int deadBlack, int deadWhite, int neutralPoints, int unsettledStones, double blackScore,
+            double whiteScore) {
+        this.rule = rule;
+        this.blackStones = blackStones;
+        this.whiteStones = whiteStones;
+        this.blackTerritory = blackTerritory;
+        this.whiteTerritory = whiteTerritory;
+        this.deadBlack = deadBlack;
+        this.deadWhite = deadWhite;
+        this.neutralPoints = neutralPoints;
+        this.unsettledStones = unsettledStones;
+        this.blackScore = blackScore;
+        this.whiteScore = whiteScore;
+    }
+
+    public ScoringRule getRule() {
+        return rule;
+    }
+
+    /**
+     * Số quân đen còn sống trên bàn (không tính quân bị đánh dấu chết).
+     */
+    public int getBlackStones() {
+        return blackStones;
+    }
+
+    public int getWhiteStones() {
+        return whiteStones;
+    }
+
+    /**
+     * Số ô trống (kể cả ô có quân chết) chỉ giáp quân đen.
+     */
+    public int getBlackTerritory() {
+        return blackTerritory;
+    }
+
+    public int getWhiteTerritory() {
+        return whiteTerritory;
+    }
+
+    public int getDeadBlack() {
+        return deadBlack;
+    }
+
+    public int getDeadWhite() {
+        return deadWhite;
+    }
+
+    /**
+     * Số ô trống không thuộc về bên nào (giáp cả hai màu, hoặc không giáp quân nào).
+     */
+    public int getNeutralPoints() {
+        return neutralPoints;
+    }
+
+    /**
+     * Số quân (sống hay bị đánh dấu chết) chưa rõ sống chết, tức không nằm trong bitset
+     * settledStones truyền cho AreaScorer.
+     */
+    public int getUnsettledStones() {
+        return unsettledStones;
+    }
+
+    /**
+     * true nếu kết quả không còn tranh chấp: mọi quân đều pass-alive hoặc nằm trong đất pass-alive
+     * của đối phương, và mọi vùng trống đều thuộc về đúng một màu. Không có ô trung lập thôi chưa đủ
+     * (nhóm chưa sống hẳn vẫn có thể bị bắt).
+     */
+    public boolean isSettled() {
+        return unsettledStones == 0 && neutralPoints == 0;
+    }
+
+    public double getBlackScore() {
+        return blackScore;
+    }
+
+    /**
+     * Điểm trắng, đã cộng komi.
+     */
+    public double getWhiteScore() {
+        return whiteScore;
+    }
+
+    /**
+     * Chênh lệch điểm đen - trắng.
+     */
+    public double getMargin() {
+        return blackScore - whiteScore;
+    }
+
+    /**
+     * Kết quả dạng KataGo final_score: "B+7.5", "W+0.5", hoặc "0" nếu hòa.
+     */
+    public String toResultString() {
+        double margin = getMargin();
+        if (margin > 0) {
+            return "B+" + margin;
+        }
+        if (margin < 0) {
+            return "W+" + (-margin);
+        }
+        return "0";
+    }
+}
@@ -0,0 +1,9 @@
+package org.example.dacs4_v2.game;
+
+/**
+ * Luật đếm điểm dùng trong AreaScorer.
+ */
+public enum ScoringRule {
+    AREA, // luật Trung Quốc: quân còn sống + đất + komi
+    TERRITORY // luật Nhật: đất + quân bắt được + quân chết + komi
+}
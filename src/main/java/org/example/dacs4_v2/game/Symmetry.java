@@ -0,0 +1,108 @@
+package org.example.dacs4_v2.game;
+
+/**
+ * 8 phép đối xứng của bàn cờ vuông (4 phép quay x 2 phép lật), dùng để chuẩn hóa thế cờ
+ * cho cache / sách khai cuộc: 8 thế cờ đối xứng nhau có chung một hash chuẩn.
+ *
+ * Phép đối xứng s (0..7) là tổ hợp bit: bit 2 = đổi x với y (chuyển vị), rồi bit 0 = lật x,
+ * bit 1 = lật y. s = 0 là phép đồng nhất.
+ *
+ * Hash theo phép s là hash Zobrist của bàn cờ sau khi biến đổi bằng s (xem GoGameLogic
+ * .getSymmetryHash()); hash chuẩn là giá trị nhỏ nhất trong 8 hash, phép cho giá trị đó là
+ * phép chuẩn. Nước đi ở hệ tọa độ chuẩn đổi về bàn cờ gốc bằng inverse().
+ */
+public final class Symmetry {
+
+    public static final int COUNT = 8;
+    public static final int IDENTITY = 0;
+
+    private static final int[] INVERSE = buildInverse();
+    private static final long[][][] KEYS_CACHE = new long[32][][];
+
+    private Symmetry() {
+    }
+
+    /**
+     * Tọa độ phẳng (x' * boardSize + y') của (x, y) sau phép đối xứng s.
+     */
+    public static int transform(int s, int x, int y, int boardSize) {
+        if ((s & 4) != 0) {
+            int t = x;
+            x = y;
+            y = t;
+        }
+        if ((s & 1) != 0) {
+            x = boardSize - 1 - x;
+        }
+        if ((s & 2) != 0) {
+            y = boardSize - 1 - y;
+        }
+        return x * boardSize + y;
+    }
+
+    /**
+     * Phép ngược của s: transform(inverse(s), ...) đưa điểm đã biến đổi về chỗ cũ.
+     */
+    public static int inverse(int s) {
+        return INVERSE[s];
+    }
+
+    /**
+     * Khóa Zobrist theo từng phép đối xứng: keys[s][p * 2 + color - 1] là khóa của ô transform(s, p),
+     * nên XOR keys[s] trên các quân của bàn cờ ra hash của bàn cờ đã biến đổi. Tạo một lần mỗi kích thước.
+     */
+    static synchronized long[][] keys(int boardSize) {
+        if (boardSize < KEYS_CACHE.length && KEYS_CACHE[boardSize] != null) {
+            return KEYS_CACHE[boardSize];
+        }
+        long[] base = Zobrist.keys(boardSize);
+        long[][] keys = new long[COUNT][base.length];
+        for (int s = 0; s < COUNT; s++) {
+            for (int x = 0; x < boardSize; x++) {
+                for (int y = 0; y < boardSize; y++) {
+                    int p = x * boardSize + y;
+                    int q = transform(s, x, y, boardSize);
+                    keys[s][p * 2] = base[q * 2];
+                    keys[s][p * 2 + 1] = base[q * 2 + 1];
+                }
+            }
+        }
+        if (boardSize < KEYS_CACHE.length) {
+            KEYS_CACHE[boardSize] = keys;
+        }
+        return keys;
+    }
+
+    /**
+     * Phép có hash nhỏ nhất trong 8 hash (phép nhỏ nhất nếu bằng nhau).
+     */
+    static int canonical(long[] hashes) {
+        int best = 0;
+        for (int s = 1; s < COUNT; s++) {
+            if (hashes[s] < hashes[best]) {
+                best = s;
+            }
+        }
+        return best;
+    }
+
+    // Tìm phép ngược bằng cách thử trên bàn 3x3 (đủ để phân biệt 8 phép)
+    private static int[] buildInverse() {
+        int n = 3;
+        int[] inverse = new int[COUNT];
+        for (int s = 0; s < COUNT; s++) {
+            for (int t = 0; t < COUNT; t++) {
+                boolean identity = true;
+                for (int p = 0; p < n * n && identity; p++) {
+                    int q = transform(s, p / n, p % n, n);
+                    identity = transform(t, q / n, q % n, n) == p;
+                }
+                if (identity) {
+                    inverse[s] = t;
+                    break;
+                }
+            }
+        }
+        return inverse;
+    }
+}
@@ -0,0 +1,282 @@
+package org.example.dacs4_v2.game;
+
+/**
+ * Đọc chiến thuật nhanh cho gợi ý nước đi và cắt tỉa nước của AI: nhóm bị atari,
+ * nước tự vào atari, và thang (ladder).
+ *
+ * Mọi truy vấn chạy trên một GoGameLogic INCREMENTAL riêng (bản sao thế cờ, đồng bộ lại
+ * theo các ô thay đổi khi thế cờ đổi), đọc liberties từ GroupTracker và thử nước bằng
+ * applyMove/undo, nên không đụng tới GoGameLogic của ván đang chơi. Đọc thang giới hạn
+ * MAX_LADDER_NODES nước thử; vượt giới hạn thì coi như thang không thành.
+ *
+ * Không thread-safe: mỗi luồng (vd. FX thread) dùng một instance riêng.
+ */
+public final class Tactics {
+
+    /**
+     * Gợi ý cho một ô trống khi màu đang đi đặt quân vào đó.
+     */
+    public enum Hint {
+        NONE(""),
+        ILLEGAL("Không hợp lệ"),
+        CAPTURE("Bắt quân"),
+        SELF_ATARI("Tự vào atari"),
+        LADDER("Thang bắt được"),
+        ATARI("Atari");
+
+        private final String label;
+
+        Hint(String label) {
+            this.label = label;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+    }
+
+    private static final int MAX_LADDER_NODES = 96;
+    private static final int[] DX = { 1, -1, 0, 0 };
+    private static final int[] DY = { 0, 0, 1, -1 };
+
+    private final int boardSize;
+    private final int[] libs = new int[2];
+    private GoGameLogic scratch;
+    private long scratchHash;
+    private int nodes;
+
+    /**
+     * @param boardSize kích thước bàn cờ
+     */
+    public Tactics(int boardSize) {
+        this.boardSize = boardSize;
+    }
+
+    /**
+     * Đặt thế cờ cần phân tích. Bản sao chỉ được dựng một lần; các lần sau chỉ sửa các ô khác
+     * nhau (GoGameLogic.syncTo) khi hash của thế cờ thay đổi, nên gọi ở mỗi sự kiện chuột cũng rẻ.
+     */
+    public void setPosition(GoGameLogic logic) {
+        if (scratch != null && scratchHash == logic.getHash()) {
+            return;
+        }
+        if (scratch == null) {
+            scratch = new GoGameLogic(boardSize, logic.getBoard(), logic.getPrevBoard(), EngineMode.INCREMENTAL);
+        } else {
+            scratch.syncTo(logic);
+        }
+        scratchHash = logic.getHash();
+    }
+
+    /**
+     * Nhóm chứa quân (x, y) chỉ còn 1 liberty.
+     */
+    public boolean isInAtari(int x, int y) {
+        return scratch.getCell(x, y) > 0 && scratch.groupLiberties(x, y) == 1;
+    }
+
+    /**
+     * Đặt color tại (x, y) là nước hợp lệ và nhóm mới chỉ còn 1 liberty.
+     */
+    public boolean isSelfAtari(int x, int y, int color) {
+        if (scratch.getCell(x, y) != 0 || !scratch.applyMove(x, y, color, true)) {
+            return false;
+        }
+        boolean selfAtari = scratch.groupLiberties(x, y) == 1;
+        scratch.undo();
+        return selfAtari;
+    }
+
+    /**
+     * Nhóm chứa quân (x, y) bị bắt bằng thang. Nhóm 1 liberty: bên bị đuổi đi trước;
+     * nhóm 2 liberties: bên đuổi thử atari ở từng liberty.
+     */
+    public boolean isLadderCaptured(int x, int y) {
+        int color = scratch.getCell(x, y);
+        if (color <= 0) {
+            return false;
+        }
+        nodes = 0;
+        int libCount = scratch.groupLiberties(x, y);
+        if (libCount == 1) {
+            return ladderCaptured(x, y, -1, -1);
+        }
+        return libCount == 2 && attackerWins(x, y, color == 1 ? 2 : 1, -1);
+    }
+
+    /**
+     * Gợi ý khi color đặt quân tại ô trống (x, y).
+     */
+    public Hint hint(int x, int y, int color) {
+        if (scratch.getCell(x, y) != 0) {
+            return Hint.NONE;
+        }
+        int pattern = scratch.getPattern(x, y);
+        if (!scratch.applyMove(x, y, color, true)) {
+            return Hint.ILLEGAL;
+        }
+        try {
+            if (PatternTable.isCapture(pattern, color)) {
+                return Hint.CAPTURE;
+            }
+            if (scratch.groupLiberties(x, y) == 1) {
+                return Hint.SELF_ATARI;
+            }
+            // Nhóm đối phương kề bị atari sau nước này: thang có bắt được không
+            int opp = color == 1 ? 2 : 1;
+            boolean atari = false;
+            for (int d = 0; d < 4; d++) {
+                int nx = x + DX[d];
+                int ny = y + DY[d];
+                if (scratch.getCell(nx, ny) == opp && scratch.groupLiberties(nx, ny) == 1) {
+                    nodes = 0;
+                    if (ladderCaptured(nx, ny, -1, -1)) {
+                        return Hint.LADDER;
+                    }
+                    atari = true;
+                }
+            }
+            return atari ? Hint.ATARI : Hint.NONE;
+        } finally {
+            scratch.undo();
+        }
+    }
+
+    /**
+     * Cắt tỉa cho AI: nước chắc chắn tự vào atari (theo PatternTable) mà kéo theo quân
+     * cùng màu kề bên. Tự vào atari bằng một quân đơn (ném quân) vẫn được giữ.
+     */
+    public static boolean isBadSelfAtari(GoGameLogic logic, int x, int y, int color) {
+        int pattern = logic.getPattern(x, y);
+        if (!PatternTable.isSelfAtari(pattern, color)) {
+            return false;
+        }
+        for (int slot : PatternTable.ORTHOGONAL) {
+            if (PatternTable.neighbour(pattern, slot) == color) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Bỏ các nước isBadSelfAtari() khỏi moves[0..count) (chỉ số x * boardSize + y), giữ nguyên thứ tự.
+     * Nếu mọi nước đều bị bỏ thì giữ lại tất cả để AI vẫn có nước đi.
+     *
+     * @return số nước còn lại ở đầu mảng
+     */
+    static int pruneBadSelfAtari(GoGameLogic logic, int[] moves, int count, int color) {
+        int n = logic.getBoardSize();
+        int kept = 0;
+        for (int i = 0; i < count; i++) {
+            int p = moves[i];
+            if (!isBadSelfAtari(logic, p / n, p % n, color)) {
+                moves[kept++] = p;
+            }
+        }
+        return kept > 0 ? kept : count;
+    }
+
+    /**
+     * Nhóm chứa (x, y) đang bị atari, bên bị đuổi đi: true nếu không thoát được.
+     * Bên bị đuổi thoát nếu bắt được quân bên đuổi đang atari, hoặc kéo ra được >= 3 liberties.
+     *
+     * Giữa thang chỉ các nhóm kề ô thoát trước (lastEscape) và quân atari vừa đặt (lastAttack)
+     * mới bị giảm liberties, nên chỉ cần xét chúng thay vì duyệt cả nhóm; lastEscape = -1
+     * thì duyệt cả nhóm (gốc của thang, hoặc nước thoát vừa nối thêm nhóm khác).
+     */
+    private boolean ladderCaptured(int x, int y, int lastEscape, int lastAttack) {
+        if (++nodes > MAX_LADDER_NODES) {
+            return false;
+        }
+        if (lastEscape < 0 ? scratch.touchesGroupInAtari(x, y) : canCaptureNear(lastEscape, lastAttack)) {
+            return false;
+        }
+        int color = scratch.getCell(x, y);
+        scratch.groupLibertyPoints(x, y, libs);
+        int escape = libs[0];
+        int ex = escape / boardSize;
+        int ey = escape % boardSize;
+        if (!scratch.applyMove(ex, ey, color, true)) {
+            return true;
+        }
+        int libCount = scratch.groupLiberties(x, y);
+        boolean captured = libCount <= 1 || (libCount == 2
+                && attackerWins(x, y, color == 1 ? 2 : 1, joinsOnlyGroup(ex, ey, color) ? escape : -1));
+        scratch.undo();
+        return captured;
+    }
+
+    /**
+     * Bên đuổi có nhóm chỉ còn 1 liberty kề ô thoát, hoặc quân atari vừa đặt đang bị atari.
+     */
+    private boolean canCaptureNear(int escape, int attack) {
+        int ex = escape / boardSize;
+        int ey = escape % boardSize;
+        int attacker = scratch.getCell(attack / boardSize, attack % boardSize);
+        for (int d = 0; d < 4; d++) {
+            int nx = ex + DX[d];
+            int ny = ey + DY[d];
+            if (scratch.getCell(nx, ny) == attacker && scratch.groupLiberties(nx, ny) == 1) {
+                return true;
+            }
+        }
+        return scratch.groupLiberties(attack / boardSize, attack % boardSize) == 1;
+    }
+
+    /**
+     * Quân vừa đặt tại (x, y) chỉ kề đúng 1 quân cùng màu (không nối thêm nhóm nào khác).
+     */
+    private boolean joinsOnlyGroup(int x, int y, int color) {
+        int friends = 0;
+        for (int d = 0; d < 4; d++) {
+            if (scratch.getCell(x + DX[d], y + DY[d]) == color) {
+                friends++;
+            }
+        }
+        return friends == 1;
+    }
+
+    /**
+     * Nhóm chứa (x, y) có 2 liberties, bên đuổi (attacker) đi: thử atari ở từng liberty.
+     * Thử trước nước để lại cho bên bị đuổi ô thoát có ít ô trống xung quanh nhất
+     * (thường là nước đúng của thang), nên thang dài chỉ tốn khoảng 2 nước thử mỗi bước.
+     */
+    private boolean attackerWins(int x, int y, int attacker, int lastEscape) {
+        scratch.groupLibertyPoints(x, y, libs);
+        int first = libs[0];
+        int second = libs[1];
+        if (emptyNeighbours(first) < emptyNeighbours(second)) {
+            // Atari tại first thì bên bị đuổi thoát ra second (nhiều ô trống hơn): thử sau
+            first = libs[1];
+            second = libs[0];
+        }
+        for (int i = 0; i < 2; i++) {
+            int lib = i == 0 ? first : second;
+            if (++nodes > MAX_LADDER_NODES) {
+                return false;
+            }
+            if (!scratch.applyMove(lib / boardSize, lib % boardSize, attacker, true)) {
+                continue;
+            }
+            boolean captured = scratch.groupLiberties(x, y) == 1 && ladderCaptured(x, y, lastEscape, lib);
+            scratch.undo();
+            if (captured) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int emptyNeighbours(int p) {
+        int x = p / boardSize;
+        int y = p % boardSize;
+        int count = 0;
+        for (int d = 0; d < 4; d++) {
+            if (scratch.getCell(x + DX[d], y + DY[d]) == 0) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,60 @@
+package org.example.dacs4_v2.game;
+
+/**
+ * Bảng khóa Zobrist 64-bit cho từng kích thước bàn cờ.
+ * Khóa được sinh từ seed cố định nên hai máy cùng bàn cờ luôn ra cùng một hash
+ * (dùng được để so sánh trạng thái giữa hai peer).
+ *
+ * Chỉ số khóa: (x * boardSize + y) * 2 + (color - 1).
+ */
+final class Zobrist {
+
+    private static final long SEED = 0x5DEECE66DL;
+    private static final long[][] CACHE = new long[32][];
+
+    private Zobrist() {
+    }
+
+    /**
+     * Lấy bảng khóa cho kích thước bàn cờ (tạo một lần rồi dùng lại).
+     */
+    static synchronized long[] keys(int boardSize) {
+        if (boardSize < CACHE.length && CACHE[boardSize] != null) {
+            return CACHE[boardSize];
+        }
+        long[] keys = new long[boardSize * boardSize * 2];
+        long state = SEED ^ boardSize;
+        for (int i = 0; i < keys.length; i++) {
+            state += 0x9E3779B97F4A7C15L;
+            keys[i] = mix(state);
+        }
+        if (boardSize < CACHE.length) {
+            CACHE[boardSize] = keys;
+        }
+        return keys;
+    }
+
+    /**
+     * Tính hash của cả bàn cờ (dùng khi nạp trạng thái có sẵn).
+     */
+    static long hashOf(int[][] board, int boardSize) {
+        long[] keys = keys(boardSize);
+        long h = 0L;
+        for (int x = 0; x < boardSize; x++) {
+            for (int y = 0; y < boardSize; y++) {
+                int c = board[x][y];
+                if (c == 1 || c == 2) {
+                    h ^= keys[(x * boardSize + y) * 2 + c - 1];
+                }
+            }
+        }
+        return h;
+    }
+
+    // SplitMix64
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -54,6 +54,25 @@ public class Game implements Serializable {
         this.nameGame = nameGame;
     }
 
+    // Bản sao để lưu ở luồng khác: danh sách moves được copy, Moves / User dùng chung (không đổi sau khi tạo).
+    public Game(Game other) {
+        this(other.gameId, other.hostPeerId, other.userId, other.rivalId, other.boardSize, other.komi,
+                other.nameGame);
+        this.status = other.status;
+        this.createdAt = other.createdAt;
+        this.acceptedAt = other.acceptedAt;
+        this.startedAt = other.startedAt;
+        this.endedAt = other.endedAt;
+        this.hostUser = other.hostUser;
+        this.rivalUser = other.rivalUser;
+        this.blackTimeMs = other.blackTimeMs;
+        this.whiteTimeMs = other.whiteTimeMs;
+        this.capturedByBlack = other.capturedByBlack;
+        this.capturedByWhite = other.capturedByWhite;
+        this.scoreResult = other.scoreResult;
+        this.moves = other.moves != null ? new ArrayList<>(other.moves) : new ArrayList<>();
+    }
+
     public String getGameId() {
         return gameId;
     }
@@ -0,0 +1,25 @@
+package org.example.dacs4_v2.models;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class GameIndex {
+    private long nextSeq;
+    private List<GameIndexEntry> entries = new ArrayList<>();
+
+    public long getNextSeq() {
+        return nextSeq;
+    }
+
+    public void setNextSeq(long nextSeq) {
+        this.nextSeq = nextSeq;
+    }
+
+    public List<GameIndexEntry> getEntries() {
+        return entries;
+    }
+
+    public void setEntries(List<GameIndexEntry> entries) {
+        this.entries = entries;
+    }
+}
@@ -0,0 +1,110 @@
+package org.example.dacs4_v2.models;
+
+/**
+ * Một dòng trong data/games/index.json: thông tin tóm tắt của một game để tra cứu / liệt kê
+ * mà không phải đọc file của game đó (data/games/&lt;file&gt;).
+ */
+public class GameIndexEntry {
+    private String gameId;
+    // Tên file của game trong data/games
+    private String file;
+    // Thứ tự thêm vào lịch sử (lớn hơn = mới hơn)
+    private long seq;
+
+    private GameStatus status;
+    private long createdAt;
+    private long acceptedAt;
+    private long startedAt;
+    private long endedAt;
+    private String userId;
+    private String rivalId;
+    private int moveCount;
+
+    public GameIndexEntry() {
+    }
+
+    public GameIndexEntry(String gameId, String file, long seq) {
+        this.gameId = gameId;
+        this.file = file;
+        this.seq = seq;
+    }
+
+    /**
+     * Cập nhật phần tóm tắt theo trạng thái hiện tại của game.
+     */
+    public void update(Game game) {
+        status = game.getStatus();
+        createdAt = game.getCreatedAt();
+        acceptedAt = game.getAcceptedAt();
+        startedAt = game.getStartedAt();
+        endedAt = game.getEndedAt();
+        userId = game.getUserId();
+        rivalId = game.getRivalId();
+        moveCount = game.getMoves() != null ? game.getMoves().size() : 0;
+    }
+
+    public String getGameId() {
+        return gameId;
+    }
+
+    public String getFile() {
+        return file;
+    }
+
+    public long getSeq() {
+        return seq;
+    }
+
+    public void setSeq(long seq) {
+        this.seq = seq;
+    }
+
+    public GameStatus getStatus() {
+        return status;
+    }
+
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    public long getAcceptedAt() {
+        return acceptedAt;
+    }
+
+    public long getStartedAt() {
+        return startedAt;
+    }
+
+    public long getEndedAt() {
+        return endedAt;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public String getRivalId() {
+        return rivalId;
+    }
+
+    public int getMoveCount() {
+        return moveCount;
+    }
+
+    /**
+     * Thời điểm dùng để xếp lịch sử (mới nhất trước): game đã kết thúc theo lúc kết thúc,
+     * còn lại theo lúc bắt đầu / chấp nhận / tạo.
+     */
+    public long getSortTime() {
+        if (status == GameStatus.FINISHED && endedAt > 0) {
+            return endedAt;
+        }
+        if (startedAt > 0) {
+            return startedAt;
+        }
+        if (acceptedAt > 0) {
+            return acceptedAt;
+        }
+        return createdAt;
+    }
+}
@@ -19,7 +19,10 @@ import javafx.scene.control.Alert;
 import javafx.scene.control.ButtonType;
 import org.example.dacs4_v2.HelloApplication;
 import org.example.dacs4_v2.data.GameHistoryStorage;
+import org.example.dacs4_v2.data.GamePersistence;
 import org.example.dacs4_v2.game.GameContext;
+import org.example.dacs4_v2.game.GameReplayService;
+import org.example.dacs4_v2.game.ReplayResult;
 import org.example.dacs4_v2.models.*;
 import org.example.dacs4_v2.network.P2PContext;
 
@@ -47,17 +50,11 @@ public class GoGameServiceImpl extends UnicastRemoteObject implements IGoGameSer
         if (cached != null) {
             return cached;
         }
-        List<Game> history = GameHistoryStorage.loadHistory(0);
-        if (history == null) {
-            return null;
-        }
-        for (Game g : history) {
-            if (g != null && gameId.equals(g.getGameId())) {
-                activeGames.put(gameId, g);
-                return g;
-            }
+        Game stored = GameHistoryStorage.findGame(gameId);
+        if (stored != null) {
+            activeGames.put(gameId, stored);
         }
-        return null;
+        return stored;
     }
 
     /**
@@ -241,7 +238,7 @@ public class GoGameServiceImpl extends UnicastRemoteObject implements IGoGameSer
             return;
         }
         activeGames.put(game.getGameId(), game);
-        GameHistoryStorage.upsert(game);
+        GamePersistence.saveGame(game);
     }
 
     @Override
@@ -266,7 +263,7 @@ public class GoGameServiceImpl extends UnicastRemoteObject implements IGoGameSer
             }
 
             activeGames.put(game.getGameId(), game);
-            GameHistoryStorage.upsert(game);
+            GamePersistence.saveGame(game);
 
             Platform.runLater(() -> {
                 String title = "Game invite";
@@ -286,7 +283,7 @@ public class GoGameServiceImpl extends UnicastRemoteObject implements IGoGameSer
                             // confirm.
                             game.setStatus(GameStatus.RECEIVER_ACCEPTED_WAIT_HOST);
                             game.setAcceptedAt(System.currentTimeMillis());
-                            GameHistoryStorage.upsert(game);
+                            GamePersistence.saveGame(game);
 
                             User host = game.getHostUser();
                             if (host != null) {
@@ -301,7 +298,7 @@ public class GoGameServiceImpl extends UnicastRemoteObject implements IGoGameSer
                         try {
                             // Receiver decline -> callback host để host update history và dừng chờ.
                             game.setStatus(GameStatus.DECLINED);
-                            GameHistoryStorage.upsert(game);
+                            GamePersistence.saveGame(game);
 
                             User host = game.getHostUser();
                             if (host != null) {
@@ -346,7 +343,7 @@ public class GoGameServiceImpl extends UnicastRemoteObject implements IGoGameSer
             if (responderSnapshot != null) {
                 game.setRivalUser(responderSnapshot);
             }
-            GameHistoryStorage.upsert(game);
+            GamePersistence.saveGame(game);
             activeGames.remove(gameId);
 
             Platform.runLater(() -> {
@@ -365,7 +362,7 @@ public class GoGameServiceImpl extends UnicastRemoteObject implements IGoGameSer
         if (responderSnapshot != null) {
             game.setRivalUser(responderSnapshot);
         }
-        GameHistoryStorage.upsert(game);
+        GamePersistence.saveGame(game);
 
         Platform.runLater(() -> {
             // Host confirm bước 2: start/cancel.
@@ -381,7 +378,7 @@ public class GoGameServiceImpl extends UnicastRemoteObject implements IGoGameSer
                         game.setStatus(GameStatus.PLAYING);
                         game.setStartedAt(System.currentTimeMillis());
 
-                        GameHistoryStorage.upsert(game);
+                        GamePersistence.saveGame(game);
                         GameContext.getInstance().setCurrentGame(game);
                         GameContext.getInstance().setViewOnly(false);
                         HelloApplication.navigateTo("game.fxml");
@@ -389,7 +386,7 @@ public class GoGameServiceImpl extends UnicastRemoteObject implements IGoGameSer
                         // Cancel: host không chơi -> notify receiver để receiver thoát trạng thái chờ.
                         game.setStatus(GameStatus.CANCELED);
                         game.setEndedAt(System.currentTimeMillis());
-                        GameHistoryStorage.upsert(game);
+                        GamePersistence.saveGame(game);
                         activeGames.remove(gameId);
                     }
 
@@ -424,7 +421,7 @@ public class GoGameServiceImpl extends UnicastRemoteObject implements IGoGameSer
             game.setStatus(GameStatus.CANCELED);
             game.setEndedAt(System.currentTimeMillis());
 
-            GameHistoryStorage.upsert(game);
+            GamePersistence.saveGame(game);
             activeGames.remove(gameId);
 
             Platform.runLater(() -> {
@@ -439,7 +436,7 @@ public class GoGameServiceImpl extends UnicastRemoteObject implements IGoGameSer
 
         game.setStatus(GameStatus.PLAYING);
         game.setStartedAt(System.currentTimeMillis());
-        GameHistoryStorage.upsert(game);
+        GamePersistence.saveGame(game);
 
         Platform.runLater(() -> {
             GameContext.getInstance().setCurrentGame(game);
@@ -546,13 +543,13 @@ public class GoGameServiceImpl extends UnicastRemoteObject implements IGoGameSer
             game = activeGames.get(move.getGameId());
         }
         if (game != null) {
-            // Nhận move từ remote -> append vào game + notify UI + persist history.
+            // Nhận move từ remote -> append vào game + notify UI + ghi nối vào journal nước đi.
             game.addMove(move);
             System.out.println("[RMI] Nhận nước đi: " + move);
 
             GameContext.getInstance().setCurrentGame(game);
             GameContext.getInstance().notifyMoveReceived(move);
-            GameHistoryStorage.upsert(game);
+            GamePersistence.saveMove(game, move);
             // Gửi ACK
             // clientService.moveAck(seqNo);
         }
@@ -596,6 +593,11 @@ public class GoGameServiceImpl extends UnicastRemoteObject implements IGoGameSer
      */
     public void onReconnectOffer(Game gameSnapshot) throws RemoteException {
         System.out.println("[RMI] Nhận snapshot game: " + gameSnapshot.getGameId());
+        ReplayResult check = GameReplayService.replay(gameSnapshot);
+        if (check != null && !check.isValid()) {
+            System.out.println("[RMI] Snapshot có nước không hợp lệ tại #" + check.getFirstIllegalIndex()
+                    + " (" + check.getViolation() + ")");
+        }
         activeGames.put(gameSnapshot.getGameId(), gameSnapshot);
     }
 
@@ -813,7 +815,7 @@ public class GoGameServiceImpl extends UnicastRemoteObject implements IGoGameSer
         game.setWhiteTimeMs(whiteTimeMs);
 
         // Lưu trạng thái game
-        GameHistoryStorage.upsert(game);
+        GamePersistence.saveGame(game);
 
         // Hiển thị thông báo và chuyển về màn hình phù hợp
         Platform.runLater(() -> {
@@ -866,7 +868,7 @@ public class GoGameServiceImpl extends UnicastRemoteObject implements IGoGameSer
         if (game != null) {
             game.setStatus(GameStatus.FINISHED);
             game.setEndedAt(System.currentTimeMillis());
-            GameHistoryStorage.upsert(game);
+            GamePersistence.saveGame(game);
         }
 
         // Thông báo GameContext để UI xử lý
@@ -7,7 +7,7 @@ import javafx.scene.control.Label;
 import javafx.scene.control.TextField;
 import javafx.scene.layout.Region;
 import javafx.stage.Stage;
-import org.example.dacs4_v2.data.GameHistoryStorage;
+import org.example.dacs4_v2.data.GamePersistence;
 import org.example.dacs4_v2.models.Game;
 import org.example.dacs4_v2.models.GameStatus;
 import org.example.dacs4_v2.models.User;
@@ -127,7 +127,7 @@ public class CreateRoomController {
             }
             User rivalSnapshot = new User(targetConfig.getHost(), targetConfig.getName(), targetConfig.getPort(), targetConfig.getRank(), targetConfig.getServiceName(), targetConfig.getUserId());
             game.setRivalUser(rivalSnapshot);
-            GameHistoryStorage.upsert(game);
+            GamePersistence.saveGame(game);
 
             if (localService instanceof GoGameServiceImpl impl) {
                 // Đăng ký game vào service local để host có thể nhận callback accept/decline sau này.
@@ -16,7 +16,6 @@ import javafx.stage.Stage;
 import org.example.dacs4_v2.HelloApplication;
 import org.example.dacs4_v2.data.GameHistoryStorage;
 import org.example.dacs4_v2.data.UserStorage;
-import org.example.dacs4_v2.models.Game;
 import org.example.dacs4_v2.models.GameStatus;
 import org.example.dacs4_v2.models.User;
 import org.example.dacs4_v2.network.P2PContext;
@@ -110,9 +109,8 @@ public class DashboardController {
     }
 
     private void updateStats(P2PNode node) {
-        // Total games lấy từ lịch sử local (data/game_history.json)
-        List<Game> games = GameHistoryStorage.loadHistory(0);
-        int total = games != null ? games.size() : 0;
+        // Total games lấy từ index phụ theo trạng thái của lịch sử local (không đọc file game)
+        int total = GameHistoryStorage.countGames(null);
         if (lblTotalGames != null) {
             lblTotalGames.setText(String.valueOf(total));
         }
@@ -120,14 +118,7 @@ public class DashboardController {
         // Win rate: hiện chưa có result/winner nên chỉ có thể show "-" hoặc tỉ lệ
         // FINISHED.
         if (lblWinRate != null) {
-            int finished = 0;
-            if (games != null) {
-                for (Game g : games) {
-                    if (g != null && g.getStatus() == GameStatus.FINISHED) {
-                        finished++;
-                    }
-                }
-            }
+            int finished = GameHistoryStorage.countGames(s -> s == GameStatus.FINISHED);
             lblWinRate.setText(total <= 0 ? "-" : (finished * 100 / total) + "%");
         }
 
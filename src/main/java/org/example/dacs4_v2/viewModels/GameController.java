@@ -11,9 +11,12 @@ import javafx.scene.input.MouseEvent;
 import javafx.scene.layout.StackPane;
 import javafx.scene.layout.VBox;
 import org.example.dacs4_v2.HelloApplication;
-import org.example.dacs4_v2.data.GameHistoryStorage;
+import org.example.dacs4_v2.data.GamePersistence;
+import org.example.dacs4_v2.game.EngineMode;
 import org.example.dacs4_v2.game.GameContext;
 import org.example.dacs4_v2.game.GoGameLogic;
+import org.example.dacs4_v2.game.OwnershipMap;
+import org.example.dacs4_v2.game.Tactics;
 import org.example.dacs4_v2.models.Game;
 import org.example.dacs4_v2.models.GameStatus;
 import org.example.dacs4_v2.models.Moves;
@@ -103,6 +106,12 @@ public class GameController {
     private boolean isAIGame = false;
     private int consecutivePasses = 0;
 
+    // Gợi ý khi rê chuột: chỉ đọc lại khi đổi ô hoặc thế cờ đổi
+    private Tactics tactics;
+    private int hoverX = -1;
+    private int hoverY = -1;
+    private long hoverHash;
+
     // ==================== KHỞI TẠO ====================
 
     @FXML
@@ -118,7 +127,7 @@ public class GameController {
 
         // Khởi tạo game logic
         int boardSize = game.getBoardSize();
-        gameLogic = new GoGameLogic(boardSize);
+        gameLogic = new GoGameLogic(boardSize, EngineMode.INCREMENTAL);
 
         // Xác định ID người chơi local
         try {
@@ -155,6 +164,13 @@ public class GameController {
 
         // Thiết lập click handler cho bàn cờ
         boardCanvas.setOnMouseClicked(this::onBoardClicked);
+
+        // Gợi ý atari / tự vào atari / thang khi rê chuột
+        if (!viewOnly) {
+            tactics = new Tactics(boardSize);
+            boardCanvas.setOnMouseMoved(this::onBoardHovered);
+            boardCanvas.setOnMouseExited(event -> clearHoverHint());
+        }
     }
 
     private void initializeHelpers() {
@@ -177,6 +193,7 @@ public class GameController {
         // AI handler (nếu là AI game)
         if (isAIGame) {
             aiHandler = new GameAIHandler(game, gameLogic, isBlack);
+            aiHandler.setTimerManager(timerManager);
         }
 
         // Chat handler (nếu không phải AI game và không phải view only)
@@ -252,7 +269,7 @@ public class GameController {
         game.setCapturedByWhite(scoreCalculator.getCapturedByWhite());
         game.setStatus(GameStatus.PAUSED);
         if (!isAIGame) {
-            GameHistoryStorage.upsert(game);
+            GamePersistence.saveGame(game);
         }
 
         if (p2pHandler != null) {
@@ -367,6 +384,38 @@ public class GameController {
         }
     }
 
+    // ==================== GỢI Ý KHI RÊ CHUỘT ====================
+
+    private void onBoardHovered(MouseEvent event) {
+        int[] gridPos = boardRenderer.pixelToGrid(event.getX(), event.getY());
+        String currentTurnId = game.getCurrentPlayerId();
+        if (gridPos == null || localPlayerId == null || !localPlayerId.equals(currentTurnId)) {
+            clearHoverHint();
+            return;
+        }
+        long hash = gameLogic.getHash();
+        if (gridPos[0] == hoverX && gridPos[1] == hoverY && hash == hoverHash) {
+            return;
+        }
+        hoverX = gridPos[0];
+        hoverY = gridPos[1];
+        hoverHash = hash;
+
+        tactics.setPosition(gameLogic);
+        boardRenderer.setHoverHint(hoverX, hoverY, tactics.hint(hoverX, hoverY, isBlack ? 1 : 2));
+        boardRenderer.drawBoard();
+    }
+
+    private void clearHoverHint() {
+        if (hoverX < 0) {
+            return;
+        }
+        hoverX = -1;
+        hoverY = -1;
+        boardRenderer.setHoverHint(-1, -1, Tactics.Hint.NONE);
+        boardRenderer.drawBoard();
+    }
+
     // ==================== AI RESPONSE ====================
 
     private void handleAIResponse(int playerX, int playerY) {
@@ -456,7 +505,7 @@ public class GameController {
         game.setCapturedByBlack(scoreCalculator.getCapturedByBlack());
         game.setCapturedByWhite(scoreCalculator.getCapturedByWhite());
         if (!isAIGame) {
-            GameHistoryStorage.upsert(game);
+            GamePersistence.saveMove(game, move);
         }
 
         Platform.runLater(() -> {
@@ -503,7 +552,7 @@ public class GameController {
         game.setCapturedByBlack(scoreCalculator.getCapturedByBlack());
         game.setCapturedByWhite(scoreCalculator.getCapturedByWhite());
         if (!isAIGame) {
-            GameHistoryStorage.upsert(game);
+            GamePersistence.saveMove(game, move);
         }
     }
 
@@ -564,7 +613,7 @@ public class GameController {
                 game.setCapturedByBlack(scoreCalculator.getCapturedByBlack());
                 game.setCapturedByWhite(scoreCalculator.getCapturedByWhite());
                 if (!isAIGame) {
-                    GameHistoryStorage.upsert(game);
+                    GamePersistence.saveGame(game);
                 }
 
                 if (p2pHandler != null) {
@@ -599,7 +648,7 @@ public class GameController {
                 game.setCapturedByWhite(scoreCalculator.getCapturedByWhite());
                 game.setStatus(GameStatus.PAUSED);
                 if (!isAIGame) {
-                    GameHistoryStorage.upsert(game);
+                    GamePersistence.saveGame(game);
                 }
 
                 if (p2pHandler != null) {
@@ -654,13 +703,18 @@ public class GameController {
     }
 
     private void showGameResult(String result) {
+        OwnershipMap ownership = scoreCalculator.getLastOwnership();
+        if (ownership != null) {
+            boardRenderer.setOwnership(ownership);
+            boardRenderer.drawBoard();
+        }
         game.setStatus(GameStatus.FINISHED);
         game.setEndedAt(System.currentTimeMillis());
         game.setScoreResult(result);
         game.setCapturedByBlack(scoreCalculator.getCapturedByBlack());
         game.setCapturedByWhite(scoreCalculator.getCapturedByWhite());
         if (!isAIGame) {
-            GameHistoryStorage.upsert(game);
+            GamePersistence.saveGame(game);
             updatePlayerRanks(result);
         }
 
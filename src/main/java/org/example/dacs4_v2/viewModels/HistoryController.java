@@ -17,7 +17,6 @@ import java.time.Instant;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.List;
 
 /**
@@ -28,7 +27,11 @@ public class HistoryController {
     @FXML
     private FlowPane historyFlow;
 
+    // Số game nạp mỗi lần (bấm "Xem thêm" để nạp trang tiếp theo)
+    private static final int PAGE_SIZE = 30;
+
     private final List<Game> finishedGames = new ArrayList<>();
+    private int finishedTotal;
 
     @FXML
     public void initialize() {
@@ -36,31 +39,21 @@ public class HistoryController {
     }
 
     /**
-     * Tải danh sách game đã kết thúc.
+     * Tải trang đầu danh sách game đã kết thúc.
      */
     private void loadFinishedGames() {
         finishedGames.clear();
-        List<Game> allGames = GameHistoryStorage.loadHistory(0);
-
-        // Lọc chỉ lấy game đã FINISHED
-        for (Game g : allGames) {
-            if (g.getStatus() == GameStatus.FINISHED) {
-                finishedGames.add(g);
-            }
-        }
-
-        // Sắp xếp theo thời gian mới nhất
-        finishedGames.sort(Comparator.comparingLong(this::getGameEndTime).reversed());
-
-        renderGames();
+        finishedTotal = GameHistoryStorage.countGames(s -> s == GameStatus.FINISHED);
+        loadNextPage();
     }
 
-    private long getGameEndTime(Game g) {
-        // Ưu tiên endedAt, fallback về startedAt
-        if (g.getEndedAt() > 0) {
-            return g.getEndedAt();
-        }
-        return g.getStartedAt() > 0 ? g.getStartedAt() : System.currentTimeMillis();
+    /**
+     * Tải thêm một trang: index phụ theo trạng thái đã xếp theo thời gian kết thúc mới nhất.
+     */
+    private void loadNextPage() {
+        finishedGames.addAll(GameHistoryStorage.loadHeaders(s -> s == GameStatus.FINISHED,
+                finishedGames.size(), PAGE_SIZE));
+        renderGames();
     }
 
     /**
@@ -86,6 +79,14 @@ public class HistoryController {
             VBox card = buildGameCard(g, myId);
             historyFlow.getChildren().add(card);
         }
+
+        if (finishedGames.size() < finishedTotal) {
+            Button btnMore = new Button("Xem thêm (" + (finishedTotal - finishedGames.size()) + ")");
+            btnMore.setStyle("-fx-cursor: hand; -fx-background-color: #e2e8f0; -fx-text-fill: #1e293b; "
+                    + "-fx-background-radius: 999;");
+            btnMore.setOnAction(e -> loadNextPage());
+            historyFlow.getChildren().add(btnMore);
+        }
     }
 
     /**
@@ -163,7 +164,9 @@ public class HistoryController {
      * Xem lại game (replay).
      */
     private void viewGameReplay(Game g) {
-        GameContext.getInstance().setCurrentGame(g);
+        // Danh sách chỉ có phần đầu của game, nạp đủ nước đi để xem lại
+        Game full = GameHistoryStorage.findGame(g.getGameId());
+        GameContext.getInstance().setCurrentGame(full != null ? full : g);
         GameContext.getInstance().setViewOnly(true);
         HelloApplication.navigateTo("game.fxml");
     }
@@ -31,7 +31,6 @@ import java.time.Instant;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.List;
 
 public class RoomsController {
@@ -58,16 +57,9 @@ public class RoomsController {
 
     private void reloadGames() {
         allGames.clear();
-        List<Game> history = GameHistoryStorage.loadHistory(0);
-        if (history != null) {
-            // Chỉ lấy game đang chơi hoặc tạm dừng (không lấy game đã kết thúc)
-            for (Game g : history) {
-                if (g.getStatus() != GameStatus.FINISHED) {
-                    allGames.add(g);
-                }
-            }
-        }
-        allGames.sort(Comparator.comparingLong(RoomsController::gameSortTime).reversed());
+        // Chỉ lấy game đang chơi hoặc tạm dừng (không lấy game đã kết thúc), không đọc nước đi.
+        // Index phụ theo trạng thái đã xếp mới nhất trước (startedAt / acceptedAt / createdAt).
+        allGames.addAll(GameHistoryStorage.loadHeaders(s -> s != GameStatus.FINISHED, 0, 0));
         renderGames();
     }
 
@@ -200,7 +192,9 @@ public class RoomsController {
     }
 
     private void openGameView(Game g) {
-        GameContext.getInstance().setCurrentGame(g);
+        // Danh sách chỉ có phần đầu của game, nạp đủ nước đi để hiển thị bàn cờ
+        Game full = GameHistoryStorage.findGame(g.getGameId());
+        GameContext.getInstance().setCurrentGame(full != null ? full : g);
         GameContext.getInstance().setViewOnly(true);
         HelloApplication.navigateTo("game.fxml");
     }
@@ -14,6 +14,7 @@ public class GameAIHandler {
     private final Game game;
     private final GoGameLogic gameLogic;
     private final boolean isPlayerBlack;
+    private GameTimerManager timerManager; // null nếu ván AI không tính giờ
 
     /**
      * Interface callback khi AI đánh xong.
@@ -32,6 +33,13 @@ public class GameAIHandler {
         this.isPlayerBlack = isPlayerBlack;
     }
 
+    /**
+     * Đồng hồ của ván để AI chia thời gian suy nghĩ theo thời gian còn lại.
+     */
+    public void setTimerManager(GameTimerManager timerManager) {
+        this.timerManager = timerManager;
+    }
+
     /**
      * Xử lý phản hồi của AI sau khi người chơi đánh.
      * 
@@ -49,13 +57,14 @@ public class GameAIHandler {
 
         // Thông báo nước đi của người chơi cho AI
         aiContext.playPlayerMove(playerX, playerY);
+        long aiTimeRemaining = timerManager != null ? timerManager.getTimeRemaining(!isPlayerBlack) : 0;
 
         // Đợi AI đánh trong background thread
         new Thread(() -> {
             try {
                 // AI suy nghĩ và đánh
                 System.out.println("[AI Game] AI đang suy nghĩ...");
-                int[] aiMove = aiContext.getAIMove();
+                int[] aiMove = aiContext.getAIMove(aiTimeRemaining);
 
                 Platform.runLater(() -> {
                     if (aiMove == null) {
@@ -6,7 +6,10 @@ import javafx.scene.paint.Color;
 import javafx.scene.paint.CycleMethod;
 import javafx.scene.paint.RadialGradient;
 import javafx.scene.paint.Stop;
+import javafx.scene.text.Font;
 import org.example.dacs4_v2.game.GoGameLogic;
+import org.example.dacs4_v2.game.OwnershipMap;
+import org.example.dacs4_v2.game.Tactics;
 import org.example.dacs4_v2.models.Game;
 import org.example.dacs4_v2.models.Moves;
 
@@ -20,6 +23,15 @@ public class GameBoardRenderer {
     private final GoGameLogic gameLogic;
     private final Game game;
 
+    // Ngưỡng sở hữu để vẽ đất ở cuối ván
+    private static final double OWNERSHIP_THRESHOLD = 0.5;
+    private OwnershipMap ownership; // null = không vẽ đất/quân chết
+
+    // Gợi ý khi rê chuột (Tactics.Hint.NONE = không vẽ)
+    private int hoverX = -1;
+    private int hoverY = -1;
+    private Tactics.Hint hoverHint = Tactics.Hint.NONE;
+
     private double cellSize;
     private double padding;
     private double boardPixelSize;
@@ -87,6 +99,87 @@ public class GameBoardRenderer {
 
         // Highlight nước đi cuối
         highlightLastMove(gc);
+
+        // Đất và quân chết khi đã tính điểm tại máy
+        if (ownership != null && ownership.getBoardSize() == boardSize) {
+            drawOwnership(gc, board);
+        }
+
+        // Gợi ý chiến thuật tại ô đang rê chuột
+        if (hoverHint != Tactics.Hint.NONE && gameLogic.isValidPosition(hoverX, hoverY)
+                && board[hoverX][hoverY] == 0) {
+            drawHoverHint(gc);
+        }
+    }
+
+    /**
+     * Đặt gợi ý cho ô đang rê chuột (Tactics.Hint.NONE để tắt). Gọi drawBoard() để vẽ lại.
+     */
+    public void setHoverHint(int gridX, int gridY, Tactics.Hint hint) {
+        this.hoverX = gridX;
+        this.hoverY = gridY;
+        this.hoverHint = hint != null ? hint : Tactics.Hint.NONE;
+    }
+
+    /**
+     * Vẽ vòng tròn tại ô đang rê chuột và nhãn gợi ý ngay phía trên.
+     * Xanh: bắt quân / thang bắt được / atari; đỏ: tự vào atari / không hợp lệ.
+     */
+    private void drawHoverHint(GraphicsContext gc) {
+        double x = padding + hoverX * cellSize;
+        double y = padding + hoverY * cellSize;
+        boolean bad = hoverHint == Tactics.Hint.SELF_ATARI || hoverHint == Tactics.Hint.ILLEGAL;
+        Color color = bad ? Color.web("#c0392b") : Color.web("#1e8449");
+
+        gc.setStroke(color);
+        gc.setLineWidth(2);
+        gc.strokeOval(x - cellSize * 0.35, y - cellSize * 0.35, cellSize * 0.7, cellSize * 0.7);
+
+        String label = hoverHint.getLabel();
+        gc.setFont(Font.font(11));
+        double textWidth = label.length() * 6.0;
+        double textX = Math.max(2, Math.min(x - textWidth / 2, boardPixelSize - textWidth - 2));
+        double textY = Math.max(12, y - cellSize * 0.5);
+        gc.setFill(Color.rgb(255, 255, 255, 0.85));
+        gc.fillRect(textX - 2, textY - 11, textWidth + 4, 14);
+        gc.setFill(color);
+        gc.fillText(label, textX, textY);
+    }
+
+    /**
+     * Đặt bản đồ ownership để vẽ đất và quân chết (null để tắt).
+     */
+    public void setOwnership(OwnershipMap ownership) {
+        this.ownership = ownership;
+    }
+
+    /**
+     * Vẽ ô vuông nhỏ màu chủ sở hữu lên các ô trống / quân chết, gạch chéo quân chết.
+     */
+    private void drawOwnership(GraphicsContext gc, int[][] board) {
+        int boardSize = gameLogic.getBoardSize();
+        double mark = cellSize * 0.3;
+        for (int x = 0; x < boardSize; x++) {
+            for (int y = 0; y < boardSize; y++) {
+                boolean dead = ownership.isDead(x, y);
+                if (board[x][y] != 0 && !dead) {
+                    continue;
+                }
+                double px = padding + x * cellSize;
+                double py = padding + y * cellSize;
+                if (dead) {
+                    gc.setStroke(Color.RED);
+                    gc.setLineWidth(2);
+                    gc.strokeLine(px - mark, py - mark, px + mark, py + mark);
+                    gc.strokeLine(px - mark, py + mark, px + mark, py - mark);
+                }
+                int owner = ownership.getOwner(x, y, OWNERSHIP_THRESHOLD);
+                if (owner != 0) {
+                    gc.setFill(owner == 1 ? Color.web("#1a1a1a") : Color.WHITE);
+                    gc.fillRect(px - mark / 2, py - mark / 2, mark, mark);
+                }
+            }
+        }
     }
 
     /**
@@ -1,6 +1,14 @@
 package org.example.dacs4_v2.viewModels.helpers;
 
 import org.example.dacs4_v2.ai.AIGameContext;
+import org.example.dacs4_v2.game.AreaScorer;
+import org.example.dacs4_v2.game.BensonAnalyzer;
+import org.example.dacs4_v2.game.GameReplayService;
+import org.example.dacs4_v2.game.OwnershipEstimator;
+import org.example.dacs4_v2.game.OwnershipMap;
+import org.example.dacs4_v2.game.ReplayResult;
+import org.example.dacs4_v2.game.ScoreResult;
+import org.example.dacs4_v2.game.ScoringRule;
 import org.example.dacs4_v2.models.Game;
 import org.example.dacs4_v2.models.Moves;
 
@@ -12,6 +20,7 @@ public class GameScoreCalculator {
     private final Game game;
     private int capturedByBlack;
     private int capturedByWhite;
+    private OwnershipMap lastOwnership; // ownership của lần đếm tại máy gần nhất (null nếu chưa có)
 
     public GameScoreCalculator(Game game) {
         this.game = game;
@@ -32,6 +41,12 @@ public class GameScoreCalculator {
 
         String scoreResult;
 
+        // Đếm tại máy trước; nếu không còn vùng tranh chấp thì không cần gọi KataGo
+        String settled = settledLocalResult();
+        if (settled != null) {
+            return settled;
+        }
+
         // Nếu KataGo chưa sẵn sàng, thử khởi động
         if (!aiContext.isKataGoReady()) {
             System.out.println("[Score] Khởi động KataGo để tính điểm...");
@@ -90,6 +105,10 @@ public class GameScoreCalculator {
         if (!aiContext.isKataGoReady()) {
             return calculateSimpleScoreResult();
         }
+        String settled = settledLocalResult();
+        if (settled != null) {
+            return settled;
+        }
 
         // Gọi KataGo tính điểm
         String rawResult = aiContext.calculateScore();
@@ -98,20 +117,84 @@ public class GameScoreCalculator {
     }
 
     /**
-     * Tính điểm đơn giản (chỉ đếm quân bắt được + komi).
+     * Tính điểm tại máy khi không có KataGo: phát lại ván, lấy quân chết chắc chắn theo Benson,
+     * dùng OwnershipEstimator cho các nhóm Benson chưa phân định được rồi đếm đất bằng AreaScorer.
      * 
      * @return chuỗi kết quả
      */
     public String calculateSimpleScoreResult() {
-        double blackScore = capturedByBlack;
-        double whiteScore = capturedByWhite + game.getKomiAsDouble();
+        int boardSize = game.getBoardSize();
+        int[][] board = finalBoard();
+        OwnershipMap ownership = estimateOwnership(board);
+        BensonAnalyzer benson = new BensonAnalyzer(boardSize);
+        long[] deadStones = benson.deadStones(board);
+        long[] settled = benson.getSettledStones();
+        long[] estimated = ownership.getDeadStones();
+        for (int i = 0; i < deadStones.length; i++) {
+            deadStones[i] |= estimated[i] & ~settled[i];
+        }
+        ScoreResult result = new AreaScorer(boardSize).score(board, deadStones, game.getKomiAsDouble(),
+                capturedByBlack, capturedByWhite, ScoringRule.AREA);
+        return formatAIScoreResult(result.toResultString());
+    }
 
-        String winner = blackScore > whiteScore ? "BLACK" : "WHITE";
-        double diff = Math.abs(blackScore - whiteScore);
+    /**
+     * Ước lượng ownership thế cờ cuối bằng playout; kết quả được giữ lại cho getLastOwnership().
+     * Số playout và thời gian chạy nằm trong OwnershipMap (không in log ở đây, để bên gọi quyết định).
+     */
+    public OwnershipMap estimateOwnership() {
+        return estimateOwnership(finalBoard());
+    }
+
+    private OwnershipMap estimateOwnership(int[][] board) {
+        int moveCount = game.getMoves() != null ? game.getMoves().size() : 0;
+        lastOwnership = new OwnershipEstimator().estimate(board, moveCount % 2 == 0 ? 1 : 2);
+        return lastOwnership;
+    }
 
-        return winner + " wins by " + diff + " points\n\n" +
-                "Black: " + blackScore + " (captured " + capturedByBlack + ")\n" +
-                "White: " + whiteScore + " (captured " + capturedByWhite + " + komi " + game.getKomiAsDouble() + ")";
+    /**
+     * Ownership của lần đếm tại máy gần nhất (null nếu điểm được tính bằng KataGo).
+     */
+    public OwnershipMap getLastOwnership() {
+        return lastOwnership;
+    }
+
+    /**
+     * Kết quả đếm tại máy đã format nếu thế cờ đã rõ (mọi quân pass-alive hoặc chắc chắn chết,
+     * không còn ô trung lập), null nếu cần KataGo / OwnershipEstimator.
+     */
+    private String settledLocalResult() {
+        ScoreResult local = scoreLocally();
+        if (!local.isSettled()) {
+            return null;
+        }
+        System.out.println("[Score] Thế cờ đã rõ, dùng kết quả đếm tại máy: " + local.toResultString());
+        return formatAIScoreResult(local.toResultString());
+    }
+
+    /**
+     * Đếm điểm thế cờ cuối của game bằng AreaScorer. Quân nằm trong đất pass-alive
+     * của đối phương (BensonAnalyzer) được tính là quân chết; quân không pass-alive cũng không
+     * chắc chắn chết làm kết quả chưa settled.
+     */
+    public ScoreResult scoreLocally() {
+        int boardSize = game.getBoardSize();
+        int[][] board = finalBoard();
+        BensonAnalyzer benson = new BensonAnalyzer(boardSize);
+        long[] deadStones = benson.deadStones(board);
+        return new AreaScorer(boardSize).score(board, deadStones, benson.getSettledStones(), game.getKomiAsDouble(),
+                capturedByBlack, capturedByWhite, ScoringRule.AREA);
+    }
+
+    /**
+     * Thế cờ cuối của game, phát lại từ danh sách nước đi.
+     */
+    private int[][] finalBoard() {
+        ReplayResult replay = GameReplayService.replay(game);
+        int boardSize = game.getBoardSize();
+        return replay != null && replay.getFinalBoard().length == boardSize
+                ? replay.getFinalBoard()
+                : new int[boardSize][boardSize];
     }
 
     /**
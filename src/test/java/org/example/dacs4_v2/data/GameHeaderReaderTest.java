@@ -0,0 +1,97 @@
+package org.example.dacs4_v2.data;
+
+import static org.example.dacs4_v2.data.GameHistoryStorageTest.game;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.example.dacs4_v2.models.Game;
+import org.example.dacs4_v2.models.GameStatus;
+import org.example.dacs4_v2.models.Moves;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * GameHeaderReader: readHeader() dừng ở field "moves" (phần sau không được đọc), readGames() đọc
+ * lần lượt từng game của game_history.json cũ.
+ */
+class GameHeaderReaderTest {
+
+    @TempDir
+    File dir;
+
+    @BeforeEach
+    void useTempDir() {
+        DataStorage.setDataDir(dir);
+    }
+
+    @AfterEach
+    void restoreDataDir() {
+        DataStorage.setDataDir(new File("data"));
+    }
+
+    @Test
+    void headerOfSavedGameHasNoMoves() {
+        Game game = game("g1", 5, GameStatus.FINISHED);
+        game.setCapturedByBlack(7);
+        game.addMove(new Moves(1, "BLACK", 3, 3, "g1"));
+        DataStorage.save(game, "g1.json");
+
+        Game header = GameHeaderReader.readHeader(new File(dir, "g1.json"));
+        assertNotNull(header);
+        assertEquals("g1", header.getGameId());
+        assertEquals(GameStatus.FINISHED, header.getStatus());
+        assertEquals(5, header.getCreatedAt());
+        assertEquals(7, header.getCapturedByBlack());
+        assertTrue(header.getMoves().isEmpty());
+    }
+
+    @Test
+    void headerStopsAtMoves() throws IOException {
+        // Phần sau "moves" không phải JSON hợp lệ: đọc được header nghĩa là không đụng tới nó
+        File file = new File(dir, "torn.json");
+        Files.writeString(file.toPath(), "{\"gameId\":\"g1\",\"status\":\"PAUSED\",\"moves\":[{\"order\":1,",
+                StandardCharsets.UTF_8);
+
+        Game header = GameHeaderReader.readHeader(file);
+        assertNotNull(header);
+        assertEquals("g1", header.getGameId());
+        assertEquals(GameStatus.PAUSED, header.getStatus());
+    }
+
+    @Test
+    void legacyGamesAreReadOneByOne() throws IOException {
+        Game first = game("g2", 2, GameStatus.FINISHED);
+        first.addMove(new Moves(1, "BLACK", 3, 3, "g2"));
+        DataStorage.save(Map.of("games", List.of(first, game("g1", 1, GameStatus.PAUSED))), "game_history.json");
+
+        List<Game> games = new ArrayList<>();
+        assertEquals(2, GameHeaderReader.readGames(new File(dir, "game_history.json"), games::add));
+        assertEquals("g2", games.get(0).getGameId());
+        assertEquals(1, games.get(0).getMoves().size());
+        assertEquals("g1", games.get(1).getGameId());
+
+        assertEquals(0, GameHeaderReader.readGames(new File(dir, "missing.json"), games::add));
+    }
+
+    @Test
+    void corruptLegacyFileIsReported() throws IOException {
+        File file = new File(dir, "game_history.json");
+        Files.writeString(file.toPath(), "{\"games\":[{\"gameId\":\"g1\"},{\"gameId\":", StandardCharsets.UTF_8);
+
+        List<Game> games = new ArrayList<>();
+        assertThrows(IOException.class, () -> GameHeaderReader.readGames(file, games::add));
+        assertEquals(1, games.size());
+    }
+}
@@ -0,0 +1,201 @@
+package org.example.dacs4_v2.data;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+import org.example.dacs4_v2.models.Game;
+import org.example.dacs4_v2.models.GameStatus;
+import org.example.dacs4_v2.models.Moves;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * GameHistoryStorage trên thư mục dữ liệu tạm: mỗi game một file cùng index.json, dựng lại index khi mất,
+ * tách game_history.json cũ, recover() áp journal còn lại vào file của từng game, và loadHeaders() phân trang
+ * theo trạng thái có tính cả các lần ghi chưa xong của GamePersistence.
+ */
+class GameHistoryStorageTest {
+
+    @TempDir
+    File dir;
+
+    @BeforeEach
+    void useTempDir() {
+        GamePersistence.flush();
+        DataStorage.setDataDir(dir);
+        GameHistoryStorage.reset();
+    }
+
+    @AfterEach
+    void restoreDataDir() {
+        GamePersistence.flush();
+        DataStorage.setDataDir(new File("data"));
+        GameHistoryStorage.reset();
+    }
+
+    @Test
+    void upsertWritesOneFilePerGameAndIndex() {
+        GameHistoryStorage.upsert(game("g1", 1, GameStatus.PLAYING));
+        GameHistoryStorage.upsert(game("g2", 2, GameStatus.FINISHED));
+        GameHistoryStorage.upsert(game("a/b", 3, GameStatus.PAUSED));
+
+        assertTrue(new File(dir, "games/g1.json").isFile());
+        assertTrue(new File(dir, "games/g2.json").isFile());
+        assertTrue(new File(dir, "games/index.json").isFile());
+        // Ký tự không hợp lệ trong tên file bị thay, thêm seq để không trùng
+        assertTrue(new File(dir, "games/a_b-2.json").isFile());
+
+        Game updated = game("g1", 1, GameStatus.FINISHED);
+        GameHistoryStorage.upsert(updated);
+        assertEquals(3, new File(dir, "games").list((d, name) -> !name.equals("index.json")).length);
+        assertEquals(GameStatus.FINISHED, GameHistoryStorage.findGame("g1").getStatus());
+        assertEquals(GameStatus.PAUSED, GameHistoryStorage.findGame("a/b").getStatus());
+    }
+
+    @Test
+    void missingIndexIsRebuiltFromShards() {
+        GameHistoryStorage.upsert(game("g2", 20, GameStatus.FINISHED));
+        GameHistoryStorage.upsert(game("g1", 10, GameStatus.PLAYING));
+        assertTrue(new File(dir, "games/index.json").delete());
+        GameHistoryStorage.reset();
+
+        // Không còn thứ tự thêm vào: dựng lại theo thời gian tạo
+        assertEquals(List.of("g2", "g1"), ids(GameHistoryStorage.loadHistory(0)));
+        assertEquals(GameStatus.PLAYING, GameHistoryStorage.findGame("g1").getStatus());
+        assertTrue(new File(dir, "games/index.json").isFile());
+    }
+
+    @Test
+    void legacyHistoryIsMigratedAndRenamed() {
+        // game_history.json cũ: mới nhất ở đầu danh sách
+        Game newer = game("g2", 2, GameStatus.FINISHED);
+        newer.addMove(new Moves(1, "BLACK", 3, 3, "g2"));
+        DataStorage.save(Map.of("games", List.of(newer, game("g1", 1, GameStatus.PAUSED))), "game_history.json");
+
+        assertEquals(List.of("g2", "g1"), ids(GameHistoryStorage.loadHistory(0)));
+        assertEquals(1, GameHistoryStorage.findGame("g2").getMoves().size());
+        assertTrue(new File(dir, "games/g1.json").isFile());
+        assertFalse(new File(dir, "game_history.json").exists());
+        assertTrue(new File(dir, "game_history.json.bak").isFile());
+
+        // Lần chạy sau đọc index, không tách lại
+        GameHistoryStorage.reset();
+        assertEquals(List.of("g2", "g1"), ids(GameHistoryStorage.loadHistory(0)));
+    }
+
+    @Test
+    void recoverReplaysJournalIntoShards() {
+        Game game = game("g1", 1, GameStatus.PLAYING);
+        game.addMove(new Moves(1, "BLACK", 3, 3, "g1"));
+        GameHistoryStorage.upsert(game);
+        List<byte[]> records = new ArrayList<>();
+        for (int i = 2; i <= 3; i++) {
+            Moves move = new Moves(i, i % 2 == 0 ? "WHITE" : "BLACK", i, i, "g1");
+            game.addMove(move);
+            game.setCapturedByWhite(i);
+            records.add(GameHistoryStorage.journalRecord(game, move));
+        }
+        GameHistoryStorage.appendRecords(records);
+
+        // Lần chạy trước bị tắt trước lần upsert() tiếp theo
+        GameHistoryStorage.reset();
+        GameHistoryStorage.recover();
+
+        assertEquals(0, new File(dir, "moves.journal").length());
+        Game shard = DataStorage.load("games/g1.json", Game.class);
+        assertNotNull(shard);
+        assertEquals(3, shard.getMoves().size());
+        assertEquals(3, shard.getMoves().get(2).getX());
+        assertEquals(3, shard.getCapturedByWhite());
+    }
+
+    @Test
+    void loadHeadersPagesNewestFirst() {
+        for (int i = 0; i < 7; i++) {
+            Game game = finished("f" + i, 10 + i);
+            game.addMove(new Moves(1, "BLACK", 3, 3, game.getGameId()));
+            GameHistoryStorage.upsert(game);
+        }
+        GameHistoryStorage.upsert(game("p0", 1, GameStatus.PLAYING));
+        Predicate<GameStatus> finished = s -> s == GameStatus.FINISHED;
+
+        assertEquals(List.of("f6", "f5", "f4"), ids(GameHistoryStorage.loadHeaders(finished, 0, 3)));
+        assertEquals(List.of("f3", "f2", "f1"), ids(GameHistoryStorage.loadHeaders(finished, 3, 3)));
+        assertEquals(List.of("f0"), ids(GameHistoryStorage.loadHeaders(finished, 6, 0)));
+        assertTrue(GameHistoryStorage.loadHeaders(finished, 7, 3).isEmpty());
+        assertTrue(GameHistoryStorage.loadHeaders(finished, 0, 1).get(0).getMoves().isEmpty());
+        assertEquals(7, GameHistoryStorage.countGames(finished));
+        assertEquals(List.of("p0"), ids(GameHistoryStorage.loadHeaders(s -> s == GameStatus.PLAYING, 0, 0)));
+    }
+
+    @Test
+    void loadHeadersSeesPendingWrites() {
+        for (int i = 0; i < 3; i++) {
+            GameHistoryStorage.upsert(finished("f" + i, 10 + i));
+        }
+        Game playing = game("p0", 1, GameStatus.PLAYING);
+        GameHistoryStorage.upsert(playing);
+        Predicate<GameStatus> finished = s -> s == GameStatus.FINISHED;
+
+        // Luồng ghi dừng ở upsert() cho tới khi nhả khóa: mọi thứ dưới đây chỉ có trong pending()
+        synchronized (GameHistoryStorage.class) {
+            GamePersistence.saveGame(finished("f3", 5));
+            playing.setStatus(GameStatus.FINISHED);
+            playing.setEndedAt(100);
+            GamePersistence.saveGame(playing);
+            Moves move = new Moves(1, "BLACK", 3, 3, "p0");
+            playing.addMove(move);
+            playing.setCapturedByBlack(4);
+            GamePersistence.saveMove(playing, move);
+
+            assertPages(finished);
+            Game header = GameHistoryStorage.loadHeaders(finished, 0, 1).get(0);
+            assertEquals(4, header.getCapturedByBlack());
+            assertTrue(header.getMoves().isEmpty());
+        }
+        GamePersistence.flush();
+        GameHistoryStorage.reset();
+        assertPages(finished);
+        assertEquals(4, GameHistoryStorage.loadHeaders(finished, 0, 1).get(0).getCapturedByBlack());
+    }
+
+    private static void assertPages(Predicate<GameStatus> finished) {
+        assertEquals(List.of("p0", "f2"), ids(GameHistoryStorage.loadHeaders(finished, 0, 2)));
+        assertEquals(List.of("f1", "f0"), ids(GameHistoryStorage.loadHeaders(finished, 2, 2)));
+        assertEquals(List.of("f3"), ids(GameHistoryStorage.loadHeaders(finished, 4, 2)));
+        assertEquals(5, GameHistoryStorage.countGames(finished));
+        assertTrue(GameHistoryStorage.loadHeaders(s -> s == GameStatus.PLAYING, 0, 0).isEmpty());
+        assertEquals(0, GameHistoryStorage.countGames(s -> s == GameStatus.PLAYING));
+    }
+
+    private static Game finished(String gameId, long endedAt) {
+        Game game = game(gameId, 1, GameStatus.FINISHED);
+        game.setEndedAt(endedAt);
+        return game;
+    }
+
+    static Game game(String gameId, long createdAt, GameStatus status) {
+        Game game = new Game(gameId, "host", "black", "white", 9, 6, "test");
+        game.setCreatedAt(createdAt);
+        game.setStatus(status);
+        return game;
+    }
+
+    static List<String> ids(List<Game> games) {
+        List<String> ids = new ArrayList<>();
+        for (Game g : games) {
+            ids.add(g.getGameId());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,100 @@
+package org.example.dacs4_v2.data;
+
+import static org.example.dacs4_v2.data.GameHistoryStorageTest.game;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+
+import org.example.dacs4_v2.models.Game;
+import org.example.dacs4_v2.models.GameStatus;
+import org.example.dacs4_v2.models.Moves;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Ghi write-behind trên thư mục dữ liệu tạm: các lần lưu cùng game được gộp thành bản chụp mới nhất
+ * (nước đi cũ hơn bản chụp bị bỏ), và flush() trả về khi mọi yêu cầu đã nằm trên đĩa.
+ *
+ * Giữ khóa GameHistoryStorage.class thì luồng ghi dừng ở upsert(), nên hàng đợi quan sát được
+ * qua pending() mà không phụ thuộc vào WINDOW_MS.
+ */
+class GamePersistenceTest {
+
+    @TempDir
+    File dir;
+
+    @BeforeEach
+    void useTempDir() {
+        GamePersistence.flush();
+        DataStorage.setDataDir(dir);
+        GameHistoryStorage.reset();
+    }
+
+    @AfterEach
+    void restoreDataDir() {
+        GamePersistence.flush();
+        DataStorage.setDataDir(new File("data"));
+        GameHistoryStorage.reset();
+    }
+
+    @Test
+    void savesOfOneGameAreCoalesced() {
+        Game game = game("g1", 1, GameStatus.PLAYING);
+        synchronized (GameHistoryStorage.class) {
+            GamePersistence.saveGame(game);
+            play(game, 3, 3);
+            play(game, 4, 4);
+            assertEquals(2, GamePersistence.pending().records.size());
+
+            game.setStatus(GameStatus.PAUSED);
+            GamePersistence.saveGame(game);
+            GamePersistence.Pending pending = GamePersistence.pending();
+            assertEquals(1, pending.games.size());
+            assertEquals(GameStatus.PAUSED, pending.games.get("g1").getStatus());
+            // Hai nước trước đã nằm trong bản chụp
+            assertTrue(pending.records.isEmpty());
+
+            play(game, 5, 5);
+            assertEquals(1, GamePersistence.pending().records.size());
+        }
+        GamePersistence.flush();
+
+        // Chỉ nước sau bản chụp cuối còn trong journal
+        assertEquals(MoveLog.RECORD_SIZE, new File(dir, "moves.journal").length());
+        GameHistoryStorage.reset();
+        Game stored = GameHistoryStorage.findGame("g1");
+        assertEquals(GameStatus.PAUSED, stored.getStatus());
+        assertEquals(3, stored.getMoves().size());
+    }
+
+    @Test
+    void flushWaitsForEveryPendingWrite() {
+        for (int i = 0; i < 5; i++) {
+            Game game = game("g" + i, i, GameStatus.PLAYING);
+            GamePersistence.saveGame(game);
+            for (int j = 0; j <= i; j++) {
+                play(game, j, i);
+            }
+        }
+        GamePersistence.flush();
+
+        GamePersistence.Pending pending = GamePersistence.pending();
+        assertTrue(pending.games.isEmpty());
+        assertTrue(pending.records.isEmpty());
+        // Đọc lại từ đĩa như lần chạy sau
+        GameHistoryStorage.reset();
+        for (int i = 0; i < 5; i++) {
+            assertEquals(i + 1, GameHistoryStorage.findGame("g" + i).getMoves().size());
+        }
+    }
+
+    private static void play(Game game, int x, int y) {
+        int order = game.getMoves().size() + 1;
+        Moves move = new Moves(order, order % 2 == 1 ? "BLACK" : "WHITE", x, y, game.getGameId());
+        game.addMove(move);
+        GamePersistence.saveMove(game, move);
+    }
+}
@@ -0,0 +1,161 @@
+package org.example.dacs4_v2.data;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.List;
+import java.util.Map;
+
+import org.example.dacs4_v2.models.Game;
+import org.example.dacs4_v2.models.Moves;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * MoveLog trên file tạm: ghi nối rồi đọc lại đúng từng nước và trạng thái mới nhất, bản ghi dở / sai CRC
+ * ở cuối file bị bỏ, và gameId dài hơn 16 byte UTF-8 không được ghi nối.
+ */
+class MoveLogTest {
+
+    @TempDir
+    File dir;
+
+    @Test
+    void appendedMovesReplayInOrder() throws IOException {
+        MoveLog log = new MoveLog(new File(dir, "moves.journal"));
+        Game game = game("g1");
+        List<byte[]> first = List.of(play(game, 3, 3, 0, 0), play(game, 4, 4, 0, 0));
+        log.append(first);
+        log.append(List.of(play(game, 5, 5, 1, 0)));
+
+        Game restored = game("g1");
+        assertEquals(3, log.replay(id -> id.equals("g1") ? restored : null));
+        assertEquals(3, restored.getMoves().size());
+        for (int i = 0; i < 3; i++) {
+            Moves expected = game.getMoves().get(i);
+            Moves actual = restored.getMoves().get(i);
+            assertEquals(expected.getOrder(), actual.getOrder());
+            assertEquals(expected.getPlayer(), actual.getPlayer());
+            assertEquals(expected.getX(), actual.getX());
+            assertEquals(expected.getY(), actual.getY());
+            assertEquals(expected.getPlayerTimeRemainingMs(), actual.getPlayerTimeRemainingMs());
+        }
+        assertEquals(1, restored.getCapturedByBlack());
+        assertEquals(game.getBlackTimeMs(), restored.getBlackTimeMs());
+
+        // Nước đã có trong game không bị thêm lần nữa
+        assertEquals(0, log.replay(id -> restored));
+        assertEquals(3, restored.getMoves().size());
+    }
+
+    @Test
+    void replayHeadersOnlyUpdatesState() throws IOException {
+        MoveLog log = new MoveLog(new File(dir, "moves.journal"));
+        Game game = game("g1");
+        log.append(List.of(play(game, 3, 3, 0, 0), play(game, 4, 4, 0, 2)));
+
+        Game header = game("g1");
+        log.replayHeaders(id -> header);
+        assertTrue(header.getMoves().isEmpty());
+        assertEquals(2, header.getCapturedByWhite());
+        assertEquals(game.getWhiteTimeMs(), header.getWhiteTimeMs());
+    }
+
+    @Test
+    void tornTrailingRecordIsDropped() throws IOException {
+        File file = new File(dir, "moves.journal");
+        MoveLog log = new MoveLog(file);
+        Game game = game("g1");
+        log.append(List.of(play(game, 3, 3, 0, 0), play(game, 4, 4, 0, 0)));
+        byte[] third = play(game, 5, 5, 0, 0);
+        // App bị tắt giữa lúc ghi bản ghi thứ ba
+        try (RandomAccessFile out = new RandomAccessFile(file, "rw")) {
+            out.seek(out.length());
+            out.write(third, 0, MoveLog.RECORD_SIZE / 2);
+        }
+
+        Game restored = game("g1");
+        assertEquals(2, new MoveLog(file).replay(id -> restored));
+        assertEquals(2, restored.getMoves().size());
+    }
+
+    @Test
+    void corruptTrailingRecordIsDropped() throws IOException {
+        File file = new File(dir, "moves.journal");
+        MoveLog log = new MoveLog(file);
+        Game game = game("g1");
+        log.append(List.of(play(game, 3, 3, 0, 0), play(game, 4, 4, 0, 0), play(game, 5, 5, 0, 0)));
+        try (RandomAccessFile out = new RandomAccessFile(file, "rw")) {
+            long x = 2L * MoveLog.RECORD_SIZE + MoveLog.MAX_GAME_ID_BYTES + 10;
+            out.seek(x);
+            int b = out.read();
+            out.seek(x);
+            out.write(b ^ 0xFF);
+        }
+
+        Game restored = game("g1");
+        assertEquals(2, new MoveLog(file).replay(id -> restored));
+        assertEquals(4, restored.getMoves().get(1).getX());
+    }
+
+    @Test
+    void truncateEmptiesLog() throws IOException {
+        MoveLog log = new MoveLog(new File(dir, "moves.journal"));
+        Game game = game("g1");
+        log.append(List.of(play(game, 3, 3, 0, 0)));
+        assertFalse(log.isEmpty());
+        log.truncate();
+        assertTrue(log.isEmpty());
+        assertEquals(0, log.replay(id -> game("g1")));
+    }
+
+    @Test
+    void gameIdLongerThanSixteenBytesIsRejected() {
+        assertTrue(MoveLog.fits("0123456789abcdef"));
+        assertFalse(MoveLog.fits("0123456789abcdefg"));
+        // 15 ký tự nhưng "ờ" chiếm 3 byte UTF-8
+        assertFalse(MoveLog.fits("ván-cờ-12345678"));
+        assertFalse(MoveLog.fits(null));
+
+        Game game = game("0123456789abcdefg");
+        Moves move = new Moves(1, "BLACK", 3, 3, game.getGameId());
+        game.addMove(move);
+        assertThrows(IllegalArgumentException.class, () -> MoveLog.encode(game, move, 0));
+        // GameHistoryStorage chuyển sang lưu cả game thay vì ghi nối
+        assertNull(GameHistoryStorage.journalRecord(game, move));
+    }
+
+    @Test
+    void inMemoryRecordsReplayLikeTheFile() {
+        Game game = game("g1");
+        List<byte[]> records = List.of(play(game, 3, 3, 0, 0), play(game, 4, 4, 0, 0));
+        Game restored = game("g1");
+        assertEquals(2, MoveLog.replay(records, Map.of("g1", restored)::get));
+        assertEquals(2, restored.getMoves().size());
+    }
+
+    private static Game game(String gameId) {
+        return new Game(gameId, "host", "black", "white", 9, 6, "test");
+    }
+
+    /**
+     * Thêm nước (x, y) vào game, cập nhật số quân bắt / đồng hồ, và trả về bản ghi của nước đó.
+     */
+    private static byte[] play(Game game, int x, int y, int capturedByBlack, int capturedByWhite) {
+        int index = game.getMoves().size();
+        String player = index % 2 == 0 ? "BLACK" : "WHITE";
+        Moves move = new Moves(index + 1, player, x, y, game.getGameId(), 60_000 - index, 1000 + index);
+        game.addMove(move);
+        game.setCapturedByBlack(capturedByBlack);
+        game.setCapturedByWhite(capturedByWhite);
+        game.setBlackTimeMs(600_000 - index * 10L);
+        game.setWhiteTimeMs(600_000 - index * 20L);
+        return MoveLog.encode(game, move, index);
+    }
+}
@@ -0,0 +1,153 @@
+package org.example.dacs4_v2.game;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * AreaScorer trên các thế cờ nhỏ dựng tay, kết quả tính sẵn: đất và quân, komi (kể cả hòa và thua
+ * nửa điểm), ô trung lập (dame, khí chung của seki), quân chết và dấu của chênh lệch điểm theo cả hai luật.
+ * Hàng thứ x của thế cờ là board[x][...]: 'B' đen, 'W' trắng, '.' trống.
+ */
+class AreaScorerTest {
+
+    private static final double DELTA = 1e-9;
+
+    // Tường đen ở cột 2, tường trắng ở cột 3: đen 10 ô đất, trắng 5 ô đất
+    private static final String[] SPLIT = {
+            "..BW.",
+            "..BW.",
+            "..BW.",
+            "..BW.",
+            "..BW.",
+    };
+
+    @Test
+    void emptyBoardIsAllNeutral() {
+        ScoreResult r = score(new String[] { ".....", ".....", ".....", ".....", "....." }, 6.5, ScoringRule.AREA);
+        assertEquals(25, r.getNeutralPoints());
+        assertEquals(0, r.getBlackScore(), DELTA);
+        assertEquals(6.5, r.getWhiteScore(), DELTA);
+        assertEquals(-6.5, r.getMargin(), DELTA);
+        assertEquals("W+6.5", r.toResultString());
+    }
+
+    @Test
+    void areaCountsStonesAndTerritory() {
+        ScoreResult r = score(SPLIT, 0.5, ScoringRule.AREA);
+        assertEquals(5, r.getBlackStones());
+        assertEquals(5, r.getWhiteStones());
+        assertEquals(10, r.getBlackTerritory());
+        assertEquals(5, r.getWhiteTerritory());
+        assertEquals(0, r.getNeutralPoints());
+        assertEquals(15, r.getBlackScore(), DELTA);
+        assertEquals(10.5, r.getWhiteScore(), DELTA);
+        assertEquals(4.5, r.getMargin(), DELTA);
+        assertEquals("B+4.5", r.toResultString());
+    }
+
+    @Test
+    void komiDecidesCloseGames() {
+        assertEquals("W+0.5", score(SPLIT, 5.5, ScoringRule.AREA).toResultString());
+        ScoreResult tie = score(SPLIT, 5, ScoringRule.AREA);
+        assertEquals(0, tie.getMargin(), DELTA);
+        assertEquals("0", tie.toResultString());
+    }
+
+    @Test
+    void territoryCountsCapturesInsteadOfStones() {
+        ScoreResult r = new AreaScorer(5).score(board(SPLIT), 0.5, 2, 3, ScoringRule.TERRITORY);
+        // Đen 10 đất + 2 quân bắt, trắng 5 đất + 3 quân bắt + 0.5
+        assertEquals(12, r.getBlackScore(), DELTA);
+        assertEquals(8.5, r.getWhiteScore(), DELTA);
+        assertEquals(3.5, r.getMargin(), DELTA);
+        // Luật AREA bỏ qua quân bắt
+        assertEquals(4.5, new AreaScorer(5).score(board(SPLIT), 0.5, 2, 3, ScoringRule.AREA).getMargin(), DELTA);
+    }
+
+    @Test
+    void dameIsNeutral() {
+        String[] dame = { "BB.WW", "BB.WW", "BB.WW", "BB.WW", "BB.WW" };
+        ScoreResult r = score(dame, 0, ScoringRule.AREA);
+        assertEquals(5, r.getNeutralPoints());
+        assertEquals(0, r.getBlackTerritory());
+        assertEquals(0, r.getWhiteTerritory());
+        assertEquals(0, r.getMargin(), DELTA);
+        assertFalse(r.isSettled());
+    }
+
+    @Test
+    void sekiStonesLiveAndSharedLibertiesAreNeutral() {
+        // Nhóm trắng cột 2-3 và nhóm đen cột 4 không có mắt, chung đúng hai khí (0, 3) và (2, 3)
+        String[] seki = {
+                ".BW.BW.",
+                ".BWWBW.",
+                ".BW.BW.",
+                ".BWWBW.",
+                ".BWWBW.",
+                ".BWWBW.",
+                ".BWWBW.",
+        };
+        ScoreResult r = new AreaScorer(7).score(board(seki), 7.5, 0, 0, ScoringRule.AREA);
+        assertEquals(14, r.getBlackStones());
+        assertEquals(19, r.getWhiteStones());
+        assertEquals(7, r.getBlackTerritory());
+        assertEquals(7, r.getWhiteTerritory());
+        assertEquals(2, r.getNeutralPoints());
+        assertEquals(0, r.getDeadBlack() + r.getDeadWhite());
+        assertEquals(21 - 26 - 7.5, r.getMargin(), DELTA);
+        assertEquals("W+12.5", r.toResultString());
+    }
+
+    @Test
+    void deadStonesCountForTheOpponent() {
+        // Quân trắng ở (0, 0) nằm trong đất đen
+        String[] position = SPLIT.clone();
+        position[0] = "W.BW.";
+        AreaScorer scorer = new AreaScorer(5);
+
+        // Không đánh dấu chết: quân trắng làm vùng bên trái thành trung lập
+        ScoreResult alive = scorer.score(board(position), 0.5, 0, 0, ScoringRule.AREA);
+        assertEquals(9, alive.getNeutralPoints());
+        assertEquals(-6.5, alive.getMargin(), DELTA);
+
+        long[] dead = { 1L };
+        ScoreResult area = scorer.score(board(position), dead, 0.5, 0, 0, ScoringRule.AREA);
+        assertEquals(1, area.getDeadWhite());
+        assertEquals(5, area.getWhiteStones());
+        assertEquals(10, area.getBlackTerritory());
+        assertEquals(4.5, area.getMargin(), DELTA);
+
+        // TERRITORY: quân chết tính như quân bị bắt
+        ScoreResult territory = scorer.score(board(position), dead, 0.5, 0, 0, ScoringRule.TERRITORY);
+        assertEquals(11, territory.getBlackScore(), DELTA);
+        assertEquals(5.5, territory.getWhiteScore(), DELTA);
+        assertEquals("B+5.5", territory.toResultString());
+    }
+
+    @Test
+    void settledNeedsEveryStoneSettledAndNoNeutralPoints() {
+        AreaScorer scorer = new AreaScorer(5);
+        long[] all = { (1L << 25) - 1 };
+        assertTrue(scorer.score(board(SPLIT), null, all, 0.5, 0, 0, ScoringRule.AREA).isSettled());
+        assertFalse(scorer.score(board(SPLIT), 0.5, 0, 0, ScoringRule.AREA).isSettled());
+    }
+
+    private static ScoreResult score(String[] rows, double komi, ScoringRule rule) {
+        return new AreaScorer(rows.length).score(board(rows), komi, 0, 0, rule);
+    }
+
+    private static int[][] board(String[] rows) {
+        int n = rows.length;
+        int[][] board = new int[n][n];
+        for (int x = 0; x < n; x++) {
+            for (int y = 0; y < n; y++) {
+                char c = rows[x].charAt(y);
+                board[x][y] = c == 'B' ? 1 : c == 'W' ? 2 : 0;
+            }
+        }
+        return board;
+    }
+}
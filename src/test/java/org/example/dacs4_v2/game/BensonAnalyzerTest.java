@@ -0,0 +1,101 @@
+package org.example.dacs4_v2.game;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * BensonAnalyzer trên các ván ngẫu nhiên đã đánh kín bàn (không tự lấp mắt): cho đối phương đi
+ * ngẫu nhiên liên tục (màu đang xét luôn pass), quân pass-alive không bao giờ bị bắt. Kèm theo:
+ * kết quả đếm tại máy chỉ settled khi mọi quân đã rõ sống / chết, không chỉ khi hết ô trung lập.
+ */
+class BensonAnalyzerTest {
+
+    private static final int POSITIONS = 32;
+    private static final int ATTACKS = 50;
+
+    @Test
+    void passAliveStonesSurviveRandomAttacks() {
+        for (int size : new int[] { 9, 13, 19 }) {
+            Random random = new Random(size);
+            BensonAnalyzer analyzer = new BensonAnalyzer(size);
+            long alive = 0;
+            for (int i = 0; i < POSITIONS; i++) {
+                GoGameLogic logic = RandomGames.finished(size, random);
+                for (int color = 1; color <= 2; color++) {
+                    analyzer.analyze(logic.getBoard(), color);
+                    long[] stones = analyzer.getPassAliveStones().clone();
+                    alive += count(stones);
+                    checkSound(logic, stones, color, random, size + "x" + size + ", thế cờ " + i);
+                }
+            }
+            // Ván kín bàn gần như luôn có nhóm hai mắt: không có thì phép thử trên vô nghĩa
+            assertTrue(alive > 0, "không tìm thấy quân pass-alive nào trên bàn " + size + "x" + size);
+        }
+    }
+
+    @Test
+    void wallWithoutEyesIsNotSettled() {
+        // Một bức tường đen chia đôi bàn: mọi ô trống là đất đen nhưng tường chưa có hai mắt
+        int[][] board = new int[9][9];
+        for (int y = 0; y < 9; y++) {
+            board[4][y] = 1;
+        }
+        ScoreResult result = scoreLocally(board);
+        assertEquals(0, result.getNeutralPoints());
+        assertEquals(9, result.getUnsettledStones());
+        assertFalse(result.isSettled());
+    }
+
+    @Test
+    void groupWithTwoEyesIsSettled() {
+        // Cả bàn đen trừ hai mắt một ô ở hai góc: pass-alive, không còn gì chưa rõ
+        int[][] board = new int[9][9];
+        for (int[] row : board) {
+            Arrays.fill(row, 1);
+        }
+        board[0][0] = 0;
+        board[8][8] = 0;
+        ScoreResult result = scoreLocally(board);
+        assertEquals(0, result.getUnsettledStones());
+        assertTrue(result.isSettled());
+    }
+
+    private static ScoreResult scoreLocally(int[][] board) {
+        BensonAnalyzer benson = new BensonAnalyzer(board.length);
+        long[] dead = benson.deadStones(board);
+        return new AreaScorer(board.length).score(board, dead, benson.getSettledStones(), 6.5, 0, 0,
+                ScoringRule.AREA);
+    }
+
+    private static void checkSound(GoGameLogic logic, long[] alive, int color, Random random, String where) {
+        int n = logic.getBoardSize();
+        int opp = color == 1 ? 2 : 1;
+        for (int a = 0; a < ATTACKS; a++) {
+            GoGameLogic sim = new GoGameLogic(n, logic.getBoard(), logic.getPrevBoard(), EngineMode.INCREMENTAL);
+            for (int m = 0; m < n * n * 2; m++) {
+                int p = random.nextInt(n * n);
+                sim.applyMove(p / n, p % n, opp, true);
+            }
+            for (int p = 0; p < n * n; p++) {
+                if ((alive[p >>> 6] & (1L << p)) != 0) {
+                    assertEquals(color, sim.getCell(p / n, p % n),
+                            "quân pass-alive tại (" + p / n + ", " + p % n + ") bị bắt, " + where);
+                }
+            }
+        }
+    }
+
+    private static long count(long[] mask) {
+        long total = 0;
+        for (long word : mask) {
+            total += Long.bitCount(word);
+        }
+        return total;
+    }
+}
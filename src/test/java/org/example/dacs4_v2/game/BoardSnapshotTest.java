@@ -0,0 +1,63 @@
+package org.example.dacs4_v2.game;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * BoardSnapshot phải khớp GoGameLogic (cùng nước hợp lệ, cùng bàn cờ, cùng hash) khi đi song song
+ * bằng nước ngẫu nhiên (kể cả nước sai luật), snapshot cũ không bị đổi khi rẽ nhánh, và play() chỉ
+ * chép hàng có ô thay đổi.
+ */
+class BoardSnapshotTest {
+
+    private static final int GAMES = 200;
+
+    @Test
+    void matchesGoGameLogicAndKeepsHistory() {
+        for (int size : new int[] { 9, 13, 19 }) {
+            Random random = new Random(size);
+            for (int g = 0; g < GAMES; g++) {
+                GoGameLogic logic = new GoGameLogic(size, EngineMode.INCREMENTAL);
+                BoardSnapshot s = BoardSnapshot.empty(size);
+                int moves = size * size * 2;
+                BoardSnapshot[] history = new BoardSnapshot[moves + 1];
+                int[][][] boards = new int[moves + 1][][];
+                history[0] = s;
+                boards[0] = s.toArray();
+                int color = 1;
+                for (int m = 1; m <= moves; m++) {
+                    int x = random.nextInt(size);
+                    int y = random.nextInt(size);
+                    String where = size + "x" + size + ", ván " + g + ", nước " + m;
+                    boolean legal = logic.applyMove(x, y, color, true);
+                    BoardSnapshot next = s.play(x, y, color);
+                    assertEquals(legal, next != null, "hợp lệ khác nhau: " + where);
+                    if (legal) {
+                        s = next;
+                        color = color == 1 ? 2 : 1;
+                    }
+                    assertEquals(logic.getHash(), s.getHash(), "hash khác nhau: " + where);
+                    assertArrayEquals(logic.getBoard(), s.toArray(), "bàn cờ khác nhau: " + where);
+                    history[m] = s;
+                    boards[m] = s.toArray();
+                }
+                for (int m = 0; m <= moves; m++) {
+                    assertArrayEquals(boards[m], history[m].toArray(),
+                            size + "x" + size + ", ván " + g + ": snapshot " + m + " bị đổi sau khi rẽ nhánh");
+                }
+            }
+        }
+    }
+
+    @Test
+    void playCopiesOnlyChangedRow() {
+        BoardSnapshot empty = BoardSnapshot.empty(19);
+        BoardSnapshot next = empty.play(3, 3, 1);
+        assertEquals(18, next.sharedRows(empty));
+        assertEquals(17, next.play(10, 10, 2).sharedRows(empty));
+    }
+}
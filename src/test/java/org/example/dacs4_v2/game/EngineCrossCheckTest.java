@@ -0,0 +1,194 @@
+package org.example.dacs4_v2.game;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Đối chiếu các engine luật trên ván ngẫu nhiên (seed cố định): GoGameLogic (CLASSIC, INCREMENTAL),
+ * BitBoard tổng quát và bản chuyên theo kích thước (BitBoardEngine.forSize). Mỗi nước đi (kể cả nước
+ * sai luật, nước không kiểm tra Ko/tự tử) phải cho cùng kết quả, cùng số quân bị bắt và cùng bàn cờ;
+ * CLASSIC và INCREMENTAL còn phải cùng hash. Sau mỗi nước có bắt quân và mỗi lần undo / redo, mã mẫu 3x3
+ * mà GroupTracker cập nhật tăng dần (INCREMENTAL) phải bằng mã tính lại từ đầu theo định dạng PatternTable.
+ */
+class EngineCrossCheckTest {
+
+    private static final long SEED = 42L;
+    private static final int GAMES = 1000;
+    private static final int GAMES_WITH_UNDO = 200;
+    private static final int[] SIZES = { 5, 9, 13, 19 };
+
+    @Test
+    void enginesAgreeOnRandomGames() {
+        Random random = new Random(SEED);
+        for (int g = 0; g < GAMES; g++) {
+            int size = SIZES[g % SIZES.length];
+            GoGameLogic classic = new GoGameLogic(size, EngineMode.CLASSIC);
+            GoGameLogic incremental = new GoGameLogic(size, EngineMode.INCREMENTAL);
+            BitBoard bitBoard = new BitBoard(size);
+            BitBoardEngine sized = BitBoardEngine.forSize(size);
+            int color = 1;
+
+            for (int m = 0; m < size * size * 3; m++) {
+                int x = random.nextInt(size);
+                int y = random.nextInt(size);
+                // Thỉnh thoảng bỏ kiểm tra luật hoặc đi sai lượt, giống replay từ dữ liệu lỗi
+                boolean enforce = random.nextInt(10) != 0;
+                int c = random.nextInt(20) == 0 ? 3 - color : color;
+                String where = "ván " + g + ", nước " + m + " (" + x + ", " + y + ")";
+
+                boolean applied = classic.applyMove(x, y, c, enforce);
+                assertEquals(applied, incremental.applyMove(x, y, c, enforce), "INCREMENTAL khác CLASSIC ở " + where);
+                assertEquals(applied, bitBoard.applyMove(x, y, c, enforce), "BitBoard khác CLASSIC ở " + where);
+                assertEquals(applied, sized.applyMove(x, y, c, enforce), "forSize() khác CLASSIC ở " + where);
+                if (applied) {
+                    assertEquals(classic.getLastCaptureCount(), incremental.getLastCaptureCount(),
+                            "số quân bị bắt (INCREMENTAL) ở " + where);
+                    assertEquals(classic.getLastCaptureCount(), bitBoard.getLastCaptureCount(),
+                            "số quân bị bắt (BitBoard) ở " + where);
+                    assertEquals(classic.getLastCaptureCount(), sized.getLastCaptureCount(),
+                            "số quân bị bắt (forSize()) ở " + where);
+                    color = 3 - c;
+                }
+                assertArrayEquals(classic.getBoard(), incremental.getBoard(), "bàn cờ (INCREMENTAL) ở " + where);
+                assertArrayEquals(classic.getBoard(), bitBoard.getBoard(), "bàn cờ (BitBoard) ở " + where);
+                assertArrayEquals(classic.getBoard(), sized.getBoard(), "bàn cờ (forSize()) ở " + where);
+                assertEquals(classic.getHash(), incremental.getHash(), "hash ở " + where);
+                if (applied && classic.getLastCaptureCount() > 0) {
+                    assertPatterns(incremental, where);
+                }
+            }
+        }
+    }
+
+    @Test
+    void incrementalPatternsSurviveUndoAndRedo() {
+        Random random = new Random(SEED + 1);
+        for (int g = 0; g < GAMES_WITH_UNDO; g++) {
+            int size = SIZES[g % SIZES.length];
+            GoGameLogic classic = new GoGameLogic(size, EngineMode.CLASSIC);
+            GoGameLogic incremental = new GoGameLogic(size, EngineMode.INCREMENTAL);
+            int color = 1;
+
+            for (int m = 0; m < size * size * 2; m++) {
+                String where = "ván " + g + ", bước " + m;
+                int action = random.nextInt(8);
+                boolean changed;
+                if (action == 0) {
+                    changed = classic.undo();
+                    assertEquals(changed, incremental.undo(), "undo ở " + where);
+                } else if (action == 1) {
+                    changed = classic.redo();
+                    assertEquals(changed, incremental.redo(), "redo ở " + where);
+                } else {
+                    int x = random.nextInt(size);
+                    int y = random.nextInt(size);
+                    changed = classic.applyMove(x, y, color, true);
+                    assertEquals(changed, incremental.applyMove(x, y, color, true), "nước đi ở " + where);
+                    if (!changed || classic.getLastCaptureCount() == 0) {
+                        continue;
+                    }
+                }
+                if (changed) {
+                    color = 3 - color;
+                    assertArrayEquals(classic.getBoard(), incremental.getBoard(), "bàn cờ ở " + where);
+                    assertEquals(classic.getHash(), incremental.getHash(), "hash ở " + where);
+                    assertPatterns(incremental, where);
+                    // Chỉ có nước hợp lệ nên không có nhóm 0 khí: CLASSIC cũng phải khớp
+                    assertPatterns(classic, where);
+                }
+            }
+        }
+    }
+
+    private static void assertPatterns(GoGameLogic logic, String where) {
+        int n = logic.getBoardSize();
+        int[][] board = logic.getBoard();
+        int[] liberties = liberties(board);
+        for (int x = 0; x < n; x++) {
+            for (int y = 0; y < n; y++) {
+                assertEquals(pattern(board, liberties, x, y), logic.getPattern(x, y),
+                        logic.getMode() + ": mã mẫu 3x3 của (" + x + ", " + y + ") ở " + where);
+            }
+        }
+    }
+
+    /**
+     * Mã mẫu của (x, y) tính từ đầu: màu 8 láng giềng (3 = ngoài bàn) và bit atari của láng giềng trực giao
+     * thuộc nhóm còn đúng 1 khí.
+     */
+    private static int pattern(int[][] board, int[] liberties, int x, int y) {
+        int n = board.length;
+        int code = 0;
+        int slot = 0;
+        int orthogonal = 0;
+        for (int dx = -1; dx <= 1; dx++) {
+            for (int dy = -1; dy <= 1; dy++) {
+                if (dx == 0 && dy == 0) {
+                    continue;
+                }
+                int nx = x + dx;
+                int ny = y + dy;
+                boolean inside = nx >= 0 && nx < n && ny >= 0 && ny < n;
+                code |= (inside ? board[nx][ny] : 3) << (slot++ * 2);
+                if (dx == 0 || dy == 0) {
+                    if (inside && board[nx][ny] != 0 && liberties[nx * n + ny] == 1) {
+                        code |= 1 << (PatternTable.COLOR_BITS + orthogonal);
+                    }
+                    orthogonal++;
+                }
+            }
+        }
+        return code;
+    }
+
+    /**
+     * Số khí của nhóm chứa từng ô (loang từng nhóm một lần), 0 cho ô trống.
+     */
+    private static int[] liberties(int[][] board) {
+        int n = board.length;
+        int[] result = new int[n * n];
+        int[] group = new int[n * n];
+        int[] libertyMark = new int[n * n];
+        int[] stack = new int[n * n];
+        int label = 0;
+        for (int start = 0; start < n * n; start++) {
+            int color = board[start / n][start % n];
+            if (color == 0 || group[start] != 0) {
+                continue;
+            }
+            label++;
+            int members = 0;
+            int count = 0;
+            stack[members++] = start;
+            group[start] = label;
+            for (int i = 0; i < members; i++) {
+                int p = stack[i];
+                int px = p / n;
+                int py = p % n;
+                for (int d = 0; d < 4; d++) {
+                    int qx = px + (d == 0 ? -1 : d == 1 ? 1 : 0);
+                    int qy = py + (d == 2 ? -1 : d == 3 ? 1 : 0);
+                    if (qx < 0 || qx >= n || qy < 0 || qy >= n) {
+                        continue;
+                    }
+                    int q = qx * n + qy;
+                    if (board[qx][qy] == 0 && libertyMark[q] != label) {
+                        libertyMark[q] = label;
+                        count++;
+                    } else if (board[qx][qy] == color && group[q] == 0) {
+                        group[q] = label;
+                        stack[members++] = q;
+                    }
+                }
+            }
+            for (int i = 0; i < members; i++) {
+                result[stack[i]] = count;
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,55 @@
+package org.example.dacs4_v2.game;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.example.dacs4_v2.models.Game;
+import org.example.dacs4_v2.models.Moves;
+import org.junit.jupiter.api.Test;
+
+/**
+ * GameReplayService.replayAll (song song) phải cho cùng kết quả với replay() tuần tự từng ván,
+ * và bàn cờ cuối khớp với phát lại trực tiếp trên GoGameLogic.
+ */
+class GameReplayServiceTest {
+
+    private static final int GAMES = 300;
+
+    @Test
+    void replayAllMatchesSequentialReplay() {
+        List<Game> games = new ArrayList<>(GAMES);
+        List<int[]> moves = new ArrayList<>(GAMES);
+        for (int g = 0; g < GAMES; g++) {
+            int size = g % 3 == 0 ? 9 : g % 3 == 1 ? 13 : 19;
+            moves.add(RandomGames.generate(size, g, size * size));
+            games.add(toGame(size, moves.get(g), "g" + g));
+        }
+
+        List<ReplayResult> parallel = GameReplayService.replayAll(games);
+        assertEquals(GAMES, parallel.size());
+        for (int g = 0; g < GAMES; g++) {
+            Game game = games.get(g);
+            ReplayResult sequential = GameReplayService.replay(game);
+            ReplayResult batched = parallel.get(g);
+            assertTrue(sequential.isValid(), "ván " + g + " không hợp lệ khi phát lại tuần tự");
+            assertTrue(batched.isValid(), "ván " + g + " không hợp lệ khi phát lại song song");
+            assertEquals(sequential.getCapturedByBlack(), batched.getCapturedByBlack(), "quân đen bắt, ván " + g);
+            assertEquals(sequential.getCapturedByWhite(), batched.getCapturedByWhite(), "quân trắng bắt, ván " + g);
+            assertArrayEquals(sequential.getFinalBoard(), batched.getFinalBoard(), "bàn cờ cuối, ván " + g);
+            int[][] expected = RandomGames.replay(game.getBoardSize(), moves.get(g), EngineMode.INCREMENTAL).getBoard();
+            assertArrayEquals(expected, batched.getFinalBoard(), "bàn cờ cuối so với GoGameLogic, ván " + g);
+        }
+    }
+
+    private static Game toGame(int size, int[] moves, String gameId) {
+        Game game = new Game(gameId, "host", "host", "rival", size, 65, "test");
+        for (int i = 0; i < moves.length; i += 3) {
+            game.addMove(new Moves(i / 3, moves[i + 2] == 1 ? "BLACK" : "WHITE", moves[i], moves[i + 1], gameId));
+        }
+        return game;
+    }
+}
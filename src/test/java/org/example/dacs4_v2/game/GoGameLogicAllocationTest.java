@@ -0,0 +1,77 @@
+package org.example.dacs4_v2.game;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.lang.management.ManagementFactory;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Ngân sách cấp phát bộ nhớ của GoGameLogic.applyMove: sau khi khởi tạo và làm nóng JIT, đường đi
+ * của một nước phải không cấp phát gì (mọi mode, có và không có superko). Đo bằng
+ * ThreadMXBean.getCurrentThreadAllocatedBytes; bỏ qua nếu JVM không hỗ trợ.
+ */
+class GoGameLogicAllocationTest {
+
+    private static final int GAMES = 16;
+    private static final int WARMUP_ROUNDS = 200;
+
+    @Test
+    void applyMoveDoesNotAllocate() {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory
+                .getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported(), "JVM không hỗ trợ đo cấp phát theo luồng");
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        for (EngineMode mode : EngineMode.values()) {
+            for (boolean superko : new boolean[] { false, true }) {
+                for (int size : new int[] { 9, 13, 19 }) {
+                    int[][] games = new int[GAMES][];
+                    for (int g = 0; g < GAMES; g++) {
+                        games[g] = RandomGames.generate(size, 7919L * size + g, size * size * 2);
+                    }
+                    GoGameLogic[] logics = new GoGameLogic[GAMES];
+
+                    // Làm nóng JIT
+                    for (int round = 0; round < WARMUP_ROUNDS; round++) {
+                        createAll(logics, size, mode, superko);
+                        playAll(logics, games);
+                    }
+
+                    // Khởi tạo nằm ngoài phép đo, chỉ đo các nước đi
+                    createAll(logics, size, mode, superko);
+                    long baseline = threads.getCurrentThreadAllocatedBytes();
+                    baseline = threads.getCurrentThreadAllocatedBytes() - baseline;
+                    long before = threads.getCurrentThreadAllocatedBytes();
+                    long moves = playAll(logics, games);
+                    long allocated = threads.getCurrentThreadAllocatedBytes() - before - baseline;
+
+                    assertTrue(allocated <= 0, mode + " superko=" + superko + " " + size + "x" + size + ": "
+                            + allocated + " byte cho " + moves + " nước");
+                }
+            }
+        }
+    }
+
+    private static void createAll(GoGameLogic[] logics, int size, EngineMode mode, boolean superko) {
+        for (int g = 0; g < logics.length; g++) {
+            logics[g] = new GoGameLogic(size, mode);
+            logics[g].setPositionalSuperko(superko);
+        }
+    }
+
+    private static long playAll(GoGameLogic[] logics, int[][] games) {
+        long applied = 0;
+        for (int g = 0; g < logics.length; g++) {
+            GoGameLogic logic = logics[g];
+            int[] moves = games[g];
+            for (int i = 0; i < moves.length; i += 3) {
+                if (logic.applyMove(moves[i], moves[i + 1], moves[i + 2], true)) {
+                    applied++;
+                }
+            }
+        }
+        return applied;
+    }
+}
@@ -0,0 +1,124 @@
+package org.example.dacs4_v2.game;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Undo / redo / seek của GoGameLogic: ở mỗi bước, bàn cờ, getPrevBoard(), hash và nước hợp lệ (tức cả
+ * trạng thái Ko) phải giống hệt một GoGameLogic mới phát lại đúng số nước đó. Ván gồm một thế Ko
+ * (bắt, không được bắt lại ngay, bắt lại sau khi đi chỗ khác) rồi các nước ngẫu nhiên có bắt quân.
+ */
+class GoGameLogicUndoTest {
+
+    private static final int SIZE = 9;
+    private static final long SEED = 11L;
+    private static final int RANDOM_MOVES = 160;
+
+    // Thế Ko quanh (1, 1) / (1, 2): đen bắt ở nước thứ 9, trắng bắt lại ở nước thứ 12
+    private static final int[] KO_LINE = {
+            0, 1, 1, 0, 2, 2, 1, 0, 1, 2, 2, 2, 2, 1, 1, 1, 3, 2, 4, 4, 1, 1, 1, 2,
+            1, 2, 1, 4, 0, 2, 8, 8, 1, 1, 1, 2,
+    };
+    private static final int KO_CAPTURE = 9;
+    private static final int KO_RETAKE = 12;
+
+    @Test
+    void undoRedoAndSeekMatchFreshReplay() {
+        for (EngineMode mode : EngineMode.values()) {
+            int[] moves = game(mode);
+            int n = moves.length / 3;
+            GoGameLogic logic = RandomGames.replay(SIZE, moves, mode);
+            assertEquals(n, logic.getMoveIndex());
+
+            for (int k = n - 1; k >= 0; k--) {
+                assertTrue(logic.undo());
+                assertMatchesReplay(logic, moves, k, mode + " undo");
+            }
+            assertFalse(logic.undo());
+            assertEquals(n, logic.getJournalSize());
+
+            for (int k = 1; k <= n; k++) {
+                assertTrue(logic.redo());
+                assertMatchesReplay(logic, moves, k, mode + " redo");
+            }
+            assertFalse(logic.redo());
+
+            Random random = new Random(SEED);
+            for (int i = 0; i < 40; i++) {
+                int k = random.nextInt(n + 1);
+                assertTrue(logic.seek(k));
+                assertMatchesReplay(logic, moves, k, mode + " seek");
+            }
+        }
+    }
+
+    @Test
+    void undoRestoresKo() {
+        for (EngineMode mode : EngineMode.values()) {
+            GoGameLogic logic = RandomGames.replay(SIZE, game(mode), mode);
+
+            assertTrue(logic.seek(KO_CAPTURE));
+            assertEquals(1, logic.getLastCaptureCount());
+            assertFalse(logic.applyMove(1, 1, 2, true), mode + ": bắt lại Ko ngay phải bị cấm");
+
+            assertTrue(logic.seek(KO_RETAKE));
+            assertEquals(1, logic.getLastCaptureCount());
+            assertEquals(2, logic.getCell(1, 1));
+            assertEquals(0, logic.getCell(1, 2));
+            assertFalse(logic.applyMove(1, 2, 1, true), mode + ": đen bắt lại Ko ngay phải bị cấm");
+        }
+    }
+
+    /**
+     * KO_LINE rồi các nước hợp lệ ngẫu nhiên (seed cố định), dạng phẳng (x, y, color).
+     */
+    private static int[] game(EngineMode mode) {
+        GoGameLogic logic = new GoGameLogic(SIZE, mode);
+        int[] moves = Arrays.copyOf(KO_LINE, KO_LINE.length + RANDOM_MOVES * 3);
+        for (int i = 0; i < KO_LINE.length; i += 3) {
+            assertTrue(logic.applyMove(KO_LINE[i], KO_LINE[i + 1], KO_LINE[i + 2], true), "nước " + (i / 3 + 1));
+        }
+        Random random = new Random(SEED);
+        int count = KO_LINE.length / 3;
+        int color = 1;
+        int captures = 0;
+        for (int failures = 0; count < moves.length / 3 && failures < SIZE * SIZE * 4;) {
+            int x = random.nextInt(SIZE);
+            int y = random.nextInt(SIZE);
+            if (!logic.applyMove(x, y, color, true)) {
+                failures++;
+                continue;
+            }
+            failures = 0;
+            captures += logic.getLastCaptureCount();
+            moves[count * 3] = x;
+            moves[count * 3 + 1] = y;
+            moves[count * 3 + 2] = color;
+            count++;
+            color = 3 - color;
+        }
+        assertTrue(captures > 0, "ván ngẫu nhiên phải có bắt quân");
+        return Arrays.copyOf(moves, count * 3);
+    }
+
+    private static void assertMatchesReplay(GoGameLogic logic, int[] moves, int k, String what) {
+        GoGameLogic fresh = RandomGames.replay(SIZE, Arrays.copyOf(moves, k * 3), logic.getMode());
+        String where = what + " tới nước " + k;
+        assertEquals(k, logic.getMoveIndex(), where);
+        assertArrayEquals(fresh.getBoard(), logic.getBoard(), "bàn cờ, " + where);
+        assertArrayEquals(fresh.getPrevBoard(), logic.getPrevBoard(), "bàn cờ trước, " + where);
+        assertEquals(fresh.getHash(), logic.getHash(), "hash, " + where);
+        assertEquals(fresh.getLastCaptureCount(), logic.getLastCaptureCount(), "số quân bắt, " + where);
+        for (int color = 1; color <= 2; color++) {
+            assertArrayEquals(fresh.legalMoves(color), logic.legalMoves(color),
+                    "nước hợp lệ màu " + color + ", " + where);
+        }
+    }
+}
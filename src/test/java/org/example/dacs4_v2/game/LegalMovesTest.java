@@ -0,0 +1,51 @@
+package org.example.dacs4_v2.game;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * GoGameLogic.legalMoves() (CLASSIC và INCREMENTAL) phải khớp với cách thử applyMove trên một
+ * bản sao bàn cờ cho từng ô, trên các thế cờ giữa ván cả thưa lẫn dày.
+ */
+class LegalMovesTest {
+
+    private static final int POSITIONS = 32;
+
+    @Test
+    void legalMovesMatchBruteForce() {
+        for (int size : new int[] { 9, 13, 19 }) {
+            for (int i = 0; i < POSITIONS; i++) {
+                int[] moves = RandomGames.generate(size, 7000L * size + i, size * size * (i % 4 + 1) / 3);
+                GoGameLogic classic = RandomGames.replay(size, moves, EngineMode.CLASSIC);
+                GoGameLogic incremental = RandomGames.replay(size, moves, EngineMode.INCREMENTAL);
+                for (int color = 1; color <= 2; color++) {
+                    long[] expected = bruteForce(classic, color);
+                    String where = size + "x" + size + ", thế cờ " + i + ", màu " + color;
+                    assertArrayEquals(expected, classic.legalMoves(color), "CLASSIC " + where);
+                    assertArrayEquals(expected, incremental.legalMoves(color), "INCREMENTAL " + where);
+                }
+            }
+        }
+    }
+
+    /**
+     * Với mỗi ô, tạo bản sao bàn cờ và thử applyMove.
+     */
+    private static long[] bruteForce(GoGameLogic logic, int color) {
+        int n = logic.getBoardSize();
+        int[][] board = logic.getBoard();
+        int[][] prev = logic.getPrevBoard();
+        long[] mask = new long[(n * n + 63) >>> 6];
+        for (int x = 0; x < n; x++) {
+            for (int y = 0; y < n; y++) {
+                GoGameLogic copy = new GoGameLogic(n, board, prev);
+                if (copy.applyMove(x, y, color, true)) {
+                    int i = x * n + y;
+                    mask[i >>> 6] |= 1L << i;
+                }
+            }
+        }
+        return mask;
+    }
+}
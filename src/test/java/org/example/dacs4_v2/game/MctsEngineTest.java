@@ -0,0 +1,54 @@
+package org.example.dacs4_v2.game;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * MctsEngine giữ lại cây giữa các nước: sau khi đối thủ đi một nước có trong cây, lần tìm sau bắt đầu
+ * từ node đó. Bàn 5x5 với đủ playout để nước được chọn chắc chắn đã thăm mọi nước đáp lại
+ * (con chưa thăm luôn được ưu tiên), nên kết quả không phụ thuộc vào may rủi của playout.
+ */
+class MctsEngineTest {
+
+    private static final int SIZE = 5;
+    private static final int PLAYOUTS = 5000;
+    private static final long NO_DEADLINE_MS = 60_000;
+
+    @Test
+    void opponentReplyReusesSubtree() {
+        MctsEngine engine = new MctsEngine(PLAYOUTS);
+        GoGameLogic logic = new GoGameLogic(SIZE, EngineMode.INCREMENTAL);
+        int[] move = engine.selectMove(logic, 1, 0.5, NO_DEADLINE_MS);
+        assertEquals(0, engine.getLastReusedVisits(), "nước đầu tiên không có cây để giữ lại");
+        assertTrue(move[0] >= 0, "engine pass trên bàn trống");
+        logic.applyMove(move[0], move[1], 1, false);
+
+        playFirstLegal(logic, 2);
+        engine.selectMove(logic, 1, 0.5, NO_DEADLINE_MS);
+        assertTrue(engine.getLastReusedVisits() > 0, "không giữ lại được cây sau nước đáp của đối thủ");
+    }
+
+    @Test
+    void resetDropsTree() {
+        MctsEngine engine = new MctsEngine(PLAYOUTS);
+        GoGameLogic logic = new GoGameLogic(SIZE, EngineMode.INCREMENTAL);
+        int[] move = engine.selectMove(logic, 1, 0.5, NO_DEADLINE_MS);
+        logic.applyMove(move[0], move[1], 1, false);
+        playFirstLegal(logic, 2);
+
+        engine.reset();
+        engine.selectMove(logic, 1, 0.5, NO_DEADLINE_MS);
+        assertEquals(0, engine.getLastReusedVisits());
+    }
+
+    private static void playFirstLegal(GoGameLogic logic, int color) {
+        for (int p = 0; p < SIZE * SIZE; p++) {
+            if (logic.applyMove(p / SIZE, p % SIZE, color, false)) {
+                return;
+            }
+        }
+        throw new AssertionError("không còn nước hợp lệ cho màu " + color);
+    }
+}
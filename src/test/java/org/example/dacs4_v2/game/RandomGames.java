@@ -0,0 +1,96 @@
+package org.example.dacs4_v2.game;
+
+import java.util.Random;
+
+/**
+ * Sinh ván cờ ngẫu nhiên (chỉ gồm nước hợp lệ) làm dữ liệu cho test và benchmark.
+ * Nước đi được lưu phẳng dạng [x0, y0, color0, x1, y1, color1, ...].
+ */
+public final class RandomGames {
+
+    private RandomGames() {
+    }
+
+    /**
+     * Sinh một ván ngẫu nhiên với tối đa maxMoves nước đặt quân.
+     *
+     * @param boardSize kích thước bàn cờ
+     * @param seed      seed để tái lập kết quả
+     * @param maxMoves  số nước tối đa
+     * @return mảng nước đi phẳng (x, y, color)
+     */
+    public static int[] generate(int boardSize, long seed, int maxMoves) {
+        Random random = new Random(seed);
+        GoGameLogic logic = new GoGameLogic(boardSize, EngineMode.INCREMENTAL);
+        int[] moves = new int[maxMoves * 3];
+        int count = 0;
+        int color = 1;
+        int failures = 0;
+        while (count < maxMoves && failures < boardSize * boardSize * 4) {
+            int x = random.nextInt(boardSize);
+            int y = random.nextInt(boardSize);
+            if (!logic.applyMove(x, y, color, true)) {
+                failures++;
+                continue;
+            }
+            failures = 0;
+            moves[count * 3] = x;
+            moves[count * 3 + 1] = y;
+            moves[count * 3 + 2] = color;
+            count++;
+            color = color == 1 ? 2 : 1;
+        }
+        int[] result = new int[count * 3];
+        System.arraycopy(moves, 0, result, 0, result.length);
+        return result;
+    }
+
+    /**
+     * Đánh ngẫu nhiên tới khi cả hai bên không còn nước nào ngoài tự lấp mắt (thế cờ cuối ván).
+     *
+     * @return GoGameLogic ở thế cờ cuối
+     */
+    public static GoGameLogic finished(int boardSize, Random random) {
+        GoGameLogic logic = new GoGameLogic(boardSize, EngineMode.INCREMENTAL);
+        int cells = boardSize * boardSize;
+        int color = 1;
+        int passes = 0;
+        for (int m = 0; m < cells * 3 && passes < 2; m++) {
+            boolean played = false;
+            int offset = random.nextInt(cells);
+            for (int i = 0; i < cells && !played; i++) {
+                int p = (offset + i) % cells;
+                int x = p / boardSize;
+                int y = p % boardSize;
+                played = !isEyeLike(logic, x, y, color) && logic.applyMove(x, y, color, true);
+            }
+            passes = played ? 0 : passes + 1;
+            color = color == 1 ? 2 : 1;
+        }
+        return logic;
+    }
+
+    private static boolean isEyeLike(GoGameLogic logic, int x, int y, int color) {
+        int[][] dirs = { { 1, 0 }, { -1, 0 }, { 0, 1 }, { 0, -1 } };
+        for (int[] d : dirs) {
+            int v = logic.getCell(x + d[0], y + d[1]);
+            if (v != -1 && v != color) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Phát lại danh sách nước đi trên một GoGameLogic mới.
+     *
+     * @return GoGameLogic sau khi đã phát lại
+     */
+    public static GoGameLogic replay(int boardSize, int[] moves, EngineMode mode) {
+        GoGameLogic logic = new GoGameLogic(boardSize, mode);
+        for (int i = 0; i < moves.length; i += 3) {
+            logic.applyMove(moves[i], moves[i + 1], moves[i + 2], true);
+        }
+        return logic;
+    }
+}
@@ -0,0 +1,109 @@
+package org.example.dacs4_v2.game;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Positional superko trên Ko ba (triple ko): ba Ko độc lập, hai bên lần lượt bắt ở Ko khác Ko vừa bị bắt,
+ * sau 6 nước bàn cờ trở lại đúng thế ban đầu. Ko đơn không cấm nước nào trong vòng lặp (không nước nào bắt
+ * lại ngay), còn superko cấm nước thứ 6.
+ */
+class SuperkoTest {
+
+    private static final int SIZE = 9;
+    // Góc trên trái của ba Ko (mỗi Ko chiếm 3 hàng x 4 cột)
+    private static final int[][] KOS = { { 0, 0 }, { 0, 5 }, { 5, 0 } };
+    // Vòng lặp: Ko bị bắt và màu bắt ở từng nước
+    private static final int[] CYCLE_KO = { 0, 1, 2, 0, 1, 2 };
+    private static final int[] CYCLE_COLOR = { 1, 2, 1, 2, 1, 2 };
+
+    @Test
+    void tripleKoCycleIsLegalWithoutSuperko() {
+        for (EngineMode mode : EngineMode.values()) {
+            GoGameLogic logic = tripleKo(mode);
+            long start = logic.getHash();
+            int[][] board = GoGameLogic.deepCopy(logic.getBoard());
+
+            for (int round = 0; round < 2; round++) {
+                for (int m = 0; m < CYCLE_KO.length; m++) {
+                    assertTrue(capture(logic, m), mode + ": vòng " + round + ", nước " + (m + 1));
+                    assertEquals(1, logic.getLastCaptureCount());
+                }
+                assertEquals(start, logic.getHash(), mode + ": sau một vòng phải về thế ban đầu");
+                assertArrayEquals(board, logic.getBoard());
+            }
+        }
+    }
+
+    @Test
+    void superkoRejectsTheMoveThatClosesTheCycle() {
+        for (EngineMode mode : EngineMode.values()) {
+            GoGameLogic logic = tripleKo(mode);
+            logic.setPositionalSuperko(true);
+            for (int m = 0; m < CYCLE_KO.length - 1; m++) {
+                assertTrue(capture(logic, m), mode + ": nước " + (m + 1));
+            }
+            long hash = logic.getHash();
+            int[][] board = GoGameLogic.deepCopy(logic.getBoard());
+            int[] last = point(CYCLE_KO.length - 1);
+
+            long[] legal = logic.legalMoves(2);
+            int i = last[0] * SIZE + last[1];
+            assertEquals(0, legal[i >>> 6] & (1L << i), mode + ": legalMoves() không được có nước lặp thế");
+            assertFalse(capture(logic, CYCLE_KO.length - 1), mode + ": superko phải cấm nước thứ 6");
+            assertEquals(hash, logic.getHash());
+            assertArrayEquals(board, logic.getBoard());
+
+            // Tắt superko thì nước đó lại hợp lệ (chỉ còn Ko đơn)
+            logic.setPositionalSuperko(false);
+            assertTrue(capture(logic, CYCLE_KO.length - 1), mode + ": Ko đơn không cấm nước thứ 6");
+        }
+    }
+
+    /**
+     * Dựng ba Ko. Ở Ko có góc (x, y): đen ở (x, y+1), (x+1, y), (x+2, y+1), trắng ở (x, y+2), (x+1, y+3),
+     * (x+2, y+2); trắng giữ Ko khi có quân ở (x+1, y+1), đen giữ khi có quân ở (x+1, y+2). Thế ban đầu:
+     * trắng giữ Ko 0 và Ko 2, đen giữ Ko 1.
+     */
+    private static GoGameLogic tripleKo(EngineMode mode) {
+        GoGameLogic logic = new GoGameLogic(SIZE, mode);
+        for (int k = 0; k < KOS.length; k++) {
+            int x = KOS[k][0];
+            int y = KOS[k][1];
+            place(logic, x, y + 1, 1);
+            place(logic, x + 1, y, 1);
+            place(logic, x + 2, y + 1, 1);
+            place(logic, x, y + 2, 2);
+            place(logic, x + 1, y + 3, 2);
+            place(logic, x + 2, y + 2, 2);
+            if (k == 1) {
+                place(logic, x + 1, y + 2, 1);
+            } else {
+                place(logic, x + 1, y + 1, 2);
+            }
+        }
+        return logic;
+    }
+
+    private static void place(GoGameLogic logic, int x, int y, int color) {
+        assertTrue(logic.applyMove(x, y, color, true), "dựng thế cờ: (" + x + ", " + y + ")");
+        assertEquals(0, logic.getLastCaptureCount());
+    }
+
+    /**
+     * Nước thứ m của vòng lặp: đen bắt bằng quân ở (x+1, y+2), trắng bắt bằng quân ở (x+1, y+1).
+     */
+    private static boolean capture(GoGameLogic logic, int m) {
+        int[] p = point(m);
+        return logic.applyMove(p[0], p[1], CYCLE_COLOR[m], true);
+    }
+
+    private static int[] point(int m) {
+        int[] ko = KOS[CYCLE_KO[m]];
+        return new int[] { ko[0] + 1, ko[1] + (CYCLE_COLOR[m] == 1 ? 2 : 1) };
+    }
+}
@@ -0,0 +1,128 @@
+package org.example.dacs4_v2.game;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Hash đối xứng của GoGameLogic: đánh cùng một ván ngẫu nhiên dưới cả 8 phép đối xứng, hash chuẩn
+ * phải trùng nhau ở mọi nước (cả sau undo/redo), getSymmetryHash(s) phải bằng hash của bàn cờ đã
+ * biến đổi, OpeningBook phải trả đúng nước đã biến đổi, và key chuẩn gộp được các thế khai cuộc
+ * đối xứng nhau.
+ */
+class SymmetryTest {
+
+    private static final int GAMES = 50;
+    private static final int OPENING_GAMES = 2000;
+    private static final int OPENING_MOVES = 4;
+
+    @Test
+    void symmetricGamesShareCanonicalHash() {
+        for (EngineMode mode : EngineMode.values()) {
+            for (int size : new int[] { 9, 13, 19 }) {
+                for (int g = 0; g < GAMES; g++) {
+                    int[] moves = RandomGames.generate(size, 31L * size + g, size * size);
+                    checkGame(size, moves, mode, mode + " " + size + "x" + size + ", ván " + g);
+                }
+            }
+        }
+    }
+
+    /**
+     * Nhớ nước trên thế gốc rồi tra trên từng thế đối xứng: phải ra đúng nước đã biến đổi.
+     */
+    @Test
+    void openingBookMapsMoveThroughSymmetry() {
+        int size = 19;
+        int[] moves = RandomGames.generate(size, 5L, 7);
+        int x = -1;
+        int y = -1;
+        GoGameLogic base = replay(size, moves, Symmetry.IDENTITY);
+        for (int p = 0; p < size * size && x < 0; p++) {
+            if (base.getCell(p / size, p % size) == 0) {
+                x = p / size;
+                y = p % size;
+            }
+        }
+        OpeningBook book = new OpeningBook();
+        book.record(base, 2, 6.5, x, y);
+        for (int s = 0; s < Symmetry.COUNT; s++) {
+            GoGameLogic logic = replay(size, moves, s);
+            int[] move = book.lookup(logic, 2, 6.5);
+            assertNotNull(move, "không tra được thế cờ theo phép " + s);
+            assertEquals(Symmetry.transform(s, x, y, size), move[0] * size + move[1], "sai nước theo phép " + s);
+            assertNull(book.lookup(logic, 1, 6.5), "trả nước cho màu khác");
+            assertNull(book.lookup(logic, 2, 7.5), "trả nước cho komi khác");
+        }
+    }
+
+    /**
+     * Thế khai cuộc 9x9 ngẫu nhiên, mỗi thế được gặp dưới một phép đối xứng ngẫu nhiên:
+     * getCanonicalHash() phải cho ít key hơn getHash().
+     */
+    @Test
+    void canonicalHashMergesOpeningKeys() {
+        int size = 9;
+        Random random = new Random(18);
+        Set<Long> plain = new HashSet<>();
+        Set<Long> canonical = new HashSet<>();
+        for (int g = 0; g < OPENING_GAMES; g++) {
+            int[] moves = RandomGames.generate(size, random.nextInt(40), OPENING_MOVES);
+            GoGameLogic logic = replay(size, moves, random.nextInt(Symmetry.COUNT));
+            plain.add(logic.getHash());
+            canonical.add(logic.getCanonicalHash());
+        }
+        assertTrue(canonical.size() < plain.size(),
+                canonical.size() + " key chuẩn, " + plain.size() + " key theo getHash()");
+    }
+
+    private static void checkGame(int size, int[] moves, EngineMode mode, String where) {
+        GoGameLogic[] logics = new GoGameLogic[Symmetry.COUNT];
+        for (int s = 0; s < Symmetry.COUNT; s++) {
+            logics[s] = new GoGameLogic(size, mode);
+        }
+        for (int i = 0; i < moves.length; i += 3) {
+            for (int s = 0; s < Symmetry.COUNT; s++) {
+                int q = Symmetry.transform(s, moves[i], moves[i + 1], size);
+                logics[s].applyMove(q / size, q % size, moves[i + 2], true);
+            }
+            long key = logics[0].getCanonicalHash();
+            for (int s = 0; s < Symmetry.COUNT; s++) {
+                String at = where + ", phép " + s + ", nước " + i / 3;
+                assertEquals(key, logics[s].getCanonicalHash(), "hash chuẩn khác nhau: " + at);
+                assertEquals(logics[s].getHash(), logics[0].getSymmetryHash(s),
+                        "getSymmetryHash() khác hash của bàn đã biến đổi: " + at);
+            }
+        }
+        // undo/redo phải đưa hash đối xứng về đúng giá trị cũ
+        GoGameLogic logic = logics[0];
+        long[] before = new long[Symmetry.COUNT];
+        for (int s = 0; s < Symmetry.COUNT; s++) {
+            before[s] = logic.getSymmetryHash(s);
+        }
+        logic.seek(logic.getMoveIndex() / 2);
+        logic.seek(logic.getJournalSize());
+        for (int s = 0; s < Symmetry.COUNT; s++) {
+            assertEquals(before[s], logic.getSymmetryHash(s), "hash đối xứng " + s + " sai sau undo/redo: " + where);
+        }
+        GoGameLogic fresh = new GoGameLogic(size, logic.getBoard(), null, mode);
+        assertEquals(logic.getCanonicalHash(), fresh.getCanonicalHash(),
+                "hash chuẩn khi nạp bàn cờ khác hash tăng dần: " + where);
+    }
+
+    private static GoGameLogic replay(int size, int[] moves, int s) {
+        GoGameLogic logic = new GoGameLogic(size, EngineMode.INCREMENTAL);
+        for (int i = 0; i < moves.length; i += 3) {
+            int q = Symmetry.transform(s, moves[i], moves[i + 1], size);
+            logic.applyMove(q / size, q % size, moves[i + 2], true);
+        }
+        return logic;
+    }
+}
@@ -0,0 +1,81 @@
+package org.example.dacs4_v2.game;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tactics trên vài thế thang dựng sẵn 19x19, và setPosition() khi chỉ đồng bộ lại các ô vừa đổi
+ * (GoGameLogic.syncTo) cho cùng gợi ý với một Tactics mới dựng từ đầu ở mọi nước của ván ngẫu nhiên.
+ */
+class TacticsTest {
+
+    private static final int SIZE = 19;
+    private static final int GAMES = 8;
+
+    @Test
+    void ladderOnEmptyBoardIsCaptured() {
+        assertEquals(Tactics.Hint.LADDER, hint(ladder(9), 9));
+    }
+
+    @Test
+    void ladderBreakerStopsLadder() {
+        int[][] board = ladder(9);
+        board[16][2] = 2; // quân chặn trên đường chéo của thang
+        assertEquals(Tactics.Hint.ATARI, hint(board, 9));
+    }
+
+    @Test
+    void longestLadderIsCaptured() {
+        assertEquals(Tactics.Hint.LADDER, hint(ladder(1), 1));
+    }
+
+    @Test
+    void syncedPositionMatchesFreshPosition() {
+        Random random = new Random(16);
+        for (int g = 0; g < GAMES; g++) {
+            int[] moves = RandomGames.generate(SIZE, random.nextLong(), SIZE * SIZE);
+            GoGameLogic logic = new GoGameLogic(SIZE, EngineMode.INCREMENTAL);
+            Tactics synced = new Tactics(SIZE);
+            synced.setPosition(logic);
+            for (int i = 0; i < moves.length; i += 3) {
+                logic.applyMove(moves[i], moves[i + 1], moves[i + 2], true);
+                synced.setPosition(logic);
+                Tactics fresh = new Tactics(SIZE);
+                fresh.setPosition(logic);
+                int color = 3 - moves[i + 2];
+                // Các ô quanh nước vừa đi là nơi gợi ý thay đổi
+                for (int x = moves[i] - 2; x <= moves[i] + 2; x++) {
+                    for (int y = moves[i + 1] - 2; y <= moves[i + 1] + 2; y++) {
+                        if (x >= 0 && y >= 0 && x < SIZE && y < SIZE) {
+                            assertEquals(fresh.hint(x, y, color), synced.hint(x, y, color),
+                                    "ván " + g + ", nước " + i / 3 + ", ô (" + x + ", " + y + ")");
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Quân trắng (s, SIZE - 1 - s) bị đen kẹp trái, dưới và chéo dưới phải: đen atari ở ô phía trên
+     * mở ra thang chạy về góc (SIZE - 1, 0).
+     */
+    private static int[][] ladder(int s) {
+        int[][] board = new int[SIZE][SIZE];
+        int y = SIZE - 1 - s;
+        board[s][y] = 2;
+        board[s - 1][y] = 1;
+        board[s][y + 1] = 1;
+        board[s + 1][y + 1] = 1;
+        return board;
+    }
+
+    private static Tactics.Hint hint(int[][] board, int s) {
+        Tactics tactics = new Tactics(SIZE);
+        tactics.setPosition(new GoGameLogic(SIZE, board, null, EngineMode.INCREMENTAL));
+        return tactics.hint(s, SIZE - 2 - s, 1);
+    }
+}